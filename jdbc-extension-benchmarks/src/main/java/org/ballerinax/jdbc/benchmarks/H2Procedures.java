@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.benchmarks;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Java implementations of the stored procedures used by the benchmarks, registered as H2 aliases.
+ *
+ * @since 0.982.1
+ */
+public final class H2Procedures {
+
+    private H2Procedures() {
+    }
+
+    public static ResultSet selectPersonData(Connection connection) throws SQLException {
+        return connection.createStatement()
+                .executeQuery("SELECT firstName FROM Customers WHERE registrationID = 1");
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.benchmarks;
+
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.BRunUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinax.test.utils.SQLDBUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the actions of the JDBC client against embedded H2 and HSQLDB databases, initialized with the
+ * database scripts of the JDBC extension tests.
+ *
+ * @since 0.982.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JDBCClientBenchmark {
+
+    private static final String DB_DIRECTORY = "./target/benchmarkdb/";
+    private static final String DB_NAME = "JDBC_BENCHMARK";
+    private static final String BAL_FILE = "jdbc_benchmarks.bal";
+
+    @Param({"H2", "HSQLDB"})
+    private String database;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private CompileResult result;
+    private BValue[] connectionArgs;
+    private BValue[] registrationIdArgs = {new BInteger(1)};
+    private BValue[] creditLimitArgs = {new BFloat(5000.75)};
+    private BValue[] batchArgs;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        SQLDBUtils.deleteFiles(new File(DB_DIRECTORY), DB_NAME);
+        String url;
+        String username;
+        switch (database) {
+        case "H2":
+            SQLDBUtils.initH2Database(DB_DIRECTORY, DB_NAME, "sqlfiles/SQLTest_H2_Data.sql");
+            url = "jdbc:h2:file:" + DB_DIRECTORY + DB_NAME;
+            username = "sa";
+            createH2Procedures(url, username);
+            break;
+        case "HSQLDB":
+            SQLDBUtils.initHSQLDBDatabase(DB_DIRECTORY, DB_NAME, "sqlfiles/SQLTest_HSQL_Data.sql");
+            url = "jdbc:hsqldb:file:" + DB_DIRECTORY + DB_NAME;
+            username = "SA";
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported database: " + database);
+        }
+        result = compile();
+        connectionArgs = new BValue[]{new BString(url), new BString(username), new BString("")};
+        batchArgs = new BValue[]{new BInteger(batchSize)};
+        BRunUtil.invoke(result, "initClient", connectionArgs);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        BRunUtil.invoke(result, "deleteInsertedCustomers");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BRunUtil.invoke(result, "stopClient");
+        SQLDBUtils.deleteFiles(new File(DB_DIRECTORY), DB_NAME);
+    }
+
+    /**
+     * Creates and stops a client with a connection pool of its own.
+     */
+    @Benchmark
+    public BValue[] createClient() {
+        return BRunUtil.invoke(result, "createClient", connectionArgs);
+    }
+
+    /**
+     * Selects all the customers and converts the rows to records.
+     */
+    @Benchmark
+    public BValue[] select() {
+        return BRunUtil.invoke(result, "selectCustomers");
+    }
+
+    @Benchmark
+    public BValue[] parameterizedSelect() {
+        return BRunUtil.invoke(result, "selectCustomerByRegistrationId", registrationIdArgs);
+    }
+
+    @Benchmark
+    public BValue[] update() {
+        return BRunUtil.invoke(result, "updateCreditLimit", creditLimitArgs);
+    }
+
+    @Benchmark
+    public BValue[] updateWithGeneratedKeys() {
+        return BRunUtil.invoke(result, "insertCustomer");
+    }
+
+    /**
+     * Inserts {@link #batchSize} customers with a single batch update.
+     */
+    @Benchmark
+    public BValue[] batchUpdate() {
+        return BRunUtil.invoke(result, "batchInsertCustomers", batchArgs);
+    }
+
+    @Benchmark
+    public BValue[] call() {
+        return BRunUtil.invoke(result, "callProcedure");
+    }
+
+    /**
+     * Compiles the Ballerina functions driving the benchmarks. The source is copied out of the benchmarks jar since
+     * the compiler reads the sources from the file system.
+     */
+    private static CompileResult compile() throws IOException {
+        Path sourceRoot = Files.createTempDirectory("jdbc-benchmarks");
+        sourceRoot.toFile().deleteOnExit();
+        Path source = sourceRoot.resolve(BAL_FILE);
+        try (InputStream in = JDBCClientBenchmark.class.getClassLoader()
+                .getResourceAsStream("balfiles/" + BAL_FILE)) {
+            Files.copy(in, source);
+        }
+        source.toFile().deleteOnExit();
+        CompileResult compileResult = BCompileUtil.compile(sourceRoot.toString(), BAL_FILE);
+        if (compileResult.getErrorCount() > 0) {
+            throw new IllegalStateException("Compiling " + BAL_FILE + " failed: " + compileResult);
+        }
+        return compileResult;
+    }
+
+    /**
+     * Defines the procedures the HSQLDB test script creates, which are not part of the H2 test script.
+     */
+    private static void createH2Procedures(String url, String username) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, "");
+                Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE ALIAS IF NOT EXISTS SelectPersonData FOR \""
+                    + H2Procedures.class.getName() + ".selectPersonData\"");
+        }
+    }
+}
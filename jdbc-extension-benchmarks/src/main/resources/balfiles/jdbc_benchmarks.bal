@@ -0,0 +1,131 @@
+// Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+import ballerinax/jdbc;
+
+type Customer record {
+    int CUSTOMERID;
+    string FIRSTNAME;
+    string LASTNAME;
+    int REGISTRATIONID;
+    float CREDITLIMIT;
+    string COUNTRY;
+};
+
+type ResultCustomers record {
+    string FIRSTNAME;
+};
+
+// Registration ID of the rows inserted by the benchmarks, which are deleted after each iteration
+@final int BENCHMARK_REGISTRATION_ID = 1000;
+
+jdbc:Client testDB = new;
+
+function initClient(string jdbcUrl, string userName, string password) {
+    testDB.init({ url: jdbcUrl, username: userName, password: password, poolOptions: { maximumPoolSize: 10 } });
+}
+
+function stopClient() {
+    testDB.stop();
+}
+
+function createClient(string jdbcUrl, string userName, string password) {
+    // The pool options differ from the ones of the shared client so that a new connection pool is created
+    endpoint jdbc:Client client {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+    client.stop();
+}
+
+function selectCustomers() returns int {
+    table dt = check testDB.getCallerActions().select("SELECT * FROM Customers WHERE registrationID < ?", Customer,
+        BENCHMARK_REGISTRATION_ID);
+    return countCustomers(dt);
+}
+
+function selectCustomerByRegistrationId(int registrationId) returns int {
+    sql:Parameter p1 = { sqlType: sql:TYPE_INTEGER, value: registrationId };
+    table dt = check testDB.getCallerActions().select("SELECT * FROM Customers WHERE registrationID = ?", Customer,
+        p1);
+    return countCustomers(dt);
+}
+
+function countCustomers(table dt) returns int {
+    int count;
+    while (dt.hasNext()) {
+        Customer customer = check <Customer>dt.getNext();
+        count = count + 1;
+    }
+    return count;
+}
+
+function updateCreditLimit(float creditLimit) returns int {
+    return check testDB.getCallerActions().update("UPDATE Customers SET creditLimit = ? WHERE registrationID = 1",
+        creditLimit);
+}
+
+function insertCustomer() returns string {
+    var ret = testDB.getCallerActions().updateWithGeneratedKeys("INSERT INTO Customers (firstName, lastName,
+            registrationID, creditLimit, country) VALUES ('Mary', 'Williams', ?, 5000.75, 'USA')", (),
+        BENCHMARK_REGISTRATION_ID);
+    match ret {
+        (int, string[]) result => {
+            int count;
+            string[] keys;
+            (count, keys) = result;
+            return keys[0];
+        }
+        error err => throw err;
+    }
+}
+
+function batchInsertCustomers(int batchSize) returns int[] {
+    sql:Param[][] batches;
+    int i = 0;
+    while (i < batchSize) {
+        sql:Param[] parameters = ["Alex", "Smith", BENCHMARK_REGISTRATION_ID, 3400.5, "Colombo"];
+        batches[i] = parameters;
+        i = i + 1;
+    }
+    return check testDB.getCallerActions().batchUpdate("INSERT INTO Customers (firstName, lastName, registrationID,
+            creditLimit, country) VALUES (?, ?, ?, ?, ?)", ...batches);
+}
+
+function callProcedure() returns int {
+    var ret = check testDB.getCallerActions().call("{call SelectPersonData()}", [ResultCustomers]);
+    int count;
+    match ret {
+        table[] dts => {
+            foreach dt in dts {
+                while (dt.hasNext()) {
+                    ResultCustomers customer = check <ResultCustomers>dt.getNext();
+                    count = count + 1;
+                }
+            }
+        }
+        () => {}
+    }
+    return count;
+}
+
+function deleteInsertedCustomers() returns int {
+    return check testDB.getCallerActions().update("DELETE FROM Customers WHERE registrationID = ?",
+        BENCHMARK_REGISTRATION_ID);
+}
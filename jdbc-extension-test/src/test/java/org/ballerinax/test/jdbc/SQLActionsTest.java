@@ -567,6 +567,107 @@ public class SQLActionsTest {
         Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
     }
 
+    @Test(groups = CONNECTOR_TEST)
+    public void testBatchUpdateInChunksWithFailure() {
+        BValue[] returns = BRunUtil.invoke(result, "testBatchUpdateInChunksWithFailure", connectionArgs);
+        BIntArray retValue = (BIntArray) returns[0];
+        Assert.assertEquals(retValue.get(0), 1);
+        Assert.assertEquals(retValue.get(1), 1);
+        Assert.assertEquals(retValue.get(2), -3);
+        Assert.assertEquals(retValue.get(3), -3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testBatchUpdateWithRewrittenInserts() {
+        BValue[] returns = BRunUtil.invoke(result, "testBatchUpdateWithRewrittenInserts", connectionArgs);
+        BIntArray retValue = (BIntArray) returns[0];
+        Assert.assertEquals(retValue.size(), 3);
+        Assert.assertEquals(retValue.get(0), -2);
+        Assert.assertEquals(retValue.get(2), -2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 3);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testBulkLoad() {
+        BValue[] returns = BRunUtil.invoke(result, "testBulkLoad", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[5]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[6]).intValue(), 1);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testBatchUpdateWithGeneratedKeys() {
+        BValue[] returns = BRunUtil.invoke(result, "testBatchUpdateWithGeneratedKeys", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 3);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testSelectPartitioned() {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectPartitioned", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 8);
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 8);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2478);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testWriteCoalescing() {
+        BValue[] returns = BRunUtil.invoke(result, "testWriteCoalescing", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertTrue(((BBoolean) returns[2]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testWriteCoalescingTypedValues() {
+        BValue[] returns = BRunUtil.invoke(result, "testWriteCoalescingTypedValues", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        Assert.assertTrue(((BInteger) returns[2]).intValue() > 0, "the typed inserts were not coalesced");
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testConcurrentWriteCoalescing() {
+        BValue[] returns = BRunUtil.invoke(result, "testConcurrentWriteCoalescing", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 3);
+        Assert.assertTrue(((BInteger) returns[2]).intValue() > 0, "the concurrent inserts were not coalesced");
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testPipeline() {
+        BValue[] returns = BRunUtil.invoke(result, "testPipeline", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), -1);
+        Assert.assertEquals(returns[4].stringValue(), "Alex");
+        Assert.assertEquals(((BFloat) returns[5]).floatValue(), 2400.5, DELTA);
+    }
+
+    @Test(groups = CONNECTOR_TEST, description = "Test that a failed pipeline leaves none of its statements applied")
+    public void testPipelineRollbackOnFailure() {
+        BValue[] returns = BRunUtil.invoke(result, "testPipelineRollbackOnFailure", connectionArgs);
+        Assert.assertTrue(((BBoolean) returns[0]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
+    }
+
+    @Test(groups = CONNECTOR_TEST, description = "Test streaming large objects through channels")
+    public void testLobChannels() {
+        BValue[] returns = BRunUtil.invoke(result, "testLobChannels", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(new String(((BByteArray) returns[1]).getBytes()), "wso2 ballerina blob test.");
+        Assert.assertEquals(returns[2].stringValue(), "very long text");
+    }
+
     @Test(groups = CONNECTOR_TEST)
     public void testBatchUpdateWithNullParam() {
         BValue[] returns = BRunUtil.invoke(result, "testBatchUpdateWithNullParam", connectionArgs);
@@ -773,6 +874,32 @@ public class SQLActionsTest {
                 + "[{FIRSTNAME:\"Peter\", LASTNAME:\"Stuart\"}, {FIRSTNAME:\"John\", LASTNAME:\"Watson\"}])");
     }
 
+    @Test(groups = CONNECTOR_TEST, description = "Test iterating tables loaded to memory in columns")
+    public void testSelectLoadToMemoryColumnar() {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectLoadToMemoryColumnar", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 10);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 9223372036854774807L);
+        Assert.assertEquals(((BFloat) returns[2]).floatValue(), 123.34, DELTA);
+        Assert.assertEquals(((BFloat) returns[3]).floatValue(), 2139095039, DELTA);
+        Assert.assertEquals(((BBoolean) returns[4]).booleanValue(), true);
+        Assert.assertEquals(returns[5].stringValue(), "Hello");
+        Assert.assertEquals(((BFloat) returns[6]).floatValue(), 1234.567, DELTA);
+        Assert.assertEquals(((BFloat) returns[7]).floatValue(), 1234.567, DELTA);
+        Assert.assertEquals(((BFloat) returns[8]).floatValue(), 1234.567, DELTA);
+        Assert.assertEquals(returns[9].stringValue(), "[{FIRSTNAME:\"Peter\", LASTNAME:\"Stuart\"}, "
+                + "{FIRSTNAME:\"John\", LASTNAME:\"Watson\"}]");
+        Assert.assertEquals(returns[10].stringValue(), returns[9].stringValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST, description = "Test streaming the result of a select with a fetch size")
+    public void testSelectWithFetchSize() {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithFetchSize", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "[{FIRSTNAME:\"Peter\", LASTNAME:\"Stuart\"}, "
+                + "{FIRSTNAME:\"John\", LASTNAME:\"Watson\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+    }
+
     @Test(groups = CONNECTOR_TEST, description = "Test iterating data of a table loaded to memory after closing")
     public void testLoadToMemorySelectAfterTableClose() throws Exception {
         BValue[] returns = BRunUtil.invokeFunction(result, "testLoadToMemorySelectAfterTableClose", connectionArgs);
@@ -19,6 +19,7 @@ package org.ballerinax.test.jdbc;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.util.exceptions.BLangRuntimeException;
 import org.ballerinax.test.utils.SQLDBUtils;
@@ -36,12 +37,15 @@ public class SQLConnectorInitTest {
 
     private CompileResult result;
     private static final String DB_NAME = "TEST_SQL_CONNECTOR_INIT";
+    private static final String REPLICA_DB_NAME = "TEST_SQL_CONNECTOR_INIT_REPLICA";
 
     @BeforeClass
     public void setup() {
         result = BCompileUtil.compile("balfiles/sql_connector_init_test.bal");
         SQLDBUtils.deleteFiles(new File(SQLDBUtils.DB_DIRECTORY), DB_NAME);
         SQLDBUtils.initHSQLDBDatabase(SQLDBUtils.DB_DIRECTORY, DB_NAME, "sqlfiles/SQLTableCreate.sql");
+        SQLDBUtils.deleteFiles(new File(SQLDBUtils.DB_DIRECTORY), REPLICA_DB_NAME);
+        SQLDBUtils.initHSQLDBDatabase(SQLDBUtils.DB_DIRECTORY, REPLICA_DB_NAME, "sqlfiles/SQLTableCreate.sql");
     }
 
     @Test
@@ -49,6 +53,7 @@ public class SQLConnectorInitTest {
         BValue[] returns = BRunUtil.invokeFunction(result, "testConnectorWithDefaultPropertiesForListedDB");
         final String expected = "[{\"FIRSTNAME\":\"Peter\"}]";
         Assert.assertEquals(returns[0].stringValue(), expected);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
     }
 
     @Test
@@ -114,6 +119,150 @@ public class SQLConnectorInitTest {
         Assert.assertEquals(returns[0].stringValue(), expected);
     }
 
+    @Test
+    public void testConnectorsSharingConnectionPool() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testConnectorsSharingConnectionPool");
+        final String expected = "[{\"FIRSTNAME\":\"Peter\"}]";
+        Assert.assertEquals(returns[0].stringValue(), expected);
+    }
+
+    @Test
+    public void testStatementCache() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testStatementCache");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+    }
+
+    @Test
+    public void testActionsOnWorkerPool() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testActionsOnWorkerPool");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        String threadJson = returns[1].stringValue();
+        Assert.assertTrue(threadJson.startsWith("[{\"THREADNAME\":\"jdbc-worker-"), "Action ran on " + threadJson);
+        Assert.assertFalse(threadJson.contains("\"" + Thread.currentThread().getName() + "\""));
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+    }
+
+    @Test
+    public void testClientMetrics() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testClientMetrics");
+        // The connection is held by the table until it is closed
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+    }
+
+    @Test
+    public void testSelectOnReplica() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testSelectOnReplica");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+    }
+
+    @Test
+    public void testHedgedSelectOnReplica() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testHedgedSelectOnReplica");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+    }
+
+    @Test
+    public void testHedgedSelectOnSlowReplica() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testHedgedSelectOnSlowReplica");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Hedged\",\"DELAY\":0}]");
+        Assert.assertEquals(returns[1].stringValue(), "[{\"FIRSTNAME\":\"Hedged\",\"DELAY\":0}]");
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+    }
+
+    @Test
+    public void testResultCache() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testResultCache");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(returns[1].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[5]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[6]).intValue(), 1);
+    }
+
+    @Test
+    public void testResultCacheInvalidationInTransaction() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testResultCacheInvalidationInTransaction");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Before\"}]");
+        Assert.assertEquals(returns[1].stringValue(), "[{\"FIRSTNAME\":\"After\"}]");
+        Assert.assertTrue(((BInteger) returns[2]).intValue() > 0);
+    }
+
+    @Test
+    public void testEagerStartup() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testEagerStartup");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 0);
+    }
+
+    @Test
+    public void testAdaptivePoolSizing() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testAdaptivePoolSizing");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 4);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), -1);
+    }
+
+    @Test
+    public void testAdmissionControl() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testAdmissionControl");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+        Assert.assertTrue(returns[4].stringValue().contains("the action was not admitted within 100 ms"));
+    }
+
+    @Test
+    public void testQueryTimeout() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testQueryTimeout");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertTrue(returns[2].stringValue().contains("query timeout of the action expired"),
+                "the timed out select did not fail: " + returns[2].stringValue());
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 0, "the insert of the transaction was committed");
+    }
+
+    @Test
+    public void testSlowQueryLog() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testSlowQueryLog");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(returns[1].stringValue(),
+                "UPDATE Customers SET creditLimit = 5000.75 where registrationID = ?");
+        Assert.assertEquals(returns[2].stringValue(), "[1]");
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+        Assert.assertEquals(returns[4].stringValue(), "SELECT FirstName from Customers where registrationID = 1");
+        Assert.assertEquals(((BInteger) returns[5]).intValue(), 1);
+    }
+
+    @Test
+    public void testCollapsedSelects() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testCollapsedSelects");
+        Assert.assertEquals(returns[0].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(returns[1].stringValue(), "[{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(returns[2].stringValue(), "[{\"FIRSTNAME\":\"Peter\"},{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertEquals(returns[3].stringValue(), "[{\"FIRSTNAME\":\"Peter\"},{\"FIRSTNAME\":\"Peter\"}]");
+        Assert.assertTrue(((BInteger) returns[4]).intValue() > 0, "the concurrent selects were not collapsed");
+        Assert.assertTrue(((BInteger) returns[5]).intValue() > 0, "the select of a large result did not fall back");
+    }
+
+    @Test
+    public void testLazyStartup() {
+        BValue[] returns = BRunUtil.invokeFunction(result, "testLazyStartup");
+        Assert.assertTrue(returns[0].stringValue().contains("Database does not exists"));
+    }
+
     @Test(expectedExceptions = BLangRuntimeException.class,
           expectedExceptionsMessageRegExp = ".*Exception during pool initialization: Database does not exists: "
                   + "./target/tempdb/NON_EXISTING_DB.*")
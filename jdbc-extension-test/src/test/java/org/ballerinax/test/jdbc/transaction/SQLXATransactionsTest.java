@@ -37,15 +37,19 @@ public class SQLXATransactionsTest {
     private CompileResult result;
     private static final String DB_NAME1 = "TestDB1";
     private static final String DB_NAME2 = "TestDB2";
+    private static final String DB_NAME3 = "TestDB3";
 
     @BeforeClass
     public void setup() {
         result = BCompileUtil.compile("balfiles/transaction/sql_xa_transaction_test.bal");
         SQLDBUtils.deleteFiles(new File(SQLDBUtils.DB_DIRECTORY_H2_1), DB_NAME1);
         SQLDBUtils.deleteFiles(new File(SQLDBUtils.DB_DIRECTORY_H2_2), DB_NAME2);
+        SQLDBUtils.deleteFiles(new File(SQLDBUtils.DB_DIRECTORY_H2_1), DB_NAME3);
         SQLDBUtils
                 .initH2Database(SQLDBUtils.DB_DIRECTORY_H2_1, DB_NAME1, "sqlfiles/SQLH2CustomerTableCreate.sql");
         SQLDBUtils.initH2Database(SQLDBUtils.DB_DIRECTORY_H2_2, DB_NAME2, "sqlfiles/SQLH2SalaryTableCreate.sql");
+        SQLDBUtils
+                .initH2Database(SQLDBUtils.DB_DIRECTORY_H2_1, DB_NAME3, "sqlfiles/SQLH2CustomerTableCreate.sql");
     }
 
     @Test
@@ -90,6 +94,36 @@ public class SQLXATransactionsTest {
         Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
     }
 
+    @Test
+    public void testXAOnePhaseCommit() {
+        BValue[] returns = BRunUtil.invoke(result, "testXAOnePhaseCommit");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 1);
+    }
+
+    @Test
+    public void testXATwoPhaseCommitWithOtherParticipant() {
+        BValue[] returns = BRunUtil.invoke(result, "testXATwoPhaseCommitWithOtherParticipant");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+    }
+
+    @Test
+    public void testXATransactionWithThreeBranches() {
+        BValue[] returns = BRunUtil.invoke(result, "testXATransactionWithThreeBranches");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[5]).intValue(), 1);
+    }
+
     @AfterSuite
     public void cleanup() {
         SQLDBUtils.deleteDirectory(new File(SQLDBUtils.DB_DIRECTORY_H2_1));
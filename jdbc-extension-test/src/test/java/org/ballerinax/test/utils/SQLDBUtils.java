@@ -96,6 +96,32 @@ public class SQLDBUtils {
         }
     }
 
+    /**
+     * Returns the name of the thread executing the statement. Registered as a Java routine in HyperSQL
+     * databases so that tests can tell which thread ran an action.
+     *
+     * @return Name of the current thread.
+     */
+    public static String currentThreadName() {
+        return Thread.currentThread().getName();
+    }
+
+    /**
+     * Sleeps for the given time. Registered as a Java routine in HyperSQL databases so that tests can hold a
+     * connection for a while.
+     *
+     * @param millis Time to sleep in milliseconds.
+     * @return The given time.
+     */
+    public static int delay(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return millis;
+    }
+
     /**
      * Delete the given directory along with all files and sub directories.
      *
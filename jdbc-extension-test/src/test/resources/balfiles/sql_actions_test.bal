@@ -1261,6 +1261,384 @@ function testBatchUpdateWithFailure(string jdbcUrl, string userName, string pass
     return (updateCount, count);
 }
 
+function testBatchUpdateInChunksWithFailure(string jdbcUrl, string userName, string password) returns (int[], int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        batchChunkSize: 2
+    };
+
+    myBatchType[] parameters1 = [444, "Alex", "Smith", 20, 3400.5, "Colombo"];
+    myBatchType[] parameters2 = [555, "Alex", "Smith", 20, 3400.5, "Colombo"];
+    myBatchType[] parameters3 = [555, "Alex", "Smith", 20, 3400.5, "Colombo"];
+    myBatchType[] parameters4 = [666, "Alex", "Smith", 20, 3400.5, "Colombo"];
+
+    int count;
+    // The first chunk is committed even though the second one fails
+    int[] updateCount = check testDB->batchUpdate("Insert into Customers (customerId, firstName,lastName,registrationID,
+        creditLimit, country) values (?,?,?,?,?,?)", parameters1, parameters2, parameters3, parameters4);
+    table dt = check testDB->select("SELECT count(*) as countval from Customers where customerId in (444,555,666)",
+        ResultCount);
+
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count = rs.COUNTVAL;
+    }
+
+    testDB.stop();
+    return (updateCount, count);
+}
+
+function testBatchUpdateWithRewrittenInserts(string jdbcUrl, string userName, string password) returns (int[], int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        rewriteBatchedInserts: true
+    };
+
+    myBatchType[] parameters1 = ["Alex", "Smith", 71, 3400.5, "Colombo"];
+    myBatchType[] parameters2 = ["John", "Gates", 71, 2400.5, "NY"];
+    myBatchType[] parameters3 = ["Peter", "Brown", 71, 1400.5, "London"];
+
+    int count;
+    int[] updateCount = check testDB->batchUpdate("Insert into Customers (firstName,lastName,registrationID,
+                            creditLimit,country) values (?,?,?,?,?)", parameters1, parameters2, parameters3);
+    table dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 71",
+        ResultCount);
+
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count = rs.COUNTVAL;
+    }
+
+    testDB.stop();
+    return (updateCount, count);
+}
+
+type BulkCustomer record {
+    string firstName;
+    string lastName;
+    int registrationID;
+    float creditLimit;
+    string country;
+};
+
+function testBulkLoad(string jdbcUrl, string userName, string password) returns (int, int, int, int, int, int, int) {
+    // MySQL loads through LOAD DATA LOCAL INFILE only if it is allowed in the URL
+    string url = jdbcUrl;
+    if (jdbcUrl.contains("mysql")) {
+        url = jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+    }
+    endpoint jdbc:Client testDB {
+        url: url,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    table<BulkCustomer> customers = table {};
+    BulkCustomer c1 = { firstName: "Alex", lastName: "Smith", registrationID: 81, creditLimit: 3400.5,
+        country: "Colombo" };
+    BulkCustomer c2 = { firstName: "John", lastName: "Gates", registrationID: 81, creditLimit: 2400.5,
+        country: "NY" };
+    var addRet1 = customers.add(c1);
+    var addRet2 = customers.add(c2);
+    int tableCount = check testDB->bulkLoad("Customers", customers);
+
+    string csv = "Alex,Smith,82,3400.5,Colombo\n\"Peter, Jr.\",\"O\"\"Brien\",82,1400.5,London\nJohn,,82,,NY\n";
+    int csvCount = check testDB->bulkLoad("Customers", csv.toByteArray("UTF-8"),
+        columns = ["firstName", "lastName", "registrationID", "creditLimit", "country"]);
+
+    // CRLF separated content, of which the unquoted empty fields are null and the quoted empty field is not
+    io:ReadableByteChannel channel = io:openReadableFile("src/test/resources/datafiles/BulkLoadCustomers.csv");
+    int channelCount = check testDB->bulkLoad("Customers", channel,
+        columns = ["firstName", "lastName", "registrationID", "creditLimit", "country"]);
+    _ = channel.close();
+
+    table dt;
+    int tableRows;
+    dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 81", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        tableRows = rs.COUNTVAL;
+    }
+    int csvRows;
+    dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 82
+        and lastName is null and creditLimit is null", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        csvRows = rs.COUNTVAL;
+    }
+    int channelNullRows;
+    dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 83
+        and lastName is null and creditLimit is null", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        channelNullRows = rs.COUNTVAL;
+    }
+    int channelEmptyRows;
+    dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 83
+        and firstName = '' and country is null", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        channelEmptyRows = rs.COUNTVAL;
+    }
+
+    testDB.stop();
+    return (tableCount, csvCount, channelCount, tableRows, csvRows, channelNullRows, channelEmptyRows);
+}
+
+function testBatchUpdateWithGeneratedKeys(string jdbcUrl, string userName, string password) returns (int, int,
+            int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    sql:Parameter para1 = { sqlType: sql:TYPE_VARCHAR, value: "Alex" };
+    sql:Parameter para2 = { sqlType: sql:TYPE_VARCHAR, value: "Smith" };
+    sql:Parameter para3 = { sqlType: sql:TYPE_INTEGER, value: 91 };
+    sql:Parameter para4 = { sqlType: sql:TYPE_DOUBLE, value: 3400.5 };
+    sql:Parameter para5 = { sqlType: sql:TYPE_VARCHAR, value: "Colombo" };
+    sql:Parameter[] row1 = [para1, para2, para3, para4, para5];
+    sql:Parameter[] row2 = [para1, para2, para3, para4, para5];
+    sql:Parameter[] row3 = [para1, para2, para3, para4, para5];
+
+    int[] keys = check testDB->batchUpdateWithGeneratedKeys("INSERT INTO Customers (firstName,lastName,registrationID,
+        creditLimit,country) VALUES (?,?,?,?,?)", ["CUSTOMERID"], row1, row2, row3);
+
+    int insertedRows;
+    table dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 91",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        insertedRows = rs.COUNTVAL;
+    }
+    testDB.stop();
+    return (lengthof keys, keys[2] - keys[0], insertedRows);
+}
+
+type PartitionedRegistration record {
+    int REGISTRATIONID;
+};
+
+function testSelectPartitioned(string jdbcUrl, string userName, string password) returns (int, boolean, int, int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 4 }
+    };
+
+    int[] registrationIds = [303, 301, 307, 305, 302, 350, 306, 304];
+    foreach registrationId in registrationIds {
+        _ = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,creditLimit,country)
+            VALUES ('Anne','Partitioned',?,1000.0,'Colombo')", registrationId);
+    }
+
+    table dt = check testDB->selectPartitioned("SELECT registrationID FROM Customers WHERE lastName = 'Partitioned'",
+        PartitionedRegistration, "registrationID", 301, 308, 3, ordered = true);
+    int orderedCount;
+    boolean inOrder = true;
+    int previous = 0;
+    while (dt.hasNext()) {
+        PartitionedRegistration rs = check <PartitionedRegistration>dt.getNext();
+        inOrder = inOrder && rs.REGISTRATIONID > previous;
+        previous = rs.REGISTRATIONID;
+        orderedCount = orderedCount + 1;
+    }
+
+    sql:Parameter lastName = { sqlType: sql:TYPE_VARCHAR, value: "Partitioned" };
+    dt = check testDB->selectPartitioned("SELECT registrationID FROM Customers WHERE lastName = ?",
+        PartitionedRegistration, "registrationID", 301, 308, 3, lastName);
+    int unorderedCount;
+    int sum;
+    while (dt.hasNext()) {
+        PartitionedRegistration rs = check <PartitionedRegistration>dt.getNext();
+        sum = sum + rs.REGISTRATIONID;
+        unorderedCount = unorderedCount + 1;
+    }
+    testDB.stop();
+    return (orderedCount, inOrder, unorderedCount, sum);
+}
+
+function testWriteCoalescing(string jdbcUrl, string userName, string password) returns (int, int, boolean, int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 },
+        writeCoalescingBatchSize: 10,
+        writeCoalescingWindow: 500
+    };
+
+    int insertCount1 = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,creditLimit,
+        country) VALUES (?,?,?,?,?)", "Anne", "Coalesced", 401, 1000.0, "Colombo");
+    int insertCount2 = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,creditLimit,
+        country) VALUES (?,?,?,?,?)", "Jack", "Coalesced", 402, 1000.0, "Colombo");
+    var failedInsert = testDB->update("INSERT INTO Customers (firstName,lastName,invalidColumn) VALUES (?,?,?)",
+        "Anne", "Coalesced", 403);
+    boolean failed;
+    match failedInsert {
+        int updateCount => failed = false;
+        error e => failed = true;
+    }
+
+    int insertedRows;
+    table dt = check testDB->select("SELECT count(*) as countval from Customers where lastName = 'Coalesced'",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        insertedRows = rs.COUNTVAL;
+    }
+    testDB.stop();
+    return (insertCount1, insertCount2, failed, insertedRows);
+}
+
+function testWriteCoalescingTypedValues(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 },
+        writeCoalescingBatchSize: 2,
+        writeCoalescingWindow: 2000000
+    };
+
+    // The two inserts are issued at once, hence are committed together as soon as the batch is full
+    worker w1 {
+        _ = check testDB->update("CREATE TABLE CoalescedTypes(row_id INTEGER, decimal_type DECIMAL(10,3),
+            timestamp_type TIMESTAMP(3))");
+        time:Time timeNow = time:currentTime();
+        timeNow -> w2;
+        sql:Parameter paraDecimal = { sqlType: sql:TYPE_DECIMAL, value: 1234.567 };
+        sql:Parameter paraTimestamp = { sqlType: sql:TYPE_TIMESTAMP, value: timeNow };
+        int insertCount1 = check testDB->update("INSERT INTO CoalescedTypes (row_id, decimal_type, timestamp_type)
+            VALUES (?,?,?)", 1, paraDecimal, paraTimestamp);
+        int insertCount2;
+        insertCount2 <- w2;
+
+        // The values are stored as given rather than as their string representation
+        int matchingRows;
+        table dt = check testDB->select("SELECT count(*) as countval from CoalescedTypes
+            where decimal_type = 1234.567 and timestamp_type = ?", ResultCount, paraTimestamp);
+        while (dt.hasNext()) {
+            ResultCount rs = check <ResultCount>dt.getNext();
+            matchingRows = rs.COUNTVAL;
+        }
+        int coalescedBatches = testDB.getMetrics().coalescedBatches;
+        testDB.stop();
+        return (insertCount1 + insertCount2, matchingRows, coalescedBatches);
+    }
+    worker w2 {
+        time:Time timeNow;
+        timeNow <- w1;
+        sql:Parameter paraDecimal = { sqlType: sql:TYPE_DECIMAL, value: 1234.567 };
+        sql:Parameter paraTimestamp = { sqlType: sql:TYPE_TIMESTAMP, value: timeNow };
+        int insertCount = check testDB->update("INSERT INTO CoalescedTypes (row_id, decimal_type, timestamp_type)
+            VALUES (?,?,?)", 2, paraDecimal, paraTimestamp);
+        insertCount -> w1;
+    }
+}
+
+function testConcurrentWriteCoalescing(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 },
+        writeCoalescingBatchSize: 3,
+        writeCoalescingWindow: 2000000
+    };
+
+    // The three inserts are issued at once, hence are committed together as soon as the batch is full
+    worker w1 {
+        int insertCount1 = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,
+            creditLimit,country) VALUES (?,?,?,?,?)", "Anne", "Concurrent", 411, 1000.0, "Colombo");
+        int insertCount2;
+        int insertCount3;
+        insertCount2 <- w2;
+        insertCount3 <- w3;
+
+        int insertedRows;
+        table dt = check testDB->select("SELECT count(*) as countval from Customers where lastName = 'Concurrent'",
+            ResultCount);
+        while (dt.hasNext()) {
+            ResultCount rs = check <ResultCount>dt.getNext();
+            insertedRows = rs.COUNTVAL;
+        }
+        int coalescedBatches = testDB.getMetrics().coalescedBatches;
+        testDB.stop();
+        return (insertCount1 + insertCount2 + insertCount3, insertedRows, coalescedBatches);
+    }
+    worker w2 {
+        int insertCount = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,
+            creditLimit,country) VALUES (?,?,?,?,?)", "Jack", "Concurrent", 412, 1000.0, "Colombo");
+        insertCount -> w1;
+    }
+    worker w3 {
+        int insertCount = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,
+            creditLimit,country) VALUES (?,?,?,?,?)", "Jill", "Concurrent", 413, 1000.0, "Colombo");
+        insertCount -> w1;
+    }
+}
+
+function testPipeline(string jdbcUrl, string userName, string password) returns (int, int, int, int, any, any) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    sql:Parameter p1 = { sqlType: sql:TYPE_INTEGER, value: 91 };
+    jdbc:PipelineResult[] results = check testDB->pipeline(
+        { sqlQuery: "Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+                     values ('Alex', 'Smith', 91, 3400.5, 'Colombo')" },
+        { sqlQuery: "Update Customers set creditLimit = ? where registrationID = ?", parameters: [2400.5, p1] },
+        { sqlQuery: "Select firstName as \"FIRSTNAME\", creditLimit as \"CREDITLIMIT\" from Customers
+                     where registrationID = ?", parameters: [91] });
+
+    testDB.stop();
+    return (lengthof results, results[0].updateCount, results[1].updateCount, results[2].updateCount,
+            results[2].rows[0].FIRSTNAME, results[2].rows[0].CREDITLIMIT);
+}
+
+function testPipelineRollbackOnFailure(string jdbcUrl, string userName, string password) returns (boolean, int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    var ret = testDB->pipeline(
+        { sqlQuery: "Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+                     values ('Alex', 'Pipelined', 92, 3400.5, 'Colombo')" },
+        { sqlQuery: "Update Customers set invalidColumn = 1 where registrationID = 92" });
+    boolean failed;
+    match ret {
+        jdbc:PipelineResult[] results => failed = false;
+        error e => failed = true;
+    }
+
+    int insertedRows = -1;
+    table dt = check testDB->select("SELECT count(*) as countval from Customers where registrationID = 92",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        insertedRows = rs.COUNTVAL;
+    }
+    testDB.stop();
+    return (failed, insertedRows);
+}
+
 function testBatchUpdateWithNullParam(string jdbcUrl, string userName, string password) returns (int[]) {
     endpoint jdbc:Client testDB {
         url: jdbcUrl,
@@ -1526,6 +1904,148 @@ function testSelectLoadToMemory(string jdbcUrl, string userName, string password
     return (fullNameArray1, fullNameArray2, fullNameArray3);
 }
 
+function testLobChannels(string jdbcUrl, string userName, string password) returns (int, byte[], string) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 }
+    };
+
+    io:ReadableByteChannel blobChannel = check testDB->readBlob("SELECT blob_type from BlobTable where row_id = ?", 1);
+    sql:Parameter blobParam = { sqlType: sql:TYPE_BLOB, value: blobChannel };
+    int insertCount = check testDB->update("INSERT INTO BlobTable (row_id, blob_type) VALUES (?, ?)", 21, blobParam);
+    var blobCloseResult = blobChannel.close();
+
+    io:ReadableByteChannel copyChannel = check testDB->readBlob("SELECT blob_type from BlobTable where row_id = ?", 21);
+    byte[] blob;
+    int i = 0;
+    while (true) {
+        var (bytes, count) = check copyChannel.read(10);
+        if (count == 0) {
+            break;
+        }
+        foreach b in bytes {
+            blob[i] = b;
+            i += 1;
+        }
+    }
+    var copyCloseResult = copyChannel.close();
+
+    io:ReadableCharacterChannel clobChannel = check testDB->readClob(
+        "SELECT clob_type from DataTypeTable where row_id = 1");
+    string clob;
+    while (true) {
+        string characters = check clobChannel.read(5);
+        if (characters == "") {
+            break;
+        }
+        clob = clob + characters;
+    }
+    var clobCloseResult = clobChannel.close();
+
+    testDB.stop();
+    return (insertCount, blob, clob);
+}
+
+function testSelectLoadToMemoryColumnar(string jdbcUrl, string userName, string password) returns (int, int, float,
+            float, boolean, string, float, float, float, CustomerFullName[], CustomerFullName[]) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        columnarTables: true
+    };
+
+    table<ResultBalTypes> dataTypes = check testDB->select("SELECT int_type, long_type, float_type, double_type,
+        boolean_type, string_type, numeric_type, decimal_type, real_type from DataTypeTable where row_id = 1",
+        ResultBalTypes, loadToMemory = true);
+    table<CustomerFullName> dt = check testDB->select(
+        "SELECT firstName, lastName from Customers where registrationID < 3", CustomerFullName, loadToMemory = true);
+
+    int i;
+    int l;
+    float f;
+    float d;
+    boolean b;
+    string s;
+    float n;
+    float dec;
+    float real;
+    foreach x in dataTypes {
+        i = x.INT_TYPE;
+        l = x.LONG_TYPE;
+        f = x.FLOAT_TYPE;
+        d = x.DOUBLE_TYPE;
+        b = x.BOOLEAN_TYPE;
+        s = x.STRING_TYPE;
+        n = x.NUMERIC_TYPE;
+        dec = x.DECIMAL_TYPE;
+        real = x.REAL_TYPE;
+    }
+
+    CustomerFullName[] fullNameArray1;
+    CustomerFullName[] fullNameArray2;
+    int j = 0;
+    foreach x in dt {
+        fullNameArray1[j] = x;
+        j += 1;
+    }
+
+    j = 0;
+    foreach x in dt {
+        fullNameArray2[j] = x;
+        j += 1;
+    }
+
+    testDB.stop();
+    return (i, l, f, d, b, s, n, dec, real, fullNameArray1, fullNameArray2);
+}
+
+function testSelectWithFetchSize(string jdbcUrl, string userName, string password) returns (CustomerFullName[], int,
+            int) {
+    endpoint jdbc:Client testDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    endpoint jdbc:Client otherDB {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 }
+    };
+
+    table<CustomerFullName> dt = check testDB->select(
+        "SELECT firstName, lastName from Customers where registrationID < 3", CustomerFullName, fetchSize = 1);
+
+    CustomerFullName[] fullNameArray;
+    int i = 0;
+    foreach x in dt {
+        fullNameArray[i] = x;
+        i += 1;
+    }
+    int streamedQueries = testDB.getMetrics().streamedQueries;
+
+    // The single connection is back in auto commit mode, hence the insert is visible to the other pool
+    _ = check testDB->update("INSERT INTO Customers (firstName,lastName,registrationID,creditLimit,country)
+        VALUES ('Fetch', 'Size', 451, 1000.0, 'Colombo')");
+    int insertedRows;
+    table dt2 = check otherDB->select("SELECT count(*) as countval from Customers where registrationID = 451",
+        ResultCount);
+    while (dt2.hasNext()) {
+        ResultCount rs = check <ResultCount>dt2.getNext();
+        insertedRows = rs.COUNTVAL;
+    }
+
+    testDB.stop();
+    otherDB.stop();
+    return (fullNameArray, streamedQueries, insertedRows);
+}
+
 function testLoadToMemorySelectAfterTableClose(string jdbcUrl, string userName, string password) returns (
             CustomerFullName[], CustomerFullName[], error) {
     endpoint jdbc:Client testDB {
@@ -15,6 +15,11 @@
 // under the License.
 import ballerina/sql;
 import ballerinax/jdbc;
+import ballerina/runtime;
+
+type ResultCount record {
+    int COUNTVAL;
+};
 
 sql:PoolOptions properties = { maximumPoolSize: 1,
     idleTimeout: 600000, connectionTimeout: 30000, autoCommit: true, maxLifetime: 1800000,
@@ -191,6 +196,421 @@ function testPropertiesGetUsedOnlyIfDataSourceGiven() returns (json) {
     return j;
 }
 
+function testConnectorsSharingConnectionPool() returns (json, int) {
+    endpoint jdbc:Client testDB1 {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        dbOptions: { "loginTimeout": 109, "ifexists": true }
+    };
+
+    endpoint jdbc:Client testDB2 {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        dbOptions: { "ifexists": true, "loginTimeout": 109 }
+    };
+
+    table dt1 = check testDB1->select("SELECT  FirstName from Customers where registrationID = 1", ());
+    dt1.close();
+    // Stopping the first endpoint, even twice, must not close the pool still referred by the second one
+    testDB1.stop();
+    testDB1.stop();
+
+    table dt = check testDB2->select("SELECT  FirstName from Customers where registrationID = 1", ());
+
+    json j = check <json>dt;
+    // Both selects are recorded by the metrics of the single shared pool
+    int selectCount = testDB2.getMetrics().selectLatency.count;
+    testDB2.stop();
+    return (j, selectCount);
+}
+
+function testStatementCache() returns (int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        statementCacheSize: 10
+    };
+
+    sql:Parameter p1 = { sqlType: sql:TYPE_INTEGER, value: 1 };
+    foreach i in 1...3 {
+        table dt = check testDB->select("SELECT FirstName from Customers where registrationID = ?", (), p1);
+        dt.close();
+    }
+
+    jdbc:StatementCacheStats stats = testDB.getStatementCacheStats();
+    testDB.stop();
+    return (stats.hits, stats.misses);
+}
+
+function testActionsOnWorkerPool() returns (json, json, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        workerPoolSize: 2,
+        workerQueueSize: 10
+    };
+
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    json j = check <json>dt;
+
+    // The routine reports the thread HSQLDB executed the statement on, which is the thread that ran the action
+    table threadTable = check testDB->select("SELECT CurrentThreadName() AS threadName FROM Customers
+        where registrationID = 1", ());
+    json threadJson = check <json>threadTable;
+
+    jdbc:WorkerPoolStats stats = testDB.getWorkerPoolStats();
+    testDB.stop();
+    return (j, threadJson, stats.completedActions);
+}
+
+function testClientMetrics() returns (int, int, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    int activeConnections = testDB.getMetrics().activeConnections;
+    dt.close();
+    int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = 1");
+
+    jdbc:ClientMetrics metrics = testDB.getMetrics();
+    testDB.stop();
+    return (activeConnections, metrics.activeConnections, metrics.selectLatency.count, metrics.updateLatency.count);
+}
+
+function testSelectOnReplica() returns (json, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        replicaUrls: ["jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT;ifexists=true"],
+        loadBalancingPolicy: jdbc:LEAST_PENDING
+    };
+
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    json j = check <json>dt;
+    // The connection used by the select action is acquired from the pool of the replica
+    int primaryAcquisitions = testDB.getMetrics().acquireLatency.count;
+
+    int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = 1");
+    int primaryAcquisitionsAfterUpdate = testDB.getMetrics().acquireLatency.count;
+    testDB.stop();
+    return (j, primaryAcquisitions, primaryAcquisitionsAfterUpdate);
+}
+
+function testHedgedSelectOnReplica() returns (json, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        replicaUrls: ["jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT;ifexists=true"],
+        hedgeReads: true
+    };
+
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    json j = check <json>dt;
+    // Queries are not hedged until enough execution times are known
+    jdbc:ClientMetrics metrics = testDB.getMetrics();
+    testDB.stop();
+    return (j, metrics.acquireLatency.count, metrics.hedgedReads);
+}
+
+function testHedgedSelectOnSlowReplica() returns (json, json, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, connectionTimeout: 1000 },
+        replicaUrls: ["jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT_REPLICA"],
+        hedgeReads: true
+    };
+
+    endpoint jdbc:Client replicaDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT_REPLICA",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    // The query sleeps for the credit limit of the customer in milliseconds, which differs between the databases
+    string sqlQuery = "SELECT FirstName, Delay(CAST(creditLimit AS INT)) AS delay from Customers
+        where registrationID = 350";
+    _ = check testDB->update("Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+        values ('Hedged', 'Clerk', 350, 0, 'USA')");
+    _ = check replicaDB->update("Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+        values ('Hedged', 'Clerk', 350, 0, 'USA')");
+
+    // Queries are not hedged until enough execution times are known
+    int i = 0;
+    while (i < 20) {
+        table warmUp = check testDB->select(sqlQuery, ());
+        warmUp.close();
+        i = i + 1;
+    }
+
+    // The replica turns slow, hence the query is executed again on the primary database which answers first
+    _ = check replicaDB->update("UPDATE Customers SET creditLimit = 1000 where registrationID = 350");
+    table dt = check testDB->select(sqlQuery, ());
+    json hedged = check <json>dt;
+
+    // The replica has a single connection, which the abandoned execution released for the next query
+    _ = check replicaDB->update("UPDATE Customers SET creditLimit = 0 where registrationID = 350");
+    dt = check testDB->select(sqlQuery, ());
+    json released = check <json>dt;
+
+    jdbc:ClientMetrics metrics = testDB.getMetrics();
+    testDB.stop();
+    replicaDB.stop();
+    return (hedged, released, metrics.hedgedReads, metrics.hedgedReadWins);
+}
+
+function testResultCache() returns (json, json, int, int, int, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        resultCacheTtl: 60000
+    };
+
+    sql:Parameter p1 = { sqlType: sql:TYPE_INTEGER, value: 1 };
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = ?", (), p1);
+    json j1 = check <json>dt;
+    dt = check testDB->select("SELECT FirstName from Customers where registrationID = ?", (), p1);
+    json j2 = check <json>dt;
+    // The second select action is served from the cache without acquiring a connection
+    int acquisitions = testDB.getMetrics().acquireLatency.count;
+
+    int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = 1");
+    dt = check testDB->select("SELECT FirstName from Customers where registrationID = ?", (), p1);
+    json j3 = check <json>dt;
+    jdbc:ResultCacheStats stats = testDB.getResultCacheStats();
+    testDB.stop();
+    return (j1, j2, acquisitions, stats.hits, stats.misses, stats.invalidations, updateCount);
+}
+
+function testResultCacheInvalidationInTransaction() returns (json, json, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        resultCacheTtl: 60000
+    };
+
+    _ = check testDB->update("Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+        values ('Before', 'Clerk', 320, 5000.75, 'USA')");
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 320", ());
+    json j1 = check <json>dt;
+
+    // The transaction borrows its connection for the select action, and the update action which follows on the
+    // same connection still invalidates the cached result
+    transaction {
+        _ = testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+        _ = testDB->update("UPDATE Customers SET firstName = 'After' where registrationID = 320");
+    }
+    dt = check testDB->select("SELECT FirstName from Customers where registrationID = 320", ());
+    json j2 = check <json>dt;
+    jdbc:ResultCacheStats stats = testDB.getResultCacheStats();
+    testDB.stop();
+    return (j1, j2, stats.invalidations);
+}
+
+function testEagerStartup() returns (int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 3, minimumIdle: 3 },
+        startupMode: jdbc:STARTUP_EAGER
+    };
+
+    jdbc:ClientMetrics metrics = testDB.getMetrics();
+    testDB.stop();
+    return (metrics.idleConnections, metrics.activeConnections);
+}
+
+function testAdaptivePoolSizing() returns (json, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 4 },
+        adaptivePoolSizing: true,
+        minimumPoolSize: 2
+    };
+
+    endpoint jdbc:Client fixedDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 }
+    };
+
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    json j = check <json>dt;
+    // The limit starts at the maximum pool size
+    int poolSizeLimit = testDB.getMetrics().poolSizeLimit;
+    int fixedPoolSizeLimit = fixedDB.getMetrics().poolSizeLimit;
+    testDB.stop();
+    fixedDB.stop();
+    return (j, poolSizeLimit, fixedPoolSizeLimit);
+}
+
+function testAdmissionControl() returns (json, int, int, int, string) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 2 },
+        maxConcurrentActions: 1,
+        maxQueuedActions: 1,
+        admissionTimeout: 100
+    };
+
+    worker w1 {
+        // Each action releases its admission once it completes
+        int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = 1");
+        table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+        json j = check <json>dt;
+        true -> w2;
+        // Holds the only admission while the select of w2 waits in the queue until its deadline
+        _ = check testDB->select("SELECT Delay(1000) AS delay FROM (VALUES(0))", ());
+        string message;
+        message <- w2;
+        jdbc:ClientMetrics metrics = testDB.getMetrics();
+        testDB.stop();
+        return (j, updateCount, metrics.concurrentActions, metrics.rejectedActions, message);
+    }
+    worker w2 {
+        boolean started;
+        started <- w1;
+        runtime:sleep(200);
+        string message;
+        match testDB->select("SELECT FirstName from Customers where registrationID = 1", ()) {
+            table dt => message = "";
+            error err => message = err.message;
+        }
+        message -> w1;
+    }
+}
+
+function testQueryTimeout() returns (json, int, string, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        queryTimeout: 60000
+    };
+
+    int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = 1",
+        queryTimeout = 30000);
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    json j = check <json>dt;
+
+    // The cross join runs for far longer than the query timeout of the select, which fails the transaction
+    string message;
+    transaction with retries = 0 {
+        _ = testDB->update("Insert into Customers (firstName,lastName,registrationID,creditLimit,country)
+                values ('James', 'Clerk', 340, 5000.75, 'USA')");
+        match testDB->select("SELECT COUNT(*) AS countval FROM INFORMATION_SCHEMA.COLUMNS a,
+                INFORMATION_SCHEMA.COLUMNS b, INFORMATION_SCHEMA.COLUMNS c", (), queryTimeout = 200) {
+            table t => message = "";
+            error err => message = err.message;
+        }
+    }
+    int count;
+    dt = check testDB->select("SELECT COUNT(*) as countval FROM Customers where registrationID = 340", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count = rs.COUNTVAL;
+    }
+    jdbc:ClientMetrics metrics = testDB.getMetrics();
+    testDB.stop();
+    return (j, updateCount, message, metrics.timedOutStatements + metrics.cancelledStatements, count);
+}
+
+function testSlowQueryLog() returns (int, string, string, int, string, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1 },
+        slowQueryThreshold: 0
+    };
+
+    sql:Parameter p1 = { sqlType: sql:TYPE_INTEGER, value: 1 };
+    int updateCount = check testDB->update("UPDATE Customers SET creditLimit = 5000.75 where registrationID = ?", p1);
+    table dt = check testDB->select("SELECT FirstName from Customers where registrationID = 1", (),
+        loadToMemory = true);
+    dt.close();
+    jdbc:SlowQuery[] queries = testDB.getSlowQueries();
+    testDB.stop();
+    return (lengthof queries, queries[0].sqlQuery, queries[0].parameters, queries[0].rowCount, queries[1].sqlQuery,
+        queries[1].rowCount);
+}
+
+function testCollapsedSelects() returns (json, json, json, json, int, int) {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/TEST_SQL_CONNECTOR_INIT",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 2 },
+        collapseSelects: true,
+        collapsedResultMaxRows: 1
+    };
+
+    worker w1 {
+        // The slow select is still being executed when w2 issues the identical one, which shares its result
+        table dt1 = check testDB->select("SELECT FirstName from Customers where registrationID = 1
+            AND Delay(500) > 0", ());
+        json j1 = check <json>dt1;
+        json shared;
+        shared <- w2;
+        true -> w2;
+        // The result is larger than the maximum number of rows shared, hence w2 executes the select on its own
+        table dt2 = check testDB->select("SELECT FirstName from Customers where registrationID = 1 AND Delay(300) > 0
+            UNION ALL SELECT FirstName from Customers where registrationID = 1 AND Delay(300) > 0", ());
+        json j2 = check <json>dt2;
+        json fellBack;
+        fellBack <- w2;
+        jdbc:ClientMetrics metrics = testDB.getMetrics();
+        testDB.stop();
+        return (j1, shared, j2, fellBack, metrics.collapsedSelects, metrics.collapsedSelectFallbacks);
+    }
+    worker w2 {
+        runtime:sleep(100);
+        table dt1 = check testDB->select("SELECT FirstName from Customers where registrationID = 1
+            AND Delay(500) > 0", ());
+        json j1 = check <json>dt1;
+        j1 -> w1;
+        boolean started;
+        started <- w1;
+        runtime:sleep(100);
+        table dt2 = check testDB->select("SELECT FirstName from Customers where registrationID = 1 AND Delay(300) > 0
+            UNION ALL SELECT FirstName from Customers where registrationID = 1 AND Delay(300) > 0", ());
+        json j2 = check <json>dt2;
+        j2 -> w1;
+    }
+}
+
+function testLazyStartup() returns string {
+    endpoint jdbc:Client testDB {
+        url: "jdbc:hsqldb:file:./target/tempdb/NON_EXISTING_DB",
+        username: "SA",
+        password: "",
+        poolOptions: { maximumPoolSize: 1 },
+        dbOptions: { "ifexists": true },
+        startupMode: jdbc:STARTUP_LAZY
+    };
+
+    // The endpoint is initialized without connecting to the database, which fails on first use
+    var selectRet = testDB->select("SELECT FirstName from Customers where registrationID = 1", ());
+    string message;
+    match selectRet {
+        table dt => message = "";
+        error err => message = err.message;
+    }
+    testDB.stop();
+    return message;
+}
+
 function testConnectionFailure() {
     endpoint jdbc:Client testDB {
         url: "jdbc:hsqldb:file:./target/tempdb/NON_EXISTING_DB",
@@ -273,3 +273,145 @@ function testXATransactonRetry() returns (int, int) {
     testDB2.stop();
     return (count1, count2);
 }
+
+function testXAOnePhaseCommit() returns (int, int, int, int, int) {
+    endpoint jdbc:Client testDB1 {
+        url: "jdbc:h2:file:./target/H2_1/TestDB1",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true },
+        onePhaseCommit: true
+    };
+
+    endpoint jdbc:Client testDB2 {
+        url: "jdbc:h2:file:./target/H2_2/TestDB2",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true }
+    };
+
+    transaction {
+        _ = testDB1->update("insert into Customers (customerId, name, creditLimit, country)
+                                values (20, 'Anne', 1000, 'UK')");
+    }
+
+    transaction {
+        _ = testDB1->update("insert into Customers (customerId, name, creditLimit, country)
+                                values (21, 'Anne', 1000, 'UK')");
+        _ = testDB2->update("insert into Salary (id, value ) values (21, 1000)");
+    }
+
+    int count;
+    table dt = check testDB1->select("Select COUNT(*) as countval from Customers where customerId in (20, 21)",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count = rs.COUNTVAL;
+    }
+    jdbc:ClientMetrics metrics1 = testDB1.getMetrics();
+    jdbc:ClientMetrics metrics2 = testDB2.getMetrics();
+    testDB1.stop();
+    testDB2.stop();
+    return (count, metrics1.onePhaseCommits, metrics1.twoPhaseCommits, metrics2.onePhaseCommits,
+        metrics2.twoPhaseCommits);
+}
+
+function testXATwoPhaseCommitWithOtherParticipant() returns (int, int, int, int) {
+    endpoint jdbc:Client testDB1 {
+        url: "jdbc:h2:file:./target/H2_1/TestDB1",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true }
+    };
+
+    endpoint h2:Client testDB2 {
+        path: "./target/H2_2/",
+        name: "TestDB2",
+        username: "SA",
+        password: "",
+        poolOptions: { maximumPoolSize: 1, isXA: true, dataSourceClassName: "org.h2.jdbcx.JdbcDataSource" }
+    };
+
+    // The JDBC client is the only JDBC client of the transaction, which also has the H2 client as a participant
+    transaction {
+        _ = testDB1->update("insert into Customers (customerId, name, creditLimit, country)
+                                values (25, 'Anne', 1000, 'UK')");
+        _ = testDB2->update("insert into Salary (id, value ) values (25, 1000)");
+    }
+
+    int count1;
+    int count2;
+    table dt = check testDB1->select("Select COUNT(*) as countval from Customers where customerId = 25", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count1 = rs.COUNTVAL;
+    }
+
+    dt = check testDB2->select("Select COUNT(*) as countval from Salary where id = 25", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count2 = rs.COUNTVAL;
+    }
+    jdbc:ClientMetrics metrics = testDB1.getMetrics();
+    testDB1.stop();
+    testDB2.stop();
+    return (count1, count2, metrics.onePhaseCommits, metrics.twoPhaseCommits);
+}
+
+function testXATransactionWithThreeBranches() returns (int, int, int, int, int, int) {
+    endpoint jdbc:Client testDB1 {
+        url: "jdbc:h2:file:./target/H2_1/TestDB1",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true },
+        parallelXACompletion: true
+    };
+
+    endpoint jdbc:Client testDB2 {
+        url: "jdbc:h2:file:./target/H2_2/TestDB2",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true },
+        parallelXACompletion: true
+    };
+
+    endpoint jdbc:Client testDB3 {
+        url: "jdbc:h2:file:./target/H2_1/TestDB3",
+        username: "SA",
+        poolOptions: { maximumPoolSize: 1, isXA: true },
+        parallelXACompletion: true
+    };
+
+    transaction {
+        _ = testDB1->update("insert into Customers (customerId, name, creditLimit, country)
+                                values (30, 'Anne', 1000, 'UK')");
+        _ = testDB2->update("insert into Salary (id, value ) values (30, 1000)");
+        _ = testDB3->update("insert into Customers (customerId, name, creditLimit, country)
+                                values (31, 'Anne', 1000, 'UK')");
+    }
+
+    int count1;
+    int count2;
+    int count3;
+    table dt = check testDB1->select("Select COUNT(*) as countval from Customers where customerId in (30, 31)",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count1 = rs.COUNTVAL;
+    }
+
+    dt = check testDB2->select("Select COUNT(*) as countval from Salary where id = 30", ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count2 = rs.COUNTVAL;
+    }
+
+    dt = check testDB3->select("Select COUNT(*) as countval from Customers where customerId in (30, 31)",
+        ResultCount);
+    while (dt.hasNext()) {
+        ResultCount rs = check <ResultCount>dt.getNext();
+        count3 = rs.COUNTVAL;
+    }
+    jdbc:ClientMetrics metrics1 = testDB1.getMetrics();
+    jdbc:ClientMetrics metrics2 = testDB2.getMetrics();
+    jdbc:ClientMetrics metrics3 = testDB3.getMetrics();
+    testDB1.stop();
+    testDB2.stop();
+    testDB3.stop();
+    return (count1, count2, count3, metrics1.twoPhaseCommits, metrics2.twoPhaseCommits, metrics3.twoPhaseCommits);
+}
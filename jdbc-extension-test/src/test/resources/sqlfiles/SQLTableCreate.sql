@@ -55,3 +55,11 @@ CREATE PROCEDURE InsertPersonDataFailure(IN regid1 INT, IN regid2 INT)
   values ('James', 'Clerk', regid2, 'invalid', 'USA');
   END
 /
+CREATE FUNCTION CurrentThreadName() RETURNS VARCHAR(300)
+  LANGUAGE JAVA NOT DETERMINISTIC NO SQL
+  EXTERNAL NAME 'CLASSPATH:org.ballerinax.test.utils.SQLDBUtils.currentThreadName'
+/
+CREATE FUNCTION Delay(millis INT) RETURNS INT
+  LANGUAGE JAVA NOT DETERMINISTIC NO SQL
+  EXTERNAL NAME 'CLASSPATH:org.ballerinax.test.utils.SQLDBUtils.delay'
+/
@@ -0,0 +1,189 @@
+// Copyright (c) 2018 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/sql;
+
+# Represents the caller actions of a JDBC client endpoint. Provides the operations of `sql:CallerActions` along with
+# the extensions supported by the JDBC client.
+public type CallerActions object {
+
+    # The call operation implementation for JDBC client to invoke stored procedures/functions.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + recordType - Array of record types of the returned tables if there is any
+    # + queryTimeout - Time in milliseconds after which the statement is cancelled and `error` is returned. The query
+    #                  timeout of the endpoint applies if 0
+    # + parameters - The parameters to be passed to the procedure/function call. The number of parameters is variable
+    # + return - A `table[]` if there are tables returned by the call action and else nil,
+    #            `error` will be returned if there is any error
+    public extern function call(@sensitive string sqlQuery, typedesc[]? recordType, int queryTimeout = 0,
+                                sql:Param... parameters) returns @tainted table[]|()|error;
+
+    # The select operation implementation for JDBC client to select data from tables.
+    #
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned table
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + fetchSize - Number of rows to be fetched from the database at a time. A positive value streams the result
+    #               using a forward only, read only cursor instead of letting the driver buffer all the rows. The
+    #               default value of 0 uses the fetch size of the driver
+    # + queryTimeout - Time in milliseconds after which the query is cancelled and `error` is returned. The rows of a
+    #                  result which is not loaded to memory may be read afterwards. The query timeout of the endpoint
+    #                  applies if 0
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
+    public extern function select(@sensitive string sqlQuery, typedesc? recordType, boolean loadToMemory = false,
+                                  int fetchSize = 0, int queryTimeout = 0, sql:Param... parameters)
+        returns @tainted table|error;
+
+    # The selectPartitioned operation implementation for JDBC client to select data in parallel. The range between the
+    # bounds of the partition column is split into partitions of equal width, which are read concurrently, each on its
+    # own connection of the pool, and merged into one table. The partitions are streamed from the database and handed
+    # over in batches of bounded size, so the memory used does not depend on the size of the result unless it is
+    # loaded to memory. Up to `partitionCount` connections besides one coordinating connection are used at a time,
+    # within the size of the pool. The action is not supported within a transaction.
+    #
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned table
+    # + partitionColumn - Numeric or date column returned by the query, by which the rows are partitioned
+    # + lowerBound - Lower bound of the partition column, in milliseconds since the epoch for dates. The first
+    #                partition also returns the rows below the bound and those whose partition column is null
+    # + upperBound - Upper bound of the partition column, in milliseconds since the epoch for dates. The last partition
+    #                also returns the rows above the bound
+    # + partitionCount - Number of partitions
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + ordered - Indicates whether the rows are returned in the order of the partition column. Otherwise the rows of
+    #             the partitions are returned as they are read
+    # + queryTimeout - Time in milliseconds after which the queries of the partitions are cancelled and `error` is
+    #                  returned. The query timeout of the endpoint applies if 0
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - A `table` holding the rows of all the partitions else `error` will be returned if there is any error
+    public extern function selectPartitioned(@sensitive string sqlQuery, typedesc? recordType, string partitionColumn,
+                                             int lowerBound, int upperBound, int partitionCount,
+                                             boolean loadToMemory = false, boolean ordered = false,
+                                             int queryTimeout = 0, sql:Param... parameters)
+        returns @tainted table|error;
+
+    # The update operation implementation for JDBC client to update data and schema of the database.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + queryTimeout - Time in milliseconds after which the statement is cancelled and `error` is returned. The query
+    #                  timeout of the endpoint applies if 0
+    # + parameters - The parameters to be passed to the update query. The number of parameters is variable. The value of
+    #                an `sql:Parameter` may be an `io:ReadableByteChannel`, of which the content is streamed to the
+    #                database, decoded as UTF-8 for character types. Such updates support only `IN` parameters and
+    #                cannot be executed within a transaction
+    # + return - `int` number of rows updated by the statement and else `error` will be returned if there is any error
+    public extern function update(@sensitive string sqlQuery, int queryTimeout = 0, sql:Param... parameters)
+        returns int|error;
+
+    # The batchUpdate operation implementation for JDBC client to batch data insert.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + parameters - Variable number of parameter arrays each representing the set of parameters of belonging to each
+    #                individual update
+    # + return - An `int[]` - The elements in the array returned by the operation may be one of the following or else
+    #            an `error` will be returned if there is any error.
+    #            A number greater than or equal to zero - indicates that the command was processed successfully
+    #                                                     and is an update count giving the number of rows
+    #            A value of -2 - Indicates that the command was processed successfully but that the number of rows
+    #                            affected is unknown
+    #            A value of -3 - Indicates that the command failed to execute successfully and occurs only if a driver
+    #                            continues to process commands after a command fails
+    public extern function batchUpdate(@sensitive string sqlQuery, sql:Param[]... parameters) returns int[]|error;
+
+    # The updateWithGeneratedKeys operation implementation for JDBC client which returns the auto
+    # generated keys during the update action.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + keyColumns - Names of auto generated columns for which the auto generated key values are returned
+    # + parameters - The parameters to be passed to the update query. The number of parameters is variable
+    # + return - A `Tuple` will be returned and would represent updated row count during the query exectuion,
+    #            aray of auto generated key values during the query execution, in order.
+    #            Else `error` will be returned if there is any error.
+    public extern function updateWithGeneratedKeys(@sensitive string sqlQuery, string[]? keyColumns,
+                                                   sql:Param... parameters) returns (int, string[])|error;
+
+    # The batchUpdateWithGeneratedKeys operation implementation for JDBC client to insert several rows and return the
+    # key generated for each of them. For PostgreSQL the rows are inserted by multi row inserts with a `RETURNING`
+    # clause, otherwise the rows are batched and the keys are read once the batch is executed. The rows are inserted
+    # atomically.
+    #
+    # + sqlQuery - SQL statement inserting a single row
+    # + keyColumns - Names of auto generated columns, of which the first one holds the returned keys. The columns are
+    #                chosen by the driver if nil, which is not supported for PostgreSQL
+    # + parameters - Variable number of parameter arrays each representing the set of parameters of a row
+    # + return - An `int[]` holding the integer key generated for each row, in order, else `error` will be returned if
+    #            there is any error
+    public extern function batchUpdateWithGeneratedKeys(@sensitive string sqlQuery, string[]? keyColumns,
+                                                        sql:Param[]... parameters) returns int[]|error;
+
+    # The bulkLoad operation implementation for JDBC client to load a large number of rows into a table. The rows are
+    # streamed to the database using `COPY FROM STDIN` for PostgreSQL, `LOAD DATA LOCAL INFILE` for MySQL if
+    # `allowLoadLocalInfile=true` is set in the URL, and batched inserts otherwise. The rows are loaded atomically.
+    #
+    # + tableName - Name of the table to load the rows into
+    # + data - A `table` of which each record is loaded as a row, or UTF-8 encoded CSV content of which each line is
+    #          loaded as a row. CSV content read from a byte channel is streamed to the database. Unquoted empty CSV
+    #          fields are loaded as null. The table and the byte channel are not closed
+    # + columns - Names of the columns to which the fields of each row are loaded, in order. By default the fields of
+    #             the records of a `table` are loaded to the columns of the same name, and the fields of CSV content
+    #             are loaded to all the columns of the table in their order
+    # + return - `int` number of rows loaded and else `error` will be returned if there is any error
+    public extern function bulkLoad(@sensitive string tableName, table|io:ReadableByteChannel|byte[] data,
+                                    string[]? columns = ()) returns int|error;
+
+    # The pipeline operation implementation for JDBC client to execute several statements on a single connection. The
+    # statements are sent to the database at once for PostgreSQL, and for MySQL if `allowMultiQueries=true` is set in
+    # the URL, taking a single round trip. Otherwise they are executed one after the other. The statements are
+    # executed in one local transaction, which is rolled back if any of them fails.
+    #
+    # + statements - The statements to execute, in order
+    # + return - A `PipelineResult[]` holding the result of each statement in order, else `error` will be returned if
+    #            there is any error
+    public extern function pipeline(PipelineStatement... statements) returns @tainted PipelineResult[]|error;
+
+    # The readBlob operation implementation for JDBC client to stream a large binary value from the database. The
+    # value is read from the database as the returned channel is read, without holding it in memory, and the
+    # connection executing the query is held until the channel is closed.
+    #
+    # + sqlQuery - SQL query selecting the value, such as a `BLOB`, as the first column of its first row
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - An `io:ReadableByteChannel` over the value, which is empty if the value is null, else `error` will be
+    #            returned if there is any error
+    public extern function readBlob(@sensitive string sqlQuery, sql:Param... parameters)
+        returns @tainted io:ReadableByteChannel|error;
+
+    # The readClob operation implementation for JDBC client to stream a large character value from the database. The
+    # value is read from the database as the returned channel is read, without holding it in memory, and the
+    # connection executing the query is held until the channel is closed.
+    #
+    # + sqlQuery - SQL query selecting the value, such as a `CLOB`, as the first column of its first row
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - An `io:ReadableCharacterChannel` over the value, which is empty if the value is null, else `error`
+    #            will be returned if there is any error
+    public function readClob(@sensitive string sqlQuery, sql:Param... parameters)
+        returns @tainted io:ReadableCharacterChannel|error {
+        match self.readClobBytes(sqlQuery, ...parameters) {
+            io:ReadableByteChannel channel => return new io:ReadableCharacterChannel(channel, "UTF-8");
+            error e => return e;
+        }
+    }
+
+    extern function readClobBytes(@sensitive string sqlQuery, sql:Param... parameters)
+        returns @tainted io:ReadableByteChannel|error;
+};
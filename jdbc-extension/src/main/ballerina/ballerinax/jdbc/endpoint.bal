@@ -23,12 +23,294 @@ import ballerina/sql;
 # + password - Password for the database connection
 # + poolOptions - Properties for the connection pool configuration. Refer `sql:PoolOptions` for more details
 # + dbOptions - A map of DB specific properties. These properties will have an effect only if the dataSourceClassName is provided in poolOptions
+# + statementCacheSize - Number of prepared statements cached per pooled connection. Statements are not cached if 0
+# + batchChunkSize - Maximum number of rows sent to the database at once by a batch update. Outside transactions each
+#                    chunk is committed separately. The whole batch is sent at once if 0
+# + rewriteBatchedInserts - Whether the single row inserts of a batch update are rewritten into multi row inserts
+# + workerPoolSize - Number of dedicated workers executing the actions of the client, which releases the calling
+#                    Ballerina worker while the database is being accessed. Actions are executed on the calling worker
+#                    if 0
+# + workerQueueSize - Maximum number of actions waiting for a dedicated worker. The queue is unbounded if 0
+# + useVirtualThreads - Whether each action of the client is executed on a virtual thread of its own, when supported
+#                      by the JVM, even if `workerPoolSize` is 0. The worker pool and its queue are then not used, and
+#                      `maxConcurrentActions` bounds the actions executed at once
+# + replicaUrls - URLs of the read replicas of the database. Outside transactions `select` actions are executed on the
+#                 replicas, each having a connection pool configured as the one of the primary database
+# + loadBalancingPolicy - Policy for choosing the replica which executes a `select` action
+# + resultCacheTtl - Time in milliseconds for which the results of the `select` actions executed outside transactions
+#                    are cached, keyed on the query and its parameters. Cached results are served without borrowing a
+#                    connection and are discarded once an action of the client writes to a table read by the query.
+#                    Results are not cached if 0
+# + resultCacheMaxBytes - Estimated size limit of the cached results, in bytes
+# + startupMode - When the connection pool is created and its connections are opened
+# + columnarTables - Whether the tables loaded to memory by the `select` action store their rows in columns of
+#                    primitive values and dictionary encoded strings, which take less memory than a set of values per
+#                    row. The records are created from the columns as the table is iterated
+# + adaptivePoolSizing - Whether the maximum size of the connection pool is adapted to the load. The limit grows while
+#                        callers wait for connections and the pool is saturated, and shrinks as connections are held
+#                        longer than usual, which indicates that the database is overloaded, or stay idle
+# + minimumPoolSize - Lower bound of the adapted maximum size of the connection pool. The upper bound is the
+#                     `maximumPoolSize` of the pool options
+# + targetAcquireTime - Mean time in milliseconds callers may wait for a connection before the adapted maximum size of
+#                       the connection pool grows
+# + maxConcurrentActions - Maximum number of actions of the client executed at once outside transactions. Actions are
+#                          not limited if 0
+# + maxQueuedActions - Maximum number of actions waiting to be executed once `maxConcurrentActions` is reached. Further
+#                      actions fail straight away
+# + admissionTimeout - Time in milliseconds an action waits to be executed before it fails
+# + queryTimeout - Time in milliseconds after which the statements of an action are cancelled and the action fails,
+#                  unless the action sets its own query timeout. Statements are not timed out if 0
+# + slowQueryThreshold - Execution time in milliseconds from which a statement is added to the slow query log of the
+#                        client. All statements are logged if 0, and none if negative
+# + slowQuerySampleRate - Fraction of the slow statements which are logged, between 0 and 1
+# + slowQueryLogSize - Number of statements kept by the slow query log, which keeps the latest ones once it is full
+# + onePhaseCommit - Whether an XA transaction in which the client is the only JDBC client taking part is committed in
+#                    one phase, skipping the prepare phase. Enable it only if the transactions of the client have no
+#                    other participants, such as remote ones or non-XA clients, since those are not known to the client
+# + parallelXACompletion - Whether the branch of the client in an XA transaction with several JDBC clients is prepared
+#                          and committed concurrently with the branches of the other clients which enable it, instead
+#                          of when the transaction manager reaches it
+# + writeCoalescingBatchSize - Maximum number of concurrent `update` actions of the same single row `INSERT` statement
+#                              executed together as one batch in one transaction outside transactions. Inserts are
+#                              not coalesced if 0
+# + writeCoalescingWindow - Time in microseconds for which a batch of coalesced inserts collects further inserts
+# + collapseSelects - Whether identical `select` actions executed concurrently outside transactions are executed once,
+#                     sharing the result read into memory
+# + collapsedResultMaxRows - Maximum number of rows of a result shared by collapsed `select` actions. Larger results are
+#                            read by each action on its own
+# + hedgeReads - Whether a `select` action executed on a replica is executed again on another replica, or on the
+#                primary database if there is only one replica, when the first execution is slow. The result of the
+#                execution answering first is returned and the other one is cancelled
+# + hedgePercentile - Percentile of the execution times of the queries on the replicas after which a query is hedged
+# + hedgeBudget - Maximum fraction of the queries on the replicas which are executed again by hedging
 public type ClientEndpointConfiguration record {
     string url;
     string username;
     string password;
     sql:PoolOptions poolOptions;
     map dbOptions;
+    int statementCacheSize;
+    int batchChunkSize;
+    boolean rewriteBatchedInserts;
+    int workerPoolSize;
+    int workerQueueSize;
+    boolean useVirtualThreads;
+    string[] replicaUrls;
+    LoadBalancingPolicy loadBalancingPolicy = ROUND_ROBIN;
+    int resultCacheTtl;
+    int resultCacheMaxBytes = 16777216;
+    StartupMode startupMode = STARTUP_DEFAULT;
+    boolean columnarTables;
+    boolean adaptivePoolSizing;
+    int minimumPoolSize = 1;
+    int targetAcquireTime = 10;
+    int maxConcurrentActions;
+    int maxQueuedActions;
+    int admissionTimeout = 1000;
+    int queryTimeout;
+    int slowQueryThreshold = -1;
+    float slowQuerySampleRate = 1.0;
+    int slowQueryLogSize = 256;
+    boolean onePhaseCommit;
+    boolean parallelXACompletion;
+    int writeCoalescingBatchSize;
+    int writeCoalescingWindow = 1000;
+    boolean collapseSelects;
+    int collapsedResultMaxRows = 10000;
+    boolean hedgeReads;
+    float hedgePercentile = 95.0;
+    float hedgeBudget = 0.05;
+    !...
+};
+
+# Policy for choosing the replica which executes a `select` action.
+public type LoadBalancingPolicy "ROUND_ROBIN"|"LEAST_PENDING";
+
+# The replicas are chosen in turn.
+@final public LoadBalancingPolicy ROUND_ROBIN = "ROUND_ROBIN";
+
+# The replica with the fewest callers waiting for a connection, followed by the fewest connections in use, is chosen.
+@final public LoadBalancingPolicy LEAST_PENDING = "LEAST_PENDING";
+
+# When the connection pool of a JDBC client is created and its connections are opened.
+public type StartupMode "DEFAULT"|"EAGER"|"LAZY";
+
+# The pool is created when the endpoint is initialized, opening one connection. The pool opens the rest of its idle
+# connections in the background.
+@final public StartupMode STARTUP_DEFAULT = "DEFAULT";
+
+# The pool is created when the endpoint is initialized, and the endpoint initialization waits until the minimum number
+# of idle connections are opened and validated in parallel.
+@final public StartupMode STARTUP_EAGER = "EAGER";
+
+# The pool is created when the client is first used, hence the endpoint initialization does not access the database.
+@final public StartupMode STARTUP_LAZY = "LAZY";
+
+# Prepared statement cache statistics of the connection pool used by a JDBC client.
+#
+# + hits - Number of statements served from the cache
+# + misses - Number of statements prepared on the database
+# + evictions - Number of statements evicted from the cache
+public type StatementCacheStats record {
+    int hits;
+    int misses;
+    int evictions;
+    !...
+};
+
+# A statement executed by the `pipeline` action.
+#
+# + sqlQuery - SQL statement to execute
+# + parameters - The parameters of the statement. Only parameters of the `IN` direction are supported
+public type PipelineStatement record {
+    string sqlQuery;
+    sql:Param[] parameters;
+    !...
+};
+
+# The result of a statement executed by the `pipeline` action.
+#
+# + updateCount - Number of rows updated by the statement, -1 if the statement is a query
+# + rows - The rows returned by the query, each mapping the column labels to the column values
+public type PipelineResult record {
+    int updateCount;
+    map[] rows;
+    !...
+};
+
+# Result cache statistics of a JDBC client.
+#
+# + hits - Number of `select` actions served from the cache
+# + misses - Number of `select` actions executed on the database
+# + evictions - Number of results evicted from the cache to stay within its size limit
+# + invalidations - Number of results discarded since a table read by the query was written to
+# + size - Estimated size of the cached results, in bytes
+public type ResultCacheStats record {
+    int hits;
+    int misses;
+    int evictions;
+    int invalidations;
+    int size;
+    !...
+};
+
+# Statistics of the dedicated workers executing the actions of a JDBC client.
+#
+# + queueDepth - Number of actions waiting for a worker
+# + activeWorkers - Number of workers executing an action
+# + completedActions - Number of actions executed
+# + rejectedActions - Number of actions rejected since the queue was full
+# + averageWaitTime - Average time the actions waited for a worker, in milliseconds
+# + maxWaitTime - Longest time an action waited for a worker, in milliseconds
+public type WorkerPoolStats record {
+    int queueDepth;
+    int activeWorkers;
+    int completedActions;
+    int rejectedActions;
+    float averageWaitTime;
+    float maxWaitTime;
+    !...
+};
+
+# Latency distribution of a kind of operation. The percentiles are estimated from a histogram with exponentially
+# growing buckets.
+#
+# + count - Number of operations recorded
+# + mean - Mean latency in milliseconds
+# + max - Maximum latency in milliseconds
+# + p50 - Median latency in milliseconds
+# + p95 - 95th percentile of the latency in milliseconds
+# + p99 - 99th percentile of the latency in milliseconds
+public type LatencyMetrics record {
+    int count;
+    float mean;
+    float max;
+    float p50;
+    float p95;
+    float p99;
+    !...
+};
+
+# Connection pool gauges and action latencies of the connection pool used by a JDBC client.
+#
+# + activeConnections - Number of connections in use
+# + idleConnections - Number of idle connections in the pool, -1 if not reported by the pool
+# + totalConnections - Number of connections in the pool, -1 if not reported by the pool
+# + pendingConnections - Number of callers waiting for a connection
+# + poolSizeLimit - Maximum size of the connection pool set by adaptive pool sizing, -1 if not enabled
+# + concurrentActions - Number of actions being executed, when `maxConcurrentActions` is set
+# + queuedActions - Number of actions waiting to be executed, when `maxConcurrentActions` is set
+# + rejectedActions - Number of actions failed since `maxConcurrentActions` was reached
+# + timedOutStatements - Number of statements which failed on their query timeout, as reported by the driver
+# + cancelledStatements - Number of statements cancelled by the client since their query timeout expired
+# + onePhaseCommits - Number of XA transaction branches committed in one phase, without being prepared
+# + twoPhaseCommits - Number of XA transaction branches prepared and committed in two phases
+# + collapsedSelects - Number of `select` actions served from the result of an identical action executed concurrently
+# + collapsedSelectFallbacks - Number of collapsed `select` actions executed on their own, since the result of the
+#                              identical action was too large to be shared
+# + hedgedReads - Number of `select` actions executed again on another replica since the first execution was slow
+# + hedgedReadWins - Number of hedged `select` actions of which the execution on the other replica answered first
+# + streamedQueries - Number of queries prepared for streaming their result from the database with a `fetchSize`
+# + coalescedBatches - Number of batches of several coalesced inserts committed at once, when
+#                      `writeCoalescingBatchSize` is set
+# + acquireLatency - Time taken to acquire a connection from the pool
+# + selectLatency - Time taken by the `select` action, until the result is returned
+# + updateLatency - Time taken by the `update` action
+# + batchUpdateLatency - Time taken by the `batchUpdate` action
+# + callLatency - Time taken by the `call` action
+# + updateWithGeneratedKeysLatency - Time taken by the `updateWithGeneratedKeys` action
+# + bulkLoadLatency - Time taken by the `bulkLoad` action
+# + pipelineLatency - Time taken by the `pipeline` action
+# + batchUpdateWithGeneratedKeysLatency - Time taken by the `batchUpdateWithGeneratedKeys` action
+# + selectPartitionedLatency - Time taken by the `selectPartitioned` action
+public type ClientMetrics record {
+    int activeConnections;
+    int idleConnections;
+    int totalConnections;
+    int pendingConnections;
+    int poolSizeLimit;
+    int concurrentActions;
+    int queuedActions;
+    int rejectedActions;
+    int timedOutStatements;
+    int cancelledStatements;
+    int onePhaseCommits;
+    int twoPhaseCommits;
+    int collapsedSelects;
+    int collapsedSelectFallbacks;
+    int hedgedReads;
+    int hedgedReadWins;
+    int streamedQueries;
+    int coalescedBatches;
+    LatencyMetrics acquireLatency;
+    LatencyMetrics selectLatency;
+    LatencyMetrics updateLatency;
+    LatencyMetrics batchUpdateLatency;
+    LatencyMetrics callLatency;
+    LatencyMetrics updateWithGeneratedKeysLatency;
+    LatencyMetrics bulkLoadLatency;
+    LatencyMetrics pipelineLatency;
+    LatencyMetrics batchUpdateWithGeneratedKeysLatency;
+    LatencyMetrics selectPartitionedLatency;
+    !...
+};
+
+# A statement of the slow query log of a JDBC client.
+#
+# + sqlQuery - SQL statement executed
+# + parameters - Summary of the values of the parameters of the statement, or of the first row of a batch
+# + rowCount - Number of rows updated by the statement or returned by the query, -1 if not known, such as for a result
+#              which is not read to the end
+# + acquireTime - Time taken to acquire the connection executing the statement, in milliseconds
+# + executionTime - Time taken to execute the statement, in milliseconds
+# + timestamp - Time at which the execution completed, in milliseconds since the epoch
+public type SlowQuery record {
+    string sqlQuery;
+    string parameters;
+    int rowCount;
+    float acquireTime;
+    float executionTime;
+    int timestamp;
     !...
 };
 
@@ -38,7 +320,7 @@ public type ClientEndpointConfiguration record {
 public type Client object {
 
     private ClientEndpointConfiguration config;
-    private sql:CallerActions callerActions;
+    private CallerActions callerActions;
 
     # Gets called when the endpoint is being initialized during the package initialization.
     #
@@ -47,15 +329,63 @@ public type Client object {
         self.callerActions = createClient(c);
     }
 
-    # Returns the connector that the client code uses.
-    public function getCallerActions() returns sql:CallerActions {
+    # Returns the connector that the client code uses. The caller actions are of the `jdbc:CallerActions` type, which
+    # is not compatible with `sql:CallerActions`.
+    public function getCallerActions() returns CallerActions {
         return self.callerActions;
     }
 
-    # Stops the JDBC client.
+    # Returns the prepared statement cache statistics of the connection pool used by the client.
+    #
+    # + return - The statement cache statistics
+    public function getStatementCacheStats() returns StatementCacheStats {
+        return statementCacheStats(self.callerActions);
+    }
+
+    # Returns the result cache statistics of the client.
+    #
+    # + return - The result cache statistics
+    public function getResultCacheStats() returns ResultCacheStats {
+        return resultCacheStats(self.callerActions);
+    }
+
+    # Returns the statistics of the dedicated workers executing the actions of the client.
+    #
+    # + return - The worker pool statistics
+    public function getWorkerPoolStats() returns WorkerPoolStats {
+        return workerPoolStats(self.callerActions);
+    }
+
+    # Returns the connection pool gauges and the action latencies of the connection pool used by the client.
+    #
+    # + return - The client metrics
+    public function getMetrics() returns ClientMetrics {
+        return metrics(self.callerActions);
+    }
+
+    # Returns the statements of the slow query log of the client, oldest first.
+    #
+    # + return - The logged statements, which are none unless `slowQueryThreshold` is set
+    public function getSlowQueries() returns SlowQuery[] {
+        return slowQueries(self.callerActions);
+    }
+
+    # Stops the JDBC client. The connection pool is closed once all the endpoints sharing it are stopped.
     public function stop() {
-        sql:close(self.callerActions);
+        close(self.callerActions);
     }
 };
 
-extern function createClient(ClientEndpointConfiguration config) returns sql:CallerActions;
+extern function createClient(ClientEndpointConfiguration config) returns CallerActions;
+
+extern function close(CallerActions callerActions);
+
+extern function statementCacheStats(CallerActions callerActions) returns StatementCacheStats;
+
+extern function resultCacheStats(CallerActions callerActions) returns ResultCacheStats;
+
+extern function workerPoolStats(CallerActions callerActions) returns WorkerPoolStats;
+
+extern function metrics(CallerActions callerActions) returns ClientMetrics;
+
+extern function slowQueries(CallerActions callerActions) returns SlowQuery[];
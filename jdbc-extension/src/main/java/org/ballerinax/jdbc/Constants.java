@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc;
+
+/**
+ * Constants used by the JDBC client.
+ *
+ * @since 0.982.1
+ */
+public final class Constants {
+
+    public static final String JDBC_PACKAGE_PATH = "ballerinax/jdbc";
+    public static final String CALLER_ACTIONS = "CallerActions";
+    public static final String STATEMENT_CACHE_STATS = "StatementCacheStats";
+    public static final String WORKER_POOL_STATS = "WorkerPoolStats";
+    public static final String CLIENT_METRICS = "ClientMetrics";
+    public static final String LATENCY_METRICS = "LatencyMetrics";
+    public static final String RESULT_CACHE_STATS = "ResultCacheStats";
+    public static final String PIPELINE_RESULT = "PipelineResult";
+    public static final String SLOW_QUERY = "SlowQuery";
+    public static final String CLIENT_RELEASED = "jdbcClientReleased";
+
+    private Constants() {
+    }
+
+    /**
+     * Field names of the {@code ClientEndpointConfiguration} record.
+     */
+    public static final class EndpointConfig {
+        public static final String URL = "url";
+        public static final String USERNAME = "username";
+        public static final String PASSWORD = "password";
+        public static final String POOL_OPTIONS = "poolOptions";
+        public static final String DB_OPTIONS = "dbOptions";
+        public static final String STATEMENT_CACHE_SIZE = "statementCacheSize";
+        public static final String BATCH_CHUNK_SIZE = "batchChunkSize";
+        public static final String REWRITE_BATCHED_INSERTS = "rewriteBatchedInserts";
+        public static final String WORKER_POOL_SIZE = "workerPoolSize";
+        public static final String WORKER_QUEUE_SIZE = "workerQueueSize";
+        public static final String USE_VIRTUAL_THREADS = "useVirtualThreads";
+        public static final String REPLICA_URLS = "replicaUrls";
+        public static final String LOAD_BALANCING_POLICY = "loadBalancingPolicy";
+        public static final String RESULT_CACHE_TTL = "resultCacheTtl";
+        public static final String RESULT_CACHE_MAX_BYTES = "resultCacheMaxBytes";
+        public static final String STARTUP_MODE = "startupMode";
+        public static final String COLUMNAR_TABLES = "columnarTables";
+        public static final String ADAPTIVE_POOL_SIZING = "adaptivePoolSizing";
+        public static final String MINIMUM_POOL_SIZE = "minimumPoolSize";
+        public static final String TARGET_ACQUIRE_TIME = "targetAcquireTime";
+        public static final String MAX_CONCURRENT_ACTIONS = "maxConcurrentActions";
+        public static final String MAX_QUEUED_ACTIONS = "maxQueuedActions";
+        public static final String ADMISSION_TIMEOUT = "admissionTimeout";
+        public static final String QUERY_TIMEOUT = "queryTimeout";
+        public static final String SLOW_QUERY_THRESHOLD = "slowQueryThreshold";
+        public static final String SLOW_QUERY_SAMPLE_RATE = "slowQuerySampleRate";
+        public static final String SLOW_QUERY_LOG_SIZE = "slowQueryLogSize";
+        public static final String ONE_PHASE_COMMIT = "onePhaseCommit";
+        public static final String PARALLEL_XA_COMPLETION = "parallelXACompletion";
+        public static final String WRITE_COALESCING_BATCH_SIZE = "writeCoalescingBatchSize";
+        public static final String WRITE_COALESCING_WINDOW = "writeCoalescingWindow";
+        public static final String COLLAPSE_SELECTS = "collapseSelects";
+        public static final String COLLAPSED_RESULT_MAX_ROWS = "collapsedResultMaxRows";
+        public static final String HEDGE_READS = "hedgeReads";
+        public static final String HEDGE_PERCENTILE = "hedgePercentile";
+        public static final String HEDGE_BUDGET = "hedgeBudget";
+
+        private EndpointConfig() {
+        }
+    }
+
+    /**
+     * Field names of the {@code sql:PoolOptions} record.
+     */
+    public static final class PoolOptions {
+        public static final String MAXIMUM_POOL_SIZE = "maximumPoolSize";
+        public static final String MINIMUM_IDLE = "minimumIdle";
+        public static final String VALIDATION_TIMEOUT = "validationTimeout";
+
+        private PoolOptions() {
+        }
+    }
+}
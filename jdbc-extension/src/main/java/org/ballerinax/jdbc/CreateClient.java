@@ -22,15 +22,19 @@ import org.ballerinalang.bre.Context;
 import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
 import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
 import org.ballerinalang.connector.api.Struct;
-import org.ballerinalang.database.sql.SQLDatasourceUtils;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinax.jdbc.datasource.DatasourceRegistry;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.MetricsRegistry;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
 
 /**
- * Returns the JDBC Client connector.
+ * Returns the JDBC Client connector. Endpoints with identical configurations share the same connection pool.
  *
  * @since 0.970
  */
@@ -47,7 +51,11 @@ public class CreateClient extends BlockingNativeCallableUnit {
     public void execute(Context context) {
         BMap<String, BValue> configBStruct = (BMap<String, BValue>) context.getRefArgument(0);
         Struct clientEndpointConfig = BLangConnectorSPIUtil.toStruct(configBStruct);
-        BMap<String, BValue> sqlClient = SQLDatasourceUtils.createSQLDBClient(context, clientEndpointConfig);
-        context.setReturnValues(sqlClient);
+        JDBCDatasource datasource = DatasourceRegistry.acquire(configBStruct, clientEndpointConfig);
+        MetricsRegistry.register(datasource);
+        BMap<String, BValue> jdbcClient = BLangConnectorSPIUtil
+                .createBStruct(context.getProgramFile(), Constants.JDBC_PACKAGE_PATH, Constants.CALLER_ACTIONS);
+        jdbcClient.addNativeData(SQL_CLIENT, datasource);
+        context.setReturnValues(jdbcClient);
     }
 }
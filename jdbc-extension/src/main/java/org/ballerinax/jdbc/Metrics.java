@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.util.codegen.ProgramFile;
+import org.ballerinax.jdbc.datasource.AdmissionController;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.LatencyHistogram;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * Returns the connection pool gauges and the action latencies of a JDBC client.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "metrics",
+        args = {@Argument(name = "callerActions", type = TypeKind.OBJECT, structType = "CallerActions")},
+        returnType = {@ReturnType(type = TypeKind.RECORD, structType = "ClientMetrics")}
+)
+public class Metrics extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<?, ?> callerActions = (BMap<?, ?>) context.getRefArgument(0);
+        JDBCDatasource datasource = (JDBCDatasource) callerActions.getNativeData(SQL_CLIENT);
+        ClientMetrics metrics = datasource.getMetrics();
+        AdmissionController admissionController = datasource.getAdmissionController();
+        ProgramFile programFile = context.getProgramFile();
+        BMap<String, BValue> clientMetrics = BLangConnectorSPIUtil.createBStruct(programFile,
+                Constants.JDBC_PACKAGE_PATH, Constants.CLIENT_METRICS, metrics.getActiveConnections(),
+                metrics.getIdleConnections(), metrics.getTotalConnections(), metrics.getPendingConnections(),
+                metrics.getPoolSizeLimit(),
+                admissionController == null ? 0 : admissionController.getConcurrentActions(),
+                admissionController == null ? 0 : admissionController.getQueuedActions(),
+                admissionController == null ? 0 : admissionController.getRejectedActions(),
+                metrics.getTimedOutStatements(), metrics.getCancelledStatements(), metrics.getOnePhaseCommits(),
+                metrics.getTwoPhaseCommits(), metrics.getCollapsedSelects(), metrics.getCollapsedSelectFallbacks(),
+                metrics.getHedgedReads(), metrics.getHedgedReadWins(), metrics.getStreamedQueries(),
+                metrics.getCoalescedBatches(),
+                createLatencyMetrics(programFile, metrics.getAcquireTime()),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.SELECT)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.UPDATE)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.BATCH_UPDATE)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.CALL)),
+                createLatencyMetrics(programFile,
+                        metrics.getLatency(ClientMetrics.Operation.UPDATE_WITH_GENERATED_KEYS)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.BULK_LOAD)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.PIPELINE)),
+                createLatencyMetrics(programFile,
+                        metrics.getLatency(ClientMetrics.Operation.BATCH_UPDATE_WITH_GENERATED_KEYS)),
+                createLatencyMetrics(programFile, metrics.getLatency(ClientMetrics.Operation.SELECT_PARTITIONED)));
+        context.setReturnValues(clientMetrics);
+    }
+
+    private static BMap<String, BValue> createLatencyMetrics(ProgramFile programFile, LatencyHistogram histogram) {
+        return BLangConnectorSPIUtil.createBStruct(programFile, Constants.JDBC_PACKAGE_PATH,
+                Constants.LATENCY_METRICS, histogram.getCount(), histogram.getMean(), histogram.getMax(),
+                histogram.getPercentile(50), histogram.getPercentile(95), histogram.getPercentile(99));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.util.codegen.ProgramFile;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.SlowQueryLog;
+
+import java.util.List;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * Returns the entries of the slow query log of a JDBC client, oldest first, or none if slow statements are not logged.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "slowQueries",
+        args = {@Argument(name = "callerActions", type = TypeKind.OBJECT, structType = "CallerActions")},
+        returnType = {@ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.RECORD, structType = "SlowQuery")}
+)
+public class SlowQueries extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<?, ?> callerActions = (BMap<?, ?>) context.getRefArgument(0);
+        SlowQueryLog log = ((JDBCDatasource) callerActions.getNativeData(SQL_CLIENT)).getSlowQueryLog();
+        ProgramFile programFile = context.getProgramFile();
+        BRefValueArray queries = new BRefValueArray(new BArrayType(programFile
+                .getPackageInfo(Constants.JDBC_PACKAGE_PATH).getStructInfo(Constants.SLOW_QUERY).getType()));
+        if (log != null) {
+            List<SlowQueryLog.Entry> entries = log.getEntries();
+            for (int i = 0; i < entries.size(); i++) {
+                SlowQueryLog.Entry entry = entries.get(i);
+                queries.add(i, BLangConnectorSPIUtil.createBStruct(programFile, Constants.JDBC_PACKAGE_PATH,
+                        Constants.SLOW_QUERY, entry.getSql(), entry.getParameters(), entry.getRowCount(),
+                        entry.getAcquireTime(), entry.getExecutionTime(), entry.getTimestamp()));
+            }
+        }
+        context.setReturnValues(queries);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.StatementCache;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * Returns the prepared statement cache statistics of the connection pool used by a JDBC client.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "statementCacheStats",
+        args = {@Argument(name = "callerActions", type = TypeKind.OBJECT, structType = "CallerActions")},
+        returnType = {@ReturnType(type = TypeKind.RECORD, structType = "StatementCacheStats")}
+)
+public class StatementCacheStats extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<?, ?> callerActions = (BMap<?, ?>) context.getRefArgument(0);
+        JDBCDatasource datasource = (JDBCDatasource) callerActions.getNativeData(SQL_CLIENT);
+        StatementCache.Statistics statistics = datasource.getStatementCacheStatistics();
+        BMap<String, BValue> stats = BLangConnectorSPIUtil.createBStruct(context.getProgramFile(),
+                Constants.JDBC_PACKAGE_PATH, Constants.STATEMENT_CACHE_STATS, statistics.getHits(),
+                statistics.getMisses(), statistics.getEvictions());
+        context.setReturnValues(stats);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.database.sql.actions.AbstractSQLAction;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * Base of the actions of the JDBC client which return a large object selected by a query as a byte channel. The
+ * content is read from the database as the channel is read, and the connection is held until the channel is closed.
+ *
+ * @since 0.982.1
+ */
+abstract class AbstractReadLob extends AbstractSQLAction {
+
+    @Override
+    public void execute(Context context) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        String sqlQuery = context.getStringArgument(0);
+        try {
+            if (context.isInTransaction()) {
+                throw new SQLException("large objects cannot be read as channels within a transaction");
+            }
+            StatementParameters parameters = StatementParameters.of((BRefValueArray) context.getRefArgument(1));
+            InputStream stream = open(datasource, sqlQuery, parameters);
+            try {
+                context.setReturnValues(LobChannels.createByteChannel(context, stream));
+            } catch (RuntimeException e) {
+                try {
+                    stream.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    /**
+     * Executes the query and opens a stream over the large object it selects.
+     */
+    abstract InputStream open(JDBCDatasource datasource, String sqlQuery, StatementParameters parameters)
+            throws SQLException;
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.SELECT, this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.util.exceptions.BLangVMErrors;
+import org.ballerinax.jdbc.datasource.ActionExecutor;
+import org.ballerinax.jdbc.datasource.AdmissionController;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * Executes the actions of a JDBC client on the {@link ActionExecutor} of its datasource, resuming the calling
+ * Ballerina worker once the action completes. Actions of clients without an executor, and actions participating in a
+ * transaction, are executed on the calling worker. The time taken by each action, excluding the time spent waiting for
+ * a worker, is recorded in the metrics of the datasource. Outside transactions the actions are admitted by the
+ * {@link AdmissionController} of the datasource, if it has one, and fail fast once it rejects them. Actions queued for
+ * admission do not block the calling worker, they are executed on the dispatcher of the admission controller once
+ * another action releases its admission.
+ *
+ * @since 0.982.1
+ */
+final class ActionExecution {
+
+    private ActionExecution() {
+    }
+
+    static void execute(Context context, CallableUnitCallback callback, ClientMetrics.Operation operation,
+                        Consumer<Context> action) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        // Actions within a transaction already hold their connection, hence they are not limited
+        AdmissionController admissionController = context.isInTransaction() ? null
+                : datasource.getAdmissionController();
+        if (admissionController == null) {
+            dispatch(context, callback, operation, action, datasource, null, false);
+            return;
+        }
+        // A queued action is executed on the thread the admission controller hands it over to once admitted
+        if (admissionController.acquire(
+                () -> dispatch(context, callback, operation, action, datasource, admissionController, true),
+                e -> fail(context, callback, e))) {
+            dispatch(context, callback, operation, action, datasource, admissionController, false);
+        }
+    }
+
+    private static void dispatch(Context context, CallableUnitCallback callback, ClientMetrics.Operation operation,
+                                 Consumer<Context> action, JDBCDatasource datasource,
+                                 AdmissionController admissionController, boolean handedOver) {
+        Runnable timedAction = () -> {
+            long startTime = System.nanoTime();
+            try {
+                action.accept(context);
+            } finally {
+                datasource.getMetrics().getLatency(operation).record(System.nanoTime() - startTime);
+            }
+        };
+        // The admission is released once the caller is resumed, so that the next queued action does not run ahead of it
+        Consumer<Throwable> completionHandler = error -> {
+            try {
+                complete(context, callback, error);
+            } finally {
+                if (admissionController != null) {
+                    admissionController.release();
+                }
+            }
+        };
+        ActionExecutor executor = datasource.getActionExecutor();
+        if (executor == null || context.isInTransaction() || handedOver) {
+            Throwable error = null;
+            try {
+                timedAction.run();
+            } catch (RuntimeException | Error e) {
+                error = e;
+            } finally {
+                completionHandler.accept(error);
+            }
+            return;
+        }
+        try {
+            executor.execute(timedAction, completionHandler);
+        } catch (RejectedExecutionException e) {
+            if (admissionController != null) {
+                admissionController.release();
+            }
+            fail(context, callback, e);
+        }
+    }
+
+    private static void complete(Context context, CallableUnitCallback callback, Throwable error) {
+        if (error == null) {
+            callback.notifySuccess();
+        } else {
+            callback.notifyFailure(BLangVMErrors.createError(context, error.getMessage()));
+        }
+    }
+
+    private static void fail(Context context, CallableUnitCallback callback, RejectedExecutionException e) {
+        context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        callback.notifySuccess();
+    }
+}
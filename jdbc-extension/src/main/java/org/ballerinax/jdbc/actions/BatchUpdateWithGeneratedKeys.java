@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.database.sql.actions.AbstractSQLAction;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BIntArray;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.GeneratedKeysBatch;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+
+import java.sql.SQLException;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * {@code batchUpdateWithGeneratedKeys} is the batch insert action implementation of the JDBC client which returns the
+ * key generated for each inserted row as an {@code int[]}, without creating a value per row.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "batchUpdateWithGeneratedKeys",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "keyColumns", type = TypeKind.ARRAY, elementType = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY, elementType = TypeKind.ARRAY)
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.INT),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class BatchUpdateWithGeneratedKeys extends AbstractSQLAction {
+
+    @Override
+    public void execute(Context context) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        BValue keyColumnNames = context.getNullableRefArgument(1);
+        BRefValueArray rows = (BRefValueArray) context.getRefArgument(2);
+        try {
+            if (context.isInTransaction()) {
+                throw new SQLException("batch update with generated keys is not supported within a transaction");
+            }
+            String[] keyColumns = null;
+            if (keyColumnNames instanceof BStringArray) {
+                BStringArray keyColumnArray = (BStringArray) keyColumnNames;
+                keyColumns = new String[(int) keyColumnArray.size()];
+                for (int i = 0; i < keyColumns.length; i++) {
+                    keyColumns[i] = keyColumnArray.get(i);
+                }
+            }
+            GeneratedKeysBatch batch = new GeneratedKeysBatch(datasource, context.getStringArgument(0), keyColumns);
+            for (int i = 0; i < rows.size(); i++) {
+                StatementParameters parameters = StatementParameters.of((BRefValueArray) rows.get(i));
+                batch.add(parameters.getValues(), parameters.getTypes());
+            }
+            context.setReturnValues(new BIntArray(batch.execute()));
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.BATCH_UPDATE_WITH_GENERATED_KEYS,
+                this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
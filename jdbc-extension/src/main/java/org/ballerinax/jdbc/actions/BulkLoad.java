@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.database.sql.actions.AbstractSQLAction;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BByteArray;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BTable;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.BulkLoader;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+
+import java.io.ByteArrayInputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * {@code bulkLoad} is the bulk load action implementation of the JDBC client, which loads the records of a table or
+ * the lines of CSV content into a database table through the bulk load path of the database. CSV content read from a
+ * byte channel is streamed to the database. The table and the byte channel are owned by the caller, hence are not
+ * closed.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "bulkLoad",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "tableName", type = TypeKind.STRING),
+                @Argument(name = "data", type = TypeKind.UNION),
+                @Argument(name = "columns", type = TypeKind.ARRAY, elementType = TypeKind.STRING)
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.INT),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class BulkLoad extends AbstractSQLAction {
+
+    @Override
+    public void execute(Context context) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        String tableName = context.getStringArgument(0);
+        BValue data = context.getRefArgument(1);
+        BValue columnNames = context.getNullableRefArgument(2);
+        try {
+            if (context.isInTransaction()) {
+                throw new SQLException("bulk load is not supported within a transaction");
+            }
+            List<String> columns = null;
+            if (columnNames instanceof BStringArray) {
+                BStringArray columnArray = (BStringArray) columnNames;
+                columns = new ArrayList<>();
+                for (int i = 0; i < columnArray.size(); i++) {
+                    columns.add(columnArray.get(i));
+                }
+            }
+            long count;
+            if (data instanceof BByteArray) {
+                count = new BulkLoader(datasource, tableName, columns)
+                        .loadCsv(new ByteArrayInputStream(((BByteArray) data).getBytes()));
+            } else if (LobChannels.isByteChannel(data)) {
+                count = new BulkLoader(datasource, tableName, columns).loadCsv(LobChannels.getInputStream(data));
+            } else {
+                TableRows rows = new TableRows((BTable) data);
+                count = !rows.hasNext() ? 0 : new BulkLoader(datasource, tableName,
+                        columns != null ? columns : rows.getFieldNames()).load(rows);
+            }
+            context.setReturnValues(new BInteger(count));
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.BULK_LOAD, this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * The records of a table as rows of Java values.
+     */
+    private static class TableRows implements Iterator<Object[]> {
+
+        private final BTable table;
+        private BMap<String, BValue> next;
+
+        private TableRows(BTable table) {
+            this.table = table;
+            if (table.hasNext(false)) {
+                next = table.getNext();
+            }
+        }
+
+        /**
+         * Returns the field names of the records. The table must not be empty.
+         */
+        List<String> getFieldNames() {
+            return Arrays.asList(next.keys());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && table.hasNext(false)) {
+                next = table.getNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] fieldNames = next.keys();
+            Object[] row = new Object[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                row[i] = toJavaValue(next.get(fieldNames[i]));
+            }
+            next = null;
+            return row;
+        }
+
+        private static Object toJavaValue(BValue value) {
+            if (value == null) {
+                return null;
+            } else if (value instanceof BInteger) {
+                return ((BInteger) value).intValue();
+            } else if (value instanceof BFloat) {
+                return ((BFloat) value).floatValue();
+            } else if (value instanceof BBoolean) {
+                return ((BBoolean) value).booleanValue();
+            } else if (value instanceof BByteArray) {
+                return ((BByteArray) value).getBytes();
+            }
+            return value.stringValue();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.StatementOptions;
+
+/**
+ * {@code call} is the stored procedure invocation action implementation of the JDBC client. The statement is
+ * cancelled once its query timeout expires.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "call",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "recordType", type = TypeKind.ARRAY, elementType = TypeKind.TYPEDESC),
+                @Argument(name = "queryTimeout", type = TypeKind.INT),
+                @Argument(name = "parameters", type = TypeKind.ARRAY, elementType = TypeKind.UNION,
+                          structType = "Param")
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.TABLE),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class Call extends org.ballerinalang.database.sql.actions.Call {
+
+    @Override
+    public void execute(Context context) {
+        StatementOptions options = new StatementOptions();
+        options.setQueryTimeout((int) context.getIntArgument(0));
+        StatementOptions.set(options);
+        try {
+            super.execute(context);
+        } finally {
+            StatementOptions.clear();
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.CALL, this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
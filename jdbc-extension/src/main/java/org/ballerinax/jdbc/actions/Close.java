@@ -0,0 +1,52 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinax.jdbc.Constants;
+
+/**
+ * {@code close} releases the connection pool used by a JDBC client. Each client releases its reference to a shared
+ * pool once, so that closing a client again does not close the pool under the other clients sharing it.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "close",
+        args = {@Argument(name = "callerActions", type = TypeKind.OBJECT, structType = "CallerActions")}
+)
+public class Close extends org.ballerinalang.database.sql.actions.Close {
+
+    @Override
+    public void execute(Context context) {
+        BMap<?, ?> callerActions = (BMap<?, ?>) context.getRefArgument(0);
+        synchronized (callerActions) {
+            if (callerActions.getNativeData(Constants.CLIENT_RELEASED) != null) {
+                return;
+            }
+            callerActions.addNativeData(Constants.CLIENT_RELEASED, Boolean.TRUE);
+        }
+        super.execute(context);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.stdlib.io.channels.base.Channel;
+import org.ballerinalang.stdlib.io.utils.IOConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Converts between Ballerina byte channels and the streams over large objects read and written by the JDBC client.
+ *
+ * @since 0.982.1
+ */
+final class LobChannels {
+
+    private static final String READABLE_BYTE_CHANNEL = "ReadableByteChannel";
+
+    private LobChannels() {
+    }
+
+    static boolean isByteChannel(BValue value) {
+        return value instanceof BMap
+                && ((BMap<?, ?>) value).getNativeData(IOConstants.BYTE_CHANNEL_NAME) instanceof Channel;
+    }
+
+    /**
+     * Returns a stream reading the content of a byte channel.
+     */
+    static InputStream getInputStream(BValue channel) throws SQLException {
+        try {
+            return ((Channel) ((BMap<?, ?>) channel).getNativeData(IOConstants.BYTE_CHANNEL_NAME)).getInputStream();
+        } catch (Exception e) {
+            throw new SQLException("cannot read the byte channel: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a readable byte channel over a stream, which is closed along with the channel.
+     */
+    static BMap<String, BValue> createByteChannel(Context context, InputStream stream) {
+        BMap<String, BValue> channel = BLangConnectorSPIUtil.createObject(context, IOConstants.IO_PACKAGE,
+                READABLE_BYTE_CHANNEL);
+        channel.addNativeData(IOConstants.BYTE_CHANNEL_NAME, new StreamChannel(new StreamByteChannel(stream)));
+        return channel;
+    }
+
+    /**
+     * Returns a stream of the UTF-8 encoding of the characters read from a reader.
+     */
+    static InputStream encode(Reader reader) {
+        return new EncodingInputStream(reader);
+    }
+
+    /**
+     * Byte channel reading from a stream.
+     */
+    private static class StreamByteChannel implements ByteChannel {
+
+        private final ReadableByteChannel channel;
+
+        StreamByteChannel(InputStream stream) {
+            this.channel = Channels.newChannel(stream);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Ballerina I/O channel over a {@link StreamByteChannel}.
+     */
+    private static class StreamChannel extends Channel {
+
+        StreamChannel(StreamByteChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        public void transfer(int position, int count, WritableByteChannel dstChannel) throws IOException {
+            throw new IOException("transferring the content of a large object is not supported");
+        }
+
+        @Override
+        public Channel getChannel() {
+            return this;
+        }
+
+        @Override
+        public boolean isSelectable() {
+            return false;
+        }
+    }
+
+    /**
+     * Stream encoding the characters of a reader as UTF-8 as they are read, holding a bounded number of characters
+     * at a time.
+     */
+    private static class EncodingInputStream extends InputStream {
+
+        private static final int BUFFER_SIZE = 8192;
+
+        private final Reader reader;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean endOfInput;
+        private boolean finished;
+
+        EncodingInputStream(Reader reader) {
+            this.reader = reader;
+            chars.flip();
+            bytes.flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (!bytes.hasRemaining()) {
+                if (finished) {
+                    return -1;
+                }
+                encode();
+            }
+            int count = Math.min(length, bytes.remaining());
+            bytes.get(buffer, offset, count);
+            return count;
+        }
+
+        /**
+         * Encodes the pending characters into the emptied byte buffer, reading more characters if needed.
+         */
+        private void encode() throws IOException {
+            if (!endOfInput) {
+                chars.compact();
+                endOfInput = reader.read(chars) < 0;
+                chars.flip();
+            }
+            bytes.clear();
+            encoder.encode(chars, bytes, endOfInput);
+            if (endOfInput && !chars.hasRemaining()) {
+                encoder.flush(bytes);
+                finished = true;
+            }
+            bytes.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
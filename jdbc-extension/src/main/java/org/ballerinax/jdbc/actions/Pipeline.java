@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.database.sql.actions.AbstractSQLAction;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BByteArray;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.Constants;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * {@code pipeline} is the action implementation of the JDBC client which executes a list of statements on a single
+ * connection, sending them to the database at once where the driver supports it, and returns the result of each.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "pipeline",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "statements", type = TypeKind.ARRAY, elementType = TypeKind.RECORD,
+                          structType = "PipelineStatement")
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.RECORD, structType = "PipelineResult"),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class Pipeline extends AbstractSQLAction {
+
+    private static final String SQL_QUERY = "sqlQuery";
+    private static final String PARAMETERS = "parameters";
+
+    @Override
+    public void execute(Context context) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        BRefValueArray statements = (BRefValueArray) context.getRefArgument(1);
+        try {
+            if (context.isInTransaction()) {
+                throw new SQLException("pipeline is not supported within a transaction");
+            }
+            if (statements.size() == 0) {
+                throw new SQLException("no statements given to the pipeline");
+            }
+            org.ballerinax.jdbc.datasource.Pipeline pipeline = new org.ballerinax.jdbc.datasource.Pipeline(datasource);
+            for (int i = 0; i < statements.size(); i++) {
+                addStatement(pipeline, (BMap<?, ?>) statements.get(i));
+            }
+            List<org.ballerinax.jdbc.datasource.Pipeline.Result> results = pipeline.execute();
+            BRefType[] resultValues = new BRefType[results.size()];
+            for (int i = 0; i < resultValues.length; i++) {
+                resultValues[i] = createResult(context, results.get(i));
+            }
+            BArrayType resultsType = new BArrayType(((BMap<?, ?>) resultValues[0]).getType());
+            context.setReturnValues(new BRefValueArray(resultValues, resultsType));
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.PIPELINE, this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addStatement(org.ballerinax.jdbc.datasource.Pipeline pipeline, BMap<?, ?> statement)
+            throws SQLException {
+        BMap<String, BValue> statementRecord = (BMap<String, BValue>) statement;
+        StatementParameters parameters = StatementParameters.of((BRefValueArray) statementRecord.get(PARAMETERS));
+        pipeline.add(statementRecord.get(SQL_QUERY).stringValue(), parameters.getValues(), parameters.getTypes());
+    }
+
+    private static BMap<String, BValue> createResult(Context context,
+                                                     org.ballerinax.jdbc.datasource.Pipeline.Result result) {
+        List<Object[]> rows = result.getRows();
+        BRefType[] rowValues = new BRefType[rows == null ? 0 : rows.size()];
+        for (int i = 0; i < rowValues.length; i++) {
+            BMap<String, BValue> row = new BMap<>();
+            Object[] fields = rows.get(i);
+            for (int j = 0; j < fields.length; j++) {
+                row.put(result.getColumns()[j], toBValue(fields[j]));
+            }
+            rowValues[i] = row;
+        }
+        return BLangConnectorSPIUtil.createBStruct(context.getProgramFile(), Constants.JDBC_PACKAGE_PATH,
+                Constants.PIPELINE_RESULT, result.getUpdateCount(),
+                new BRefValueArray(rowValues, new BArrayType(BTypes.typeMap)));
+    }
+
+    private static BValue toBValue(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            return new BInteger(((Number) value).longValue());
+        } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+            return new BFloat(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            return new BBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            return new BByteArray((byte[]) value);
+        }
+        return new BString(value.toString());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.StatementOptions;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * {@code select} is the SELECT action implementation of the JDBC client. In addition to the SQL connector select
+ * action, it allows the result to be streamed from the database by setting a fetch size. Outside transactions the query
+ * is executed on a replica, if the client has any, and its result is served from the result cache when enabled. Results
+ * loaded to memory are stored in columns when columnar tables are enabled. The query is cancelled once its query
+ * timeout expires.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "select",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "recordType", type = TypeKind.TYPEDESC),
+                @Argument(name = "loadToMemory", type = TypeKind.BOOLEAN),
+                @Argument(name = "fetchSize", type = TypeKind.INT),
+                @Argument(name = "queryTimeout", type = TypeKind.INT),
+                @Argument(name = "parameters", type = TypeKind.ARRAY, elementType = TypeKind.UNION,
+                          structType = "Param")
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.TABLE),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class Select extends org.ballerinalang.database.sql.actions.Select {
+
+    @Override
+    public void execute(Context context) {
+        StatementOptions options = new StatementOptions();
+        options.setFetchSize((int) context.getIntArgument(0));
+        options.setQueryTimeout((int) context.getIntArgument(1));
+        options.setReadOnly(!context.isInTransaction());
+        options.setInTransaction(context.isInTransaction());
+        options.setQuery(true);
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        options.setColumnar(context.getBooleanArgument(0) && datasource.isColumnarTables());
+        StatementOptions.set(options);
+        try {
+            if (options.isColumnar()) {
+                executeColumnar(context, datasource);
+            } else {
+                super.execute(context);
+            }
+        } finally {
+            StatementOptions.clear();
+        }
+    }
+
+    /**
+     * Executes the query of a select action loading its result to columns. The statements of the action load the
+     * result themselves, hence the SQL connector reads it as a result which is not loaded to memory.
+     */
+    private void executeColumnar(Context context, JDBCDatasource datasource) {
+        try {
+            executeQuery(context, datasource, context.getStringArgument(0),
+                    (BRefValueArray) context.getNullableRefArgument(2), getStructType(context, 1), false);
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+            SQLDatasourceUtils.handleErrorOnTransaction(context);
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        ActionExecution.execute(context, callback, ClientMetrics.Operation.SELECT, this::execute);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
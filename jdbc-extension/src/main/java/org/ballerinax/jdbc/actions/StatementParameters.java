@@ -0,0 +1,219 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BByteArray;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * The parameters of a statement which the JDBC client executes itself rather than through the SQL connector, converted
+ * from the {@code sql:Param} values of an action. Byte channels are converted to streams, so that their content is
+ * streamed to the database; for character types the content of the channel is decoded as UTF-8.
+ * <p>
+ * Only values which convert to the given SQL type without any loss are supported: scalars, byte arrays, decimals
+ * given as numbers or strings, and date and time types given as {@code time:Time} values or milliseconds since the
+ * epoch. Other values, such as arrays, are refused rather than bound as their string representation, so that callers
+ * which may execute the statement through the SQL connector instead can fall back to it.
+ *
+ * @since 0.982.1
+ */
+final class StatementParameters {
+
+    private static final String SQL_TYPE = "sqlType";
+    private static final String VALUE = "value";
+    private static final String DIRECTION = "direction";
+    private static final String DIRECTION_IN = "IN";
+    private static final String DATETIME = "DATETIME";
+    private static final String TIME = "time";
+
+    private final Object[] values;
+    private final int[] types;
+
+    private StatementParameters(Object[] values, int[] types) {
+        this.values = values;
+        this.types = types;
+    }
+
+    /**
+     * Converts the parameters of an action. Only parameters of the {@code IN} direction are supported.
+     *
+     * @param parameters the {@code sql:Param} values, or {@code null} if there are none
+     * @return the converted parameters
+     * @throws SQLException if a parameter is not of the {@code IN} direction, or its value is not supported
+     */
+    @SuppressWarnings("unchecked")
+    static StatementParameters of(BRefValueArray parameters) throws SQLException {
+        int parameterCount = parameters == null ? 0 : (int) parameters.size();
+        Object[] values = new Object[parameterCount];
+        int[] types = new int[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            BValue parameter = parameters.get(i);
+            if (isParamRecord(parameter)) {
+                BMap<String, BValue> parameterRecord = (BMap<String, BValue>) parameter;
+                BValue direction = parameterRecord.get(DIRECTION);
+                if (direction != null && !DIRECTION_IN.equals(direction.stringValue())) {
+                    throw new SQLException("only IN parameters are supported");
+                }
+                types[i] = toSQLType(parameterRecord.get(SQL_TYPE).stringValue());
+                values[i] = toJavaValue(parameterRecord.get(VALUE), types[i], i);
+            } else {
+                types[i] = Types.OTHER;
+                values[i] = toJavaValue(parameter, types[i], i);
+            }
+        }
+        return new StatementParameters(values, types);
+    }
+
+    /**
+     * Returns whether the value of any of the given parameters is a byte channel.
+     */
+    @SuppressWarnings("unchecked")
+    static boolean hasChannels(BRefValueArray parameters) {
+        for (int i = 0; parameters != null && i < parameters.size(); i++) {
+            BValue parameter = parameters.get(i);
+            if (LobChannels.isByteChannel(parameter) || parameter instanceof BMap
+                    && LobChannels.isByteChannel(((BMap<String, BValue>) parameter).get(VALUE))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Object[] getValues() {
+        return values;
+    }
+
+    int[] getTypes() {
+        return types;
+    }
+
+    private static int toSQLType(String sqlType) throws SQLException {
+        if (DATETIME.equals(sqlType)) {
+            return Types.TIMESTAMP;
+        }
+        try {
+            return JDBCType.valueOf(sqlType).getVendorTypeNumber();
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("unsupported SQL type: " + sqlType);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isParamRecord(BValue parameter) {
+        return parameter instanceof BMap && !LobChannels.isByteChannel(parameter)
+                && ((BMap<String, BValue>) parameter).get(SQL_TYPE) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toJavaValue(BValue value, int type, int index) throws SQLException {
+        if (value == null) {
+            return null;
+        } else if (LobChannels.isByteChannel(value)) {
+            return isCharacterType(type) ? new InputStreamReader(LobChannels.getInputStream(value),
+                    StandardCharsets.UTF_8) : LobChannels.getInputStream(value);
+        } else if (isDateTimeType(type)) {
+            if (value instanceof BInteger) {
+                return toDateTime(((BInteger) value).intValue(), type);
+            } else if (value instanceof BMap && ((BMap<String, BValue>) value).get(TIME) instanceof BInteger) {
+                return toDateTime(((BInteger) ((BMap<String, BValue>) value).get(TIME)).intValue(), type);
+            }
+        } else if (type == Types.DECIMAL || type == Types.NUMERIC) {
+            if (value instanceof BInteger) {
+                return BigDecimal.valueOf(((BInteger) value).intValue());
+            } else if (value instanceof BFloat) {
+                return BigDecimal.valueOf(((BFloat) value).floatValue());
+            } else if (value instanceof BString) {
+                try {
+                    return new BigDecimal(value.stringValue());
+                } catch (NumberFormatException e) {
+                    throw new SQLException("invalid decimal value of parameter " + (index + 1) + ": "
+                            + value.stringValue());
+                }
+            }
+        } else if (value instanceof BInteger) {
+            return ((BInteger) value).intValue();
+        } else if (value instanceof BFloat) {
+            return ((BFloat) value).floatValue();
+        } else if (value instanceof BBoolean) {
+            return ((BBoolean) value).booleanValue();
+        } else if (value instanceof BByteArray) {
+            return ((BByteArray) value).getBytes();
+        } else if (value instanceof BString && (type == Types.OTHER || isCharacterType(type))) {
+            return value.stringValue();
+        }
+        throw new SQLException("unsupported value of parameter " + (index + 1) + " for SQL type "
+                + (type == Types.OTHER ? "OTHER" : JDBCType.valueOf(type).getName()) + ": " + value.getType());
+    }
+
+    private static Object toDateTime(long time, int type) {
+        switch (type) {
+        case Types.DATE:
+            return new Date(time);
+        case Types.TIME:
+        case Types.TIME_WITH_TIMEZONE:
+            return new Time(time);
+        default:
+            return new Timestamp(time);
+        }
+    }
+
+    private static boolean isDateTimeType(int type) {
+        switch (type) {
+        case Types.DATE:
+        case Types.TIME:
+        case Types.TIME_WITH_TIMEZONE:
+        case Types.TIMESTAMP:
+        case Types.TIMESTAMP_WITH_TIMEZONE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isCharacterType(int type) {
+        switch (type) {
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+        case Types.CLOB:
+        case Types.NCLOB:
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.datasource.ClientMetrics;
+import org.ballerinax.jdbc.datasource.JDBCDatasource;
+import org.ballerinax.jdbc.datasource.Pipeline;
+import org.ballerinax.jdbc.datasource.StatementOptions;
+import org.ballerinax.jdbc.datasource.WriteCoalescer;
+
+import java.sql.SQLException;
+
+import static org.ballerinalang.database.sql.Constants.SQL_CLIENT;
+
+/**
+ * {@code update} is the UPDATE action implementation of the JDBC client. Parameters may be given as byte channels, of
+ * which the content is streamed to the database; such updates are executed by the JDBC client itself and support
+ * only {@code IN} parameters outside transactions. The statement is cancelled once its query timeout expires.
+ * Outside transactions, single row inserts without a query timeout of their own are coalesced with the concurrent
+ * inserts of the same statement by the {@link WriteCoalescer} of the client, if it has one. The calling worker is
+ * resumed once the batch of the insert is executed, without holding a thread meanwhile.
+ *
+ * @since 0.982.1
+ */
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "update",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "CallerActions", structPackage = "ballerinax/jdbc"),
+        args = {
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "queryTimeout", type = TypeKind.INT),
+                @Argument(name = "parameters", type = TypeKind.ARRAY, elementType = TypeKind.UNION,
+                          structType = "Param")
+        },
+        returnType = {
+                @ReturnType(type = TypeKind.INT),
+                @ReturnType(type = TypeKind.RECORD, structType = "error", structPackage = "ballerina/builtin")
+        }
+)
+public class Update extends org.ballerinalang.database.sql.actions.Update {
+
+    @Override
+    public void execute(Context context) {
+        StatementOptions options = new StatementOptions();
+        options.setQueryTimeout((int) context.getIntArgument(0));
+        StatementOptions.set(options);
+        try {
+            execute(context, (BRefValueArray) context.getRefArgument(1));
+        } finally {
+            StatementOptions.clear();
+        }
+    }
+
+    private void execute(Context context, BRefValueArray parameters) {
+        if (!StatementParameters.hasChannels(parameters)) {
+            super.execute(context);
+            return;
+        }
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        try {
+            if (context.isInTransaction()) {
+                throw new SQLException("parameters cannot be given as channels within a transaction");
+            }
+            StatementParameters statementParameters = StatementParameters.of(parameters);
+            Pipeline pipeline = new Pipeline(datasource);
+            pipeline.add(context.getStringArgument(0), statementParameters.getValues(), statementParameters.getTypes());
+            context.setReturnValues(new BInteger(pipeline.execute().get(0).getUpdateCount()));
+        } catch (Throwable e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        if (!coalesce(context, callback)) {
+            ActionExecution.execute(context, callback, ClientMetrics.Operation.UPDATE, this::execute);
+        }
+    }
+
+    /**
+     * Hands the update over to the write coalescer of the client. Returns {@code false} if the update is not
+     * coalesced, such as when it is not a single row insert or has parameters other than {@code IN} parameters.
+     */
+    private static boolean coalesce(Context context, CallableUnitCallback callback) {
+        JDBCDatasource datasource = (JDBCDatasource) ((BMap<?, ?>) context.getRefArgument(0))
+                .getNativeData(SQL_CLIENT);
+        WriteCoalescer coalescer = datasource.getWriteCoalescer();
+        BRefValueArray parameters = (BRefValueArray) context.getRefArgument(1);
+        if (coalescer == null || context.isInTransaction() || context.getIntArgument(0) != 0
+                || !WriteCoalescer.isCoalesced(context.getStringArgument(0))
+                || StatementParameters.hasChannels(parameters)) {
+            return false;
+        }
+        StatementParameters statementParameters;
+        try {
+            statementParameters = StatementParameters.of(parameters);
+        } catch (SQLException e) {
+            return false;
+        }
+        long startTime = System.nanoTime();
+        coalescer.add(context.getStringArgument(0), statementParameters.getValues(), statementParameters.getTypes(),
+                (updateCount, error) -> {
+                    datasource.getMetrics().getLatency(ClientMetrics.Operation.UPDATE)
+                            .record(System.nanoTime() - startTime);
+                    context.setReturnValues(error == null ? new BInteger(updateCount)
+                            : SQLDatasourceUtils.getSQLConnectorError(context, error));
+                    callback.notifySuccess();
+                });
+        return true;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded pool of workers on which the actions of a JDBC client are executed, so that the Ballerina scheduler threads
+ * are not blocked while the database is being accessed. With virtual threads each action runs on a thread of its own
+ * instead, and the number of concurrent actions is bounded by the {@link AdmissionController} of the client, if any.
+ *
+ * @since 0.982.1
+ */
+public class ActionExecutor implements Executor {
+
+    private static final String THREAD_NAME_PREFIX = "jdbc-worker-";
+
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor workerPool;
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final LongAccumulator maxWaitTime = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Creates an executor with the given number of workers.
+     *
+     * @param poolSize  number of workers
+     * @param queueSize number of actions which may wait for a worker, unbounded if 0
+     */
+    ActionExecutor(int poolSize, int queueSize) {
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize)
+                : new LinkedBlockingQueue<>();
+        workerPool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, queue,
+                createPlatformThreadFactory(), (task, pool) -> {
+                    rejectedTasks.increment();
+                    throw new RejectedExecutionException(pool.isShutdown() ? "the JDBC client is stopped"
+                            : "too many pending database actions, the queue of " + queueSize + " actions is full");
+                });
+        executor = workerPool;
+    }
+
+    private ActionExecutor(ExecutorService threadPerTaskExecutor) {
+        workerPool = null;
+        executor = threadPerTaskExecutor;
+    }
+
+    /**
+     * Returns an executor which runs each action on a virtual thread of its own, or {@code null} if the JVM does not
+     * support virtual threads.
+     */
+    static ActionExecutor createVirtualThreadExecutor() {
+        ThreadFactory threadFactory = createVirtualThreadFactory();
+        if (threadFactory == null) {
+            return null;
+        }
+        try {
+            return new ActionExecutor((ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Executes the given action on a worker, and then the completion handler with the error the action failed with,
+     * if any.
+     *
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    public void execute(Runnable action, Consumer<Throwable> completionHandler) {
+        long submitTime = System.nanoTime();
+        Runnable task = () -> {
+            long waitTime = System.nanoTime() - submitTime;
+            startedTasks.increment();
+            totalWaitTime.add(waitTime);
+            maxWaitTime.accumulate(waitTime);
+            Throwable error = null;
+            try {
+                action.run();
+            } catch (Throwable e) {
+                error = e;
+            }
+            completedTasks.increment();
+            completionHandler.accept(error);
+        };
+        if (workerPool != null) {
+            workerPool.execute(task);
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // A thread per task executor only rejects actions once it is shut down
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("the JDBC client is stopped", e);
+        }
+    }
+
+    /**
+     * Executes the given task on a worker, which handles the errors of the task itself.
+     *
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(task, error -> { });
+    }
+
+    public int getQueueDepth() {
+        return workerPool == null ? 0 : workerPool.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return workerPool == null ? (int) (startedTasks.sum() - completedTasks.sum()) : workerPool.getActiveCount();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    /**
+     * Returns the average time the actions waited for a worker, in milliseconds.
+     */
+    public double getAverageWaitTime() {
+        long started = startedTasks.sum();
+        return started == 0 ? 0 : totalWaitTime.sum() / (started * 1_000_000.0);
+    }
+
+    /**
+     * Returns the longest time an action waited for a worker, in milliseconds.
+     */
+    public double getMaxWaitTime() {
+        return maxWaitTime.get() / 1_000_000.0;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory createPlatformThreadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns a factory of virtual threads through reflection, since the extension is built for Java 8, or
+     * {@code null} if the JVM does not support them.
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = builderType.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, THREAD_NAME_PREFIX, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Adapts the maximum size of the connection pool of a datasource to the load, between configured bounds. The limit
+ * starts at the upper bound and is adjusted every second in an additive increase, multiplicative decrease fashion from
+ * the connection acquire time, the connection hold time and the pool utilization observed since the last adjustment.
+ * <ul>
+ * <li>When the mean hold time exceeds a tolerated multiple of its baseline, the database is taken to be saturated and
+ * the limit is decreased in proportion to the latency gradient, since more connections would only queue on it.</li>
+ * <li>Otherwise, when callers waited for connections longer than the target while nearly all the connections were in
+ * use, the limit is increased by one.</li>
+ * <li>When less than half of the connections were in use and no caller is waiting, the limit is decreased by one.</li>
+ * </ul>
+ * The baseline is the lowest mean hold time observed, which drifts upwards slowly so that it follows changes of the
+ * workload.
+ *
+ * @since 0.982.1
+ */
+class AdaptivePoolSizer {
+
+    private static final long INTERVAL_MILLIS = 1000;
+    private static final double TOLERANCE = 2.0;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final double HIGH_UTILIZATION = 0.9;
+    private static final double LOW_UTILIZATION = 0.5;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-pool-sizer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ClientMetrics metrics;
+    private final IntConsumer resizer;
+    private final int minimumSize;
+    private final int maximumSize;
+    private final long targetAcquireNanos;
+    private int limit;
+    private double baselineHoldTime = Double.NaN;
+    private long lastAdjustmentTime;
+    private long lastAcquireCount;
+    private long lastAcquireTime;
+    private long lastHoldCount;
+    private long lastHoldTime;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Creates a sizer of a connection pool.
+     *
+     * @param metrics           the metrics of the datasource, from which the acquire and hold times are observed
+     * @param resizer           sets the maximum size of the connection pool
+     * @param minimumSize       the lower bound of the limit
+     * @param maximumSize       the upper bound of the limit
+     * @param targetAcquireTime the acquire time in milliseconds above which the limit is increased
+     */
+    AdaptivePoolSizer(ClientMetrics metrics, IntConsumer resizer, int minimumSize, int maximumSize,
+                      long targetAcquireTime) {
+        this.metrics = metrics;
+        this.resizer = resizer;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.minimumSize = Math.max(1, Math.min(minimumSize, this.maximumSize));
+        this.targetAcquireNanos = TimeUnit.MILLISECONDS.toNanos(targetAcquireTime);
+        this.limit = this.maximumSize;
+    }
+
+    synchronized void start() {
+        lastAdjustmentTime = System.nanoTime();
+        lastAcquireCount = metrics.getAcquireTime().getCount();
+        lastAcquireTime = metrics.getAcquireTime().getTotalTime();
+        lastHoldCount = metrics.getHoldTime().getCount();
+        lastHoldTime = metrics.getHoldTime().getTotalTime();
+        metrics.setPoolSizeLimit(limit);
+        task = SCHEDULER.scheduleWithFixedDelay(() -> {
+            try {
+                adjust();
+            } catch (RuntimeException e) {
+                // The pool keeps its size until the next adjustment
+            }
+        }, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Adjusts the limit from the observations since the last adjustment.
+     */
+    synchronized void adjust() {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastAdjustmentTime);
+        long acquireCount = metrics.getAcquireTime().getCount();
+        long acquireTime = metrics.getAcquireTime().getTotalTime();
+        long holdCount = metrics.getHoldTime().getCount();
+        long holdTime = metrics.getHoldTime().getTotalTime();
+        double meanAcquireTime = acquireCount > lastAcquireCount
+                ? (double) (acquireTime - lastAcquireTime) / (acquireCount - lastAcquireCount) : 0;
+        double meanHoldTime = holdCount > lastHoldCount
+                ? (double) (holdTime - lastHoldTime) / (holdCount - lastHoldCount) : Double.NaN;
+        // The mean number of connections in use over the interval, by Little's law
+        double connectionsInUse = (double) (holdTime - lastHoldTime) / elapsed;
+        lastAdjustmentTime = now;
+        lastAcquireCount = acquireCount;
+        lastAcquireTime = acquireTime;
+        lastHoldCount = holdCount;
+        lastHoldTime = holdTime;
+
+        if (!Double.isNaN(meanHoldTime)) {
+            baselineHoldTime = Double.isNaN(baselineHoldTime) ? meanHoldTime
+                    : Math.min(meanHoldTime, baselineHoldTime * (1 + BASELINE_DRIFT));
+        }
+        double gradient = Double.isNaN(meanHoldTime) ? 1
+                : Math.max(MIN_GRADIENT, Math.min(1, TOLERANCE * baselineHoldTime / meanHoldTime));
+        boolean waiting = metrics.getPendingConnections() > 0;
+        int newLimit = limit;
+        if (gradient < 1) {
+            newLimit = (int) (limit * gradient);
+        } else if ((meanAcquireTime > targetAcquireNanos || waiting)
+                && connectionsInUse >= limit * HIGH_UTILIZATION) {
+            newLimit = limit + 1;
+        } else if (connectionsInUse < limit * LOW_UTILIZATION && !waiting) {
+            newLimit = limit - 1;
+        }
+        newLimit = Math.max(minimumSize, Math.min(maximumSize, newLimit));
+        if (newLimit != limit) {
+            resizer.accept(newLimit);
+            limit = newLimit;
+            metrics.setPoolSizeLimit(newLimit);
+        }
+    }
+}
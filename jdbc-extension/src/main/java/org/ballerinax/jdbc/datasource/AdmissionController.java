@@ -0,0 +1,201 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Limits the number of actions of a JDBC client executed at once. Actions beyond the limit wait in a bounded queue
+ * until one completes or their deadline passes, and are rejected straight away once the queue is full, so that callers
+ * shed load in milliseconds instead of piling onto the connection pool until its connection timeout. Waiting actions
+ * do not hold a thread: they are handed over to a dispatcher once an action releases its admission, or rejected by a
+ * shared timer. The dispatcher is the worker pool of the client, or else a pool of the controller with as many threads
+ * as actions may be executed at once, which are stopped once idle.
+ *
+ * @since 0.982.1
+ */
+public class AdmissionController {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-admission-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int maxConcurrentActions;
+    private final int maxQueuedActions;
+    private final long timeoutNanos;
+    private final Executor dispatcher;
+    private final ThreadPoolExecutor ownDispatcher;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final LongAdder rejectedActions = new LongAdder();
+    private int concurrentActions;
+
+    /**
+     * Creates an admission controller.
+     *
+     * @param maxConcurrentActions number of actions executed at once
+     * @param maxQueuedActions     number of actions which may wait for admission
+     * @param timeout              time in milliseconds an action waits for admission before it is rejected
+     * @param dispatcher           executor running the queued actions once admitted, or {@code null} if the
+     *                             controller runs them on a pool of its own
+     */
+    AdmissionController(int maxConcurrentActions, int maxQueuedActions, long timeout, Executor dispatcher) {
+        this.maxConcurrentActions = maxConcurrentActions;
+        this.maxQueuedActions = Math.max(0, maxQueuedActions);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeout));
+        this.ownDispatcher = dispatcher == null ? createDispatcher(maxConcurrentActions) : null;
+        this.dispatcher = dispatcher == null ? ownDispatcher : dispatcher;
+    }
+
+    /**
+     * Admits an action, or queues it if the limit is reached. An action admitted straight away is left to the caller,
+     * while a queued action is run on the dispatcher once admitted. Each admitted action must be followed by a call to
+     * {@link #release()} once it completes.
+     *
+     * @param queued   the action, run on the dispatcher if it is admitted after waiting
+     * @param rejected run with the cause if the queue is full or the action was not admitted before its deadline
+     * @return {@code true} if the action is admitted straight away, in which case the caller runs it
+     */
+    public boolean acquire(Runnable queued, Consumer<RejectedExecutionException> rejected) {
+        RejectedExecutionException rejection = null;
+        synchronized (this) {
+            if (concurrentActions < maxConcurrentActions && waiters.isEmpty()) {
+                concurrentActions++;
+            } else if (waiters.size() >= maxQueuedActions) {
+                rejection = new RejectedExecutionException("too many concurrent database actions, the limit of "
+                        + maxConcurrentActions + " actions is reached and " + maxQueuedActions
+                        + " actions are queued");
+            } else if (timeoutNanos == 0) {
+                rejection = createTimeoutRejection();
+            } else {
+                Waiter waiter = new Waiter(queued, rejected);
+                waiters.add(waiter);
+                waiter.timeout = TIMER.schedule(() -> expire(waiter), timeoutNanos, TimeUnit.NANOSECONDS);
+                return false;
+            }
+        }
+        if (rejection == null) {
+            return true;
+        }
+        rejectedActions.increment();
+        rejected.accept(rejection);
+        return false;
+    }
+
+    /**
+     * Releases the admission of an action, handing it over to the longest waiting action, if any, which is run on the
+     * dispatcher rather than on the releasing thread.
+     */
+    public void release() {
+        while (true) {
+            Waiter waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    concurrentActions--;
+                    return;
+                }
+            }
+            waiter.timeout.cancel(false);
+            try {
+                dispatcher.execute(waiter.admitted);
+                return;
+            } catch (RejectedExecutionException e) {
+                // The action cannot be run, hence the admission passes on to the next waiting action
+                rejectedActions.increment();
+                waiter.rejected.accept(e);
+            }
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+        }
+        rejectedActions.increment();
+        waiter.rejected.accept(createTimeoutRejection());
+    }
+
+    private RejectedExecutionException createTimeoutRejection() {
+        return new RejectedExecutionException("too many concurrent database actions, the action was not admitted "
+                + "within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+    }
+
+    /**
+     * Returns the number of actions being executed.
+     */
+    public synchronized int getConcurrentActions() {
+        return concurrentActions;
+    }
+
+    public synchronized int getQueuedActions() {
+        return waiters.size();
+    }
+
+    public long getRejectedActions() {
+        return rejectedActions.sum();
+    }
+
+    void shutdown() {
+        if (ownDispatcher != null) {
+            ownDispatcher.shutdown();
+        }
+    }
+
+    private static ThreadPoolExecutor createDispatcher(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-admission-dispatcher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        dispatcher.allowCoreThreadTimeOut(true);
+        return dispatcher;
+    }
+
+    /**
+     * An action waiting for admission.
+     */
+    private static class Waiter {
+
+        private final Runnable admitted;
+        private final Consumer<RejectedExecutionException> rejected;
+        private ScheduledFuture<?> timeout;
+
+        private Waiter(Runnable admitted, Consumer<RejectedExecutionException> rejected) {
+            this.admitted = admitted;
+            this.rejected = rejected;
+        }
+    }
+}
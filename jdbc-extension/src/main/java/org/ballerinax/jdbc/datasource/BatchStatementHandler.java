@@ -0,0 +1,240 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executes the batch of a statement in chunks of a bounded number of rows, optionally rewriting single row inserts
+ * into multi row inserts. Outside transactions each chunk is committed on its own, and a failed chunk is rolled back
+ * and reported with {@link Statement#EXECUTE_FAILED} counts, without affecting the other chunks.
+ *
+ * @since 0.982.1
+ */
+class BatchStatementHandler implements InvocationHandler {
+
+    /**
+     * Upper bound of the parameters of a rewritten insert, kept below the 2100 parameter limit of SQL Server which is
+     * the lowest among the commonly used databases.
+     */
+    private static final int MAX_REWRITTEN_PARAMETERS = 2000;
+
+    private final PreparedStatement statement;
+    private final Connection connection;
+    private final ConnectionHandler connectionHandler;
+    private final int chunkSize;
+    private final boolean commitChunks;
+    private final MultiRowInsert insert;
+    private final Map<Integer, Object[]> row = new TreeMap<>();
+    private final List<List<Object[]>> rows = new ArrayList<>();
+    private int[] updateCounts = new int[0];
+    private int updateCountSize;
+    private int pendingRowCount;
+    private SQLException failure;
+
+    private BatchStatementHandler(PreparedStatement statement, Connection connection,
+                                  ConnectionHandler connectionHandler, int chunkSize, boolean commitChunks,
+                                  MultiRowInsert insert) {
+        this.statement = statement;
+        this.connection = connection;
+        this.connectionHandler = connectionHandler;
+        this.chunkSize = chunkSize;
+        this.commitChunks = commitChunks;
+        this.insert = insert;
+    }
+
+    static PreparedStatement wrap(PreparedStatement statement, Connection connection,
+                                  ConnectionHandler connectionHandler, String sql, int chunkSize,
+                                  boolean rewriteInserts, boolean inTransaction) {
+        MultiRowInsert insert = rewriteInserts ? MultiRowInsert.parse(sql) : null;
+        return (PreparedStatement) Proxy.newProxyInstance(BatchStatementHandler.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new BatchStatementHandler(statement, connection,
+                        connectionHandler, chunkSize, !inTransaction, insert));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "addBatch":
+            if (args == null) {
+                addBatch();
+                return null;
+            }
+            break;
+        case "executeBatch":
+            return executeBatch();
+        case "clearBatch":
+            clearBatch();
+            return null;
+        case "clearParameters":
+            row.clear();
+            break;
+        default:
+            if (insert != null && name.startsWith("set") && args != null && args.length > 1
+                    && args[0] instanceof Integer) {
+                // The parameters are replayed on the rewritten statement when the chunk is executed. As with JDBC
+                // batches, a parameter keeps its value for the following rows until it is set again
+                row.put((Integer) args[0], new Object[]{method, args});
+                return null;
+            }
+        }
+        return invoke(statement, method, args);
+    }
+
+    private void addBatch() throws SQLException {
+        if (insert != null) {
+            rows.add(new ArrayList<>(row.values()));
+        } else {
+            statement.addBatch();
+        }
+        if (++pendingRowCount == chunkSize) {
+            executeChunk();
+        }
+    }
+
+    private int[] executeBatch() throws SQLException {
+        executeChunk();
+        int[] result = Arrays.copyOf(updateCounts, updateCountSize);
+        SQLException cause = failure;
+        clearBatch();
+        if (cause != null) {
+            throw new BatchUpdateException(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), result,
+                    cause);
+        }
+        return result;
+    }
+
+    private void clearBatch() throws SQLException {
+        statement.clearBatch();
+        rows.clear();
+        pendingRowCount = 0;
+        updateCountSize = 0;
+        failure = null;
+    }
+
+    private void executeChunk() throws SQLException {
+        if (pendingRowCount == 0) {
+            return;
+        }
+        int[] chunkCounts;
+        try {
+            chunkCounts = insert != null ? executeRewrittenChunk() : statement.executeBatch();
+            if (commitChunks && !connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            chunkCounts = new int[pendingRowCount];
+            Arrays.fill(chunkCounts, Statement.EXECUTE_FAILED);
+            if (commitChunks) {
+                try {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                    }
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+            } else if (e instanceof BatchUpdateException && ((BatchUpdateException) e).getUpdateCounts() != null) {
+                int[] counts = ((BatchUpdateException) e).getUpdateCounts();
+                System.arraycopy(counts, 0, chunkCounts, 0, Math.min(counts.length, chunkCounts.length));
+            }
+            statement.clearBatch();
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        } finally {
+            rows.clear();
+        }
+        appendUpdateCounts(chunkCounts);
+        pendingRowCount = 0;
+    }
+
+    /**
+     * Inserts the rows of the chunk using as few multi row inserts as the parameter limit allows. The drivers do not
+     * report the count of the individual rows of a multi row insert, hence they are reported as
+     * {@link Statement#SUCCESS_NO_INFO}.
+     */
+    private int[] executeRewrittenChunk() throws SQLException {
+        int parameterCount = insert.getParameterCount();
+        int rowsPerStatement = Math.max(1, MAX_REWRITTEN_PARAMETERS / parameterCount);
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            int to = Math.min(rows.size(), from + rowsPerStatement);
+            try (PreparedStatement rewritten = connectionHandler.prepareStatement(insert.getSQL(to - from))) {
+                for (int i = from; i < to; i++) {
+                    int offset = (i - from) * parameterCount;
+                    for (Object[] invocation : rows.get(i)) {
+                        Object[] args = ((Object[]) invocation[1]).clone();
+                        args[0] = (Integer) args[0] + offset;
+                        invoke(rewritten, (Method) invocation[0], args);
+                    }
+                }
+                rewritten.executeUpdate();
+            }
+        }
+        int[] counts = new int[rows.size()];
+        Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+        return counts;
+    }
+
+    private void appendUpdateCounts(int[] counts) {
+        if (updateCountSize + counts.length > updateCounts.length) {
+            updateCounts = Arrays.copyOf(updateCounts, Math.max(updateCounts.length * 2, updateCountSize
+                    + counts.length));
+        }
+        System.arraycopy(counts, 0, updateCounts, updateCountSize, counts.length);
+        updateCountSize += counts.length;
+    }
+
+    private static Object invoke(PreparedStatement target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+}
@@ -0,0 +1,566 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Loads rows into a table through the bulk load path of the database: {@code COPY FROM STDIN} for PostgreSQL and
+ * {@code LOAD DATA LOCAL INFILE} for MySQL. Other databases, and drivers of which the bulk load API is not available,
+ * are loaded with batched inserts. The rows are streamed to the database and are loaded atomically.
+ *
+ * @since 0.982.1
+ */
+public class BulkLoader {
+
+    private static final String MYSQL = "mysql";
+    private static final String POSTGRESQL = "postgresql";
+    private static final String MYSQL_LOCAL_INFILE = "allowloadlocalinfile=true";
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+    private static final int BATCH_SIZE = 1000;
+    static final Pattern IDENTIFIER = Pattern.compile("(?:[A-Za-z_][\\w$]*|\"[^\"]+\"|`[^`]+`)"
+            + "(?:\\.(?:[A-Za-z_][\\w$]*|\"[^\"]+\"|`[^`]+`))?");
+
+    private final JDBCDatasource datasource;
+    private final String table;
+    private final List<String> columns;
+
+    /**
+     * Creates a loader of the given table.
+     *
+     * @param datasource the datasource of the client
+     * @param table      name of the table, optionally qualified by the schema
+     * @param columns    the columns to which the fields of the rows are loaded, or {@code null} for all the columns
+     *                   of the table in their order
+     */
+    public BulkLoader(JDBCDatasource datasource, String table, List<String> columns) throws SQLException {
+        if (!IDENTIFIER.matcher(table).matches()) {
+            throw new SQLException("invalid table name: " + table);
+        }
+        if (columns != null) {
+            for (String column : columns) {
+                if (!IDENTIFIER.matcher(column).matches()) {
+                    throw new SQLException("invalid column name: " + column);
+                }
+            }
+        }
+        this.datasource = datasource;
+        this.table = table;
+        this.columns = columns;
+    }
+
+    /**
+     * Loads the given rows, of which the fields are {@link Long}, {@link Double}, {@link Boolean}, {@link String},
+     * {@code byte[]} or {@code null} values.
+     *
+     * @return the number of rows loaded
+     */
+    public long load(Iterator<Object[]> rows) throws SQLException {
+        return load(new RowSource(rows));
+    }
+
+    /**
+     * Loads the rows of the given UTF-8 encoded CSV content, in which fields are separated by commas and may be
+     * enclosed in double quotes, and unquoted empty fields are null. The content is streamed to the database as it is
+     * read, and is passed as is to PostgreSQL. The stream is not closed.
+     *
+     * @return the number of rows loaded
+     */
+    public long loadCsv(InputStream csv) throws SQLException {
+        return load(new CsvSource(csv));
+    }
+
+    private long load(Source source) throws SQLException {
+        Set<String> tables = QueryTables.written("INSERT INTO " + table);
+        datasource.invalidateResultCache(tables);
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                long count = load(connection, source);
+                connection.commit();
+                return count;
+            } catch (UncheckedIOException e) {
+                connection.rollback();
+                throw new SQLException("cannot read the CSV content: " + e.getCause().getMessage(), e.getCause());
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } finally {
+            datasource.invalidateResultCache(tables);
+        }
+    }
+
+    private long load(Connection connection, Source source) throws SQLException {
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        if (isDatabase(POSTGRESQL)) {
+            Object copyManager = getCopyManager(physicalConnection);
+            if (copyManager != null) {
+                return copy(copyManager, source);
+            }
+        } else if (isDatabase(MYSQL) && isLocalInfileAllowed(connection) && source.isText()) {
+            try (Statement statement = physicalConnection.createStatement()) {
+                Method setInputStream = findMethod(statement, "setLocalInfileInputStream", InputStream.class);
+                if (setInputStream != null) {
+                    return loadData(statement, setInputStream, source);
+                }
+            }
+        }
+        return insert(connection, source);
+    }
+
+    private long copy(Object copyManager, Source source) throws SQLException {
+        String sql = "COPY " + table + getColumnList() + " FROM STDIN WITH (FORMAT csv)";
+        Method copyIn = findMethod(copyManager, "copyIn", String.class, InputStream.class);
+        return (Long) invoke(copyIn, copyManager, sql, source.toCsv(""));
+    }
+
+    private long loadData(Statement statement, Method setInputStream, Source source) throws SQLException {
+        // Without an escape character, fields which are not enclosed in quotes and read NULL are loaded as NULL
+        String sql = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table + " CHARACTER SET utf8mb4 FIELDS TERMINATED"
+                + " BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' LINES TERMINATED BY '\\n'" + getColumnList();
+        invoke(setInputStream, statement, source.toCsv("NULL"));
+        try {
+            return statement.executeUpdate(sql);
+        } finally {
+            invoke(setInputStream, statement, (Object) null);
+        }
+    }
+
+    private long insert(Connection connection, Source source) throws SQLException {
+        List<String> insertColumns = columns != null ? columns : getTableColumns(connection);
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                .append(String.join(", ", insertColumns)).append(") VALUES (");
+        for (int i = 0; i < insertColumns.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        long count = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int[] parameterTypes = getParameterTypes(statement, insertColumns.size());
+            int batchSize = 0;
+            Iterator<Object[]> rows = source.rows();
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (row.length != parameterTypes.length) {
+                    throw new SQLException("expected " + parameterTypes.length + " fields but found " + row.length
+                            + " in row " + (count + batchSize + 1));
+                }
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        statement.setNull(i + 1, parameterTypes[i]);
+                    } else {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                }
+                statement.addBatch();
+                if (++batchSize == BATCH_SIZE) {
+                    statement.executeBatch();
+                    count += batchSize;
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+                count += batchSize;
+            }
+        }
+        return count;
+    }
+
+    private List<String> getTableColumns(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            List<String> tableColumns = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                tableColumns.add(metaData.getColumnName(i));
+            }
+            return tableColumns;
+        }
+    }
+
+    private static int[] getParameterTypes(PreparedStatement statement, int parameterCount) {
+        int[] types = new int[parameterCount];
+        try {
+            ParameterMetaData metaData = statement.getParameterMetaData();
+            for (int i = 0; i < parameterCount; i++) {
+                types[i] = metaData.getParameterType(i + 1);
+            }
+        } catch (SQLException e) {
+            // The driver does not describe the parameters
+            Arrays.fill(types, Types.VARCHAR);
+        }
+        return types;
+    }
+
+    private String getColumnList() {
+        return columns == null ? "" : " (" + String.join(", ", columns) + ")";
+    }
+
+    private boolean isDatabase(String name) {
+        String productName = datasource.getDatabaseProductName();
+        return productName != null && productName.toLowerCase(Locale.ENGLISH).contains(name);
+    }
+
+    private static boolean isLocalInfileAllowed(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        return url != null && url.toLowerCase(Locale.ENGLISH).contains(MYSQL_LOCAL_INFILE);
+    }
+
+    /**
+     * Returns the {@code CopyManager} of a PostgreSQL connection, or {@code null} if the driver does not provide one.
+     */
+    private static Object getCopyManager(Connection physicalConnection) throws SQLException {
+        try {
+            Class<?> pgConnection = Class.forName(PG_CONNECTION, false,
+                    physicalConnection.getClass().getClassLoader());
+            if (!physicalConnection.isWrapperFor(pgConnection)) {
+                return null;
+            }
+            return invoke(pgConnection.getMethod("getCopyAPI"), physicalConnection.unwrap(pgConnection));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Object target, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = target.getClass().getMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Rows to be loaded, which are read either as CSV content or one by one.
+     */
+    private interface Source {
+
+        /**
+         * Returns the rows as CSV content with LF line separators, in which string fields are enclosed in quotes. CSV
+         * content given as is, which may have CRLF line separators, is returned as is if its unquoted empty fields
+         * are to represent null.
+         *
+         * @param nullValue the unquoted field value representing null
+         */
+        InputStream toCsv(String nullValue);
+
+        Iterator<Object[]> rows();
+
+        /**
+         * Returns whether all the fields are text, hence can be loaded as CSV content in the connection character set.
+         */
+        boolean isText();
+    }
+
+    /**
+     * Rows given one by one.
+     */
+    private static class RowSource implements Source {
+
+        private final PeekingIterator rows;
+
+        private RowSource(Iterator<Object[]> rows) {
+            this.rows = new PeekingIterator(rows);
+        }
+
+        @Override
+        public InputStream toCsv(String nullValue) {
+            return toCsvStream(rows, nullValue);
+        }
+
+        @Override
+        public Iterator<Object[]> rows() {
+            return rows;
+        }
+
+        @Override
+        public boolean isText() {
+            Object[] row = rows.peek();
+            if (row != null) {
+                for (Object field : row) {
+                    if (field instanceof byte[]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Returns a stream of the given rows as CSV content, which is encoded as the rows are read.
+     */
+    private static InputStream toCsvStream(Iterator<Object[]> rows, String nullValue) {
+        return new InputStream() {
+            private byte[] buffer = new byte[0];
+            private int position;
+
+            @Override
+            public int read() {
+                return fill() ? buffer[position++] & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.length - position);
+                System.arraycopy(buffer, position, bytes, offset, count);
+                position += count;
+                return count;
+            }
+
+            private boolean fill() {
+                while (position == buffer.length) {
+                    if (!rows.hasNext()) {
+                        return false;
+                    }
+                    buffer = toCsvLine(rows.next(), nullValue).getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return true;
+            }
+        };
+    }
+
+    private static String toCsvLine(Object[] row, String nullValue) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object field = row[i];
+            if (field == null) {
+                line.append(nullValue);
+            } else if (field instanceof String) {
+                line.append('"').append(((String) field).replace("\"", "\"\"")).append('"');
+            } else if (field instanceof byte[]) {
+                // The text representation of bytea values
+                line.append("\\x");
+                for (byte b : (byte[]) field) {
+                    line.append(String.format("%02x", b));
+                }
+            } else {
+                line.append(field);
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Rows given as CSV content, of which unquoted empty fields are null. The content is passed as is to databases
+     * which read unquoted empty fields as null, and is parsed and written again for others.
+     */
+    private static class CsvSource implements Source {
+
+        private final InputStream csv;
+
+        private CsvSource(InputStream csv) {
+            this.csv = csv;
+        }
+
+        @Override
+        public InputStream toCsv(String nullValue) {
+            return nullValue.isEmpty() ? csv : toCsvStream(rows(), nullValue);
+        }
+
+        @Override
+        public Iterator<Object[]> rows() {
+            return new CsvParser(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public boolean isText() {
+            return true;
+        }
+    }
+
+    /**
+     * Parses CSV content into rows of string fields as it is read. Errors reading the content are thrown as
+     * {@link UncheckedIOException}.
+     */
+    private static class CsvParser implements Iterator<Object[]> {
+
+        private static final int UNREAD = -2;
+
+        private final Reader reader;
+        private int next = UNREAD;
+
+        private CsvParser(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return peek() >= 0;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Object> fields = new ArrayList<>();
+            while (true) {
+                fields.add(nextField());
+                int separator = read();
+                if (separator < 0) {
+                    break;
+                } else if (separator == '\r' && peek() == '\n') {
+                    read();
+                    break;
+                } else if (separator != ',') {
+                    break;
+                }
+            }
+            return fields.toArray();
+        }
+
+        private String nextField() {
+            StringBuilder field = new StringBuilder();
+            if (peek() == '"') {
+                read();
+                int c;
+                while ((c = read()) >= 0) {
+                    if (c != '"') {
+                        field.append((char) c);
+                    } else if (peek() == '"') {
+                        field.append('"');
+                        read();
+                    } else {
+                        break;
+                    }
+                }
+                return field.toString();
+            }
+            while (peek() >= 0 && ",\r\n".indexOf(peek()) < 0) {
+                field.append((char) read());
+            }
+            return field.length() == 0 ? null : field.toString();
+        }
+
+        private int peek() {
+            if (next == UNREAD) {
+                try {
+                    next = reader.read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next;
+        }
+
+        private int read() {
+            int c = peek();
+            next = UNREAD;
+            return c;
+        }
+    }
+
+    /**
+     * Iterator of which the next element can be looked at without consuming it.
+     */
+    private static class PeekingIterator implements Iterator<Object[]> {
+
+        private final Iterator<Object[]> iterator;
+        private Object[] next;
+
+        private PeekingIterator(Iterator<Object[]> iterator) {
+            this.iterator = iterator;
+        }
+
+        Object[] peek() {
+            if (next == null && iterator.hasNext()) {
+                next = iterator.next();
+            }
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null || iterator.hasNext();
+        }
+
+        @Override
+        public Object[] next() {
+            Object[] row = peek();
+            if (row == null) {
+                throw new NoSuchElementException();
+            }
+            next = null;
+            return row;
+        }
+    }
+}
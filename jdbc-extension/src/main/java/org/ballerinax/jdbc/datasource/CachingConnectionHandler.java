@@ -0,0 +1,262 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+
+/**
+ * Connection handed over to the SQL connector for a select action of a client with a result cache or with collapsed
+ * selects. A connection is borrowed from the pool only when the result of the query is neither cached nor read by an
+ * identical query being executed, or when the SQL connector uses the connection for anything other than preparing
+ * and executing the query. A result is read into memory to be cached only up to the number of rows which can fit in
+ * the cache, beyond which the rest of the result is read from the database as it is iterated, and is not cached.
+ *
+ * @since 0.982.1
+ */
+class CachingConnectionHandler implements InvocationHandler {
+
+    private static final RowSetFactory ROW_SET_FACTORY = new ColumnarRowSetFactory();
+
+    private final JDBCDatasource datasource;
+    private final ResultCache cache;
+    private final SelectCollapser collapser;
+    private Connection connection;
+    private boolean closed;
+
+    private CachingConnectionHandler(JDBCDatasource datasource, ResultCache cache, SelectCollapser collapser) {
+        this.datasource = datasource;
+        this.cache = cache;
+        this.collapser = collapser;
+    }
+
+    /**
+     * Returns a connection serving select queries from the result cache and collapsing identical select queries,
+     * either of which may be {@code null}.
+     */
+    static Connection wrap(JDBCDatasource datasource, ResultCache cache, SelectCollapser collapser) {
+        return (Connection) Proxy.newProxyInstance(CachingConnectionHandler.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CachingConnectionHandler(datasource, cache, collapser));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "prepareStatement":
+            return Proxy.newProxyInstance(CachingConnectionHandler.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandler(method, args));
+        case "isClosed":
+            return closed;
+        case "close":
+            closed = true;
+            if (connection != null) {
+                connection.close();
+            }
+            return null;
+        default:
+            return invokeOn(getConnection(), method, args);
+        }
+    }
+
+    private Connection getConnection() {
+        if (connection == null) {
+            connection = datasource.borrowConnection();
+        }
+        return connection;
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Returns whether a parameter value can be part of a cache key, or of the key of a collapsed query, which rules
+     * out streams and database objects.
+     */
+    private static boolean isCacheable(Object arg) {
+        return !(arg instanceof InputStream || arg instanceof Reader || arg instanceof Blob || arg instanceof Clob
+                || arg instanceof Array || arg instanceof Struct || arg instanceof Object[]);
+    }
+
+    /**
+     * Statement which records the parameters set on it and serves the query from the result cache, or from the
+     * result of an identical query. The statement is prepared on a pooled connection only if the result is not served
+     * otherwise.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Method prepareMethod;
+        private final Object[] prepareArgs;
+        private final List<Object[]> invocations = new ArrayList<>();
+        private PreparedStatement statement;
+        private boolean cacheable = true;
+        private boolean closed;
+
+        private StatementHandler(Method prepareMethod, Object[] prepareArgs) {
+            this.prepareMethod = prepareMethod;
+            this.prepareArgs = prepareArgs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "executeQuery":
+                if (args == null || args.length == 0) {
+                    return executeQuery();
+                }
+                break;
+            case "isClosed":
+                return closed;
+            case "close":
+                closed = true;
+                if (statement != null) {
+                    statement.close();
+                }
+                return null;
+            default:
+                if (name.startsWith("set") && method.getReturnType() == void.class) {
+                    invocations.add(new Object[]{method, args});
+                    cacheable &= args == null || Arrays.stream(args).allMatch(CachingConnectionHandler::isCacheable);
+                    if (statement != null) {
+                        invokeOn(statement, method, args);
+                    }
+                    return null;
+                }
+            }
+            return invokeOn(getStatement(), method, args);
+        }
+
+        private ResultSet executeQuery() throws SQLException {
+            if (!cacheable) {
+                return getStatement().executeQuery();
+            }
+            List<Object> key = createKey();
+            if (cache != null) {
+                ResultSet cachedResult = cache.get(key);
+                if (cachedResult != null) {
+                    return cachedResult;
+                }
+            }
+            // The generation is taken before the query is executed, so that a result read before a concurrent write
+            // is not cached once the write has invalidated the cache
+            Set<String> tables = cache != null ? QueryTables.read((String) prepareArgs[0]) : null;
+            long generation = cache != null ? cache.generation(tables) : 0;
+            if (collapser != null) {
+                ResultSet collapsedResult = collapser.execute(key, datasource.getQueryDeadline(),
+                        () -> getStatement().executeQuery(),
+                        rows -> cache != null ? cache.put(key, rows, tables, generation) : rows.createShared());
+                if (collapsedResult != null) {
+                    return collapsedResult;
+                }
+            }
+            if (cache == null) {
+                return getStatement().executeQuery();
+            }
+            ResultSet resultSet = getStatement().executeQuery();
+            if (resultSet instanceof CachedRowSet) {
+                // The statement of a columnar select action loads its result to memory itself
+                return cache.put(key, (CachedRowSet) resultSet, tables, generation);
+            }
+            // The rows are read into memory only up to the number which can fit in the cache, after which the rest of
+            // the result is streamed rather than cached
+            CachedRowSet rows = ROW_SET_FACTORY.createCachedRowSet();
+            LimitedResultSet limitedResult = new LimitedResultSet(resultSet);
+            try {
+                rows.populate(limitedResult.limit(cache.getMaxRows(resultSet.getMetaData().getColumnCount()) + 1));
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    resultSet.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+            if (!limitedResult.isExhausted()) {
+                return ContinuedResultSet.wrap(rows, resultSet);
+            }
+            resultSet.close();
+            return cache.put(key, rows, tables, generation);
+        }
+
+        private PreparedStatement getStatement() throws SQLException {
+            if (statement == null) {
+                statement = (PreparedStatement) invokeOn(getConnection(), prepareMethod, prepareArgs);
+                for (Object[] invocation : invocations) {
+                    invokeOn(statement, (Method) invocation[0], (Object[]) invocation[1]);
+                }
+            }
+            return statement;
+        }
+
+        private List<Object> createKey() {
+            List<Object> key = new ArrayList<>(Arrays.asList(prepareArgs));
+            for (Object[] invocation : invocations) {
+                key.add(((Method) invocation[0]).getName());
+                Object[] args = (Object[]) invocation[1];
+                if (args != null) {
+                    for (Object arg : args) {
+                        key.add(arg instanceof byte[] ? ByteBuffer.wrap(((byte[]) arg).clone()) : arg);
+                    }
+                }
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool gauges and action latencies of the datasource of a JDBC client.
+ *
+ * @since 0.982.1
+ */
+public class ClientMetrics {
+
+    /**
+     * Actions of which the latencies are recorded.
+     */
+    public enum Operation {
+        SELECT, UPDATE, BATCH_UPDATE, CALL, UPDATE_WITH_GENERATED_KEYS, BULK_LOAD, PIPELINE,
+        BATCH_UPDATE_WITH_GENERATED_KEYS, SELECT_PARTITIONED
+    }
+
+    private static final String HIKARI_DATASOURCE = "com.zaxxer.hikari.HikariDataSource";
+    private static final String HIKARI_POOL_BEAN = "com.zaxxer.hikari.HikariPoolMXBean";
+
+    private final String url;
+    private final LongAdder activeConnections = new LongAdder();
+    private final LongAdder pendingConnections = new LongAdder();
+    private final LongAdder timedOutStatements = new LongAdder();
+    private final LongAdder cancelledStatements = new LongAdder();
+    private final LongAdder onePhaseCommits = new LongAdder();
+    private final LongAdder twoPhaseCommits = new LongAdder();
+    private final LongAdder collapsedSelects = new LongAdder();
+    private final LongAdder collapsedSelectFallbacks = new LongAdder();
+    private final LongAdder hedgedReads = new LongAdder();
+    private final LongAdder hedgedReadWins = new LongAdder();
+    private final LongAdder streamedQueries = new LongAdder();
+    private final LongAdder coalescedBatches = new LongAdder();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final Map<Operation, LatencyHistogram> operations = new EnumMap<>(Operation.class);
+    private Object poolBean;
+    private volatile int poolSizeLimit = -1;
+
+    ClientMetrics(String url) {
+        this.url = url;
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Looks up the HikariCP pool of the datasource, which the SQL connector does not expose, to report its idle and
+     * total connections.
+     */
+    void bindPool(Object datasource) {
+        Object hikariDatasource = findHikariDatasource(datasource);
+        if (hikariDatasource != null) {
+            try {
+                poolBean = hikariDatasource.getClass().getMethod("getHikariPoolMXBean").invoke(hikariDatasource);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // The idle and total connections are not reported
+            }
+        }
+    }
+
+    /**
+     * Returns the HikariCP datasource held by the given datasource, or {@code null} if it is not found.
+     */
+    static Object findHikariDatasource(Object datasource) {
+        try {
+            for (Class<?> type = datasource.getClass(); type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (HIKARI_DATASOURCE.equals(field.getType().getName())) {
+                        field.setAccessible(true);
+                        return field.get(datasource);
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The datasource is not accessible
+        }
+        return null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the number of connections borrowed by the client.
+     */
+    public long getActiveConnections() {
+        return activeConnections.sum();
+    }
+
+    /**
+     * Returns the number of callers waiting for a connection.
+     */
+    public long getPendingConnections() {
+        return pendingConnections.sum();
+    }
+
+    /**
+     * Returns the number of idle connections in the pool, or -1 if the pool does not report it.
+     */
+    public int getIdleConnections() {
+        return getPoolGauge("getIdleConnections");
+    }
+
+    /**
+     * Returns the number of connections in the pool, or -1 if the pool does not report it.
+     */
+    public int getTotalConnections() {
+        return getPoolGauge("getTotalConnections");
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * Returns the distribution of the time for which the client holds the connections it borrows.
+     */
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    /**
+     * Returns the maximum size of the connection pool set by the adaptive pool sizing, or -1 if the size is fixed.
+     */
+    public int getPoolSizeLimit() {
+        return poolSizeLimit;
+    }
+
+    void setPoolSizeLimit(int poolSizeLimit) {
+        this.poolSizeLimit = poolSizeLimit;
+    }
+
+    /**
+     * Returns the number of statements which failed on their query timeout, as reported by the driver.
+     */
+    public long getTimedOutStatements() {
+        return timedOutStatements.sum();
+    }
+
+    /**
+     * Returns the number of statements cancelled by the client since their query timeout expired.
+     */
+    public long getCancelledStatements() {
+        return cancelledStatements.sum();
+    }
+
+    /**
+     * Returns the number of XA transaction branches committed in one phase, without being prepared.
+     */
+    public long getOnePhaseCommits() {
+        return onePhaseCommits.sum();
+    }
+
+    /**
+     * Returns the number of XA transaction branches prepared and committed in two phases.
+     */
+    public long getTwoPhaseCommits() {
+        return twoPhaseCommits.sum();
+    }
+
+    /**
+     * Returns the number of select queries served from the result of an identical query executed concurrently.
+     */
+    public long getCollapsedSelects() {
+        return collapsedSelects.sum();
+    }
+
+    /**
+     * Returns the number of select queries which waited for an identical query but were executed on their own, since
+     * its result was too large to be shared.
+     */
+    public long getCollapsedSelectFallbacks() {
+        return collapsedSelectFallbacks.sum();
+    }
+
+    /**
+     * Returns the number of queries executed again on another replica since the first execution was slow.
+     */
+    public long getHedgedReads() {
+        return hedgedReads.sum();
+    }
+
+    /**
+     * Returns the number of hedged queries of which the execution on the other replica answered first.
+     */
+    public long getHedgedReadWins() {
+        return hedgedReadWins.sum();
+    }
+
+    /**
+     * Returns the number of queries prepared for streaming their result from the database with a fetch size.
+     */
+    public long getStreamedQueries() {
+        return streamedQueries.sum();
+    }
+
+    /**
+     * Returns the number of batches of several coalesced inserts committed at once.
+     */
+    public long getCoalescedBatches() {
+        return coalescedBatches.sum();
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return operations.get(operation);
+    }
+
+    void connectionRequested() {
+        pendingConnections.increment();
+    }
+
+    void connectionAcquired(long waitTime) {
+        pendingConnections.decrement();
+        acquireTime.record(waitTime);
+        activeConnections.increment();
+    }
+
+    void connectionFailed() {
+        pendingConnections.decrement();
+    }
+
+    void connectionReleased(long heldTime) {
+        activeConnections.decrement();
+        holdTime.record(heldTime);
+    }
+
+    void statementTimedOut() {
+        timedOutStatements.increment();
+    }
+
+    void statementCancelled() {
+        cancelledStatements.increment();
+    }
+
+    void committedInOnePhase() {
+        onePhaseCommits.increment();
+    }
+
+    void committedInTwoPhases() {
+        twoPhaseCommits.increment();
+    }
+
+    void selectCollapsed() {
+        collapsedSelects.increment();
+    }
+
+    void selectCollapseFellBack() {
+        collapsedSelectFallbacks.increment();
+    }
+
+    void readHedged() {
+        hedgedReads.increment();
+    }
+
+    void hedgedReadWon() {
+        hedgedReadWins.increment();
+    }
+
+    void queryStreamed() {
+        streamedQueries.increment();
+    }
+
+    void batchCoalesced() {
+        coalescedBatches.increment();
+    }
+
+    private int getPoolGauge(String name) {
+        Object bean = poolBean;
+        if (bean == null) {
+            return -1;
+        }
+        try {
+            Method gauge = Class.forName(HIKARI_POOL_BEAN, false, bean.getClass().getClassLoader()).getMethod(name);
+            return (Integer) gauge.invoke(bean);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,763 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.serial.SerialArray;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+/**
+ * {@link CachedRowSet} holding the rows of a result loaded to memory column by column, in arrays of primitive values
+ * and dictionary encoded strings, instead of an array of boxed values per row. Values are boxed only when read.
+ * <p>
+ * The row set supports populating, navigating and reading the rows through the getters of primitive, string, decimal,
+ * date time, binary, large object and array values, along with {@code getObject}. It is converted to a regular
+ * {@link CachedRowSet} the first time any other method is called, which includes the getters of streams and of
+ * values converted through a type map. Integer getters throw if the value is out of the range of the type, as the
+ * regular {@link CachedRowSet} does.
+ *
+ * @since 0.982.1
+ */
+class ColumnarRowSet implements InvocationHandler {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DICTIONARY_MIN_SIZE = 1024;
+
+    private final RowSetFactory factory;
+    private Rows rows;
+    private int cursor;
+    private boolean wasNull;
+    private boolean closed;
+    private CachedRowSet delegate;
+
+    private ColumnarRowSet(RowSetFactory factory, Rows rows) {
+        this.factory = factory;
+        this.rows = rows;
+    }
+
+    /**
+     * Creates an empty row set.
+     *
+     * @param factory the factory creating the regular row set which the row set is converted to when needed
+     * @return the row set
+     */
+    static CachedRowSet create(RowSetFactory factory) {
+        return create(factory, null);
+    }
+
+    private static CachedRowSet create(RowSetFactory factory, Rows rows) {
+        return (CachedRowSet) Proxy.newProxyInstance(ColumnarRowSet.class.getClassLoader(),
+                new Class<?>[]{CachedRowSet.class}, new ColumnarRowSet(factory, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (delegate != null) {
+            return invokeOn(delegate, method, args);
+        }
+        String name = method.getName();
+        int argCount = args == null ? 0 : args.length;
+        switch (name) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "toString":
+            return "ColumnarRowSet@" + Integer.toHexString(System.identityHashCode(proxy));
+        case "populate":
+            if (argCount == 1) {
+                rows = new Rows((ResultSet) args[0]);
+                cursor = 0;
+                return null;
+            }
+            break;
+        case "close":
+            closed = true;
+            return null;
+        case "isClosed":
+            return closed;
+        case "createShared":
+            return create(factory, rows);
+        case "getStatement":
+            return null;
+        case "getMetaData":
+            return checkRows().metaData;
+        case "findColumn":
+            return checkRows().findColumn((String) args[0]);
+        case "wasNull":
+            return wasNull;
+        case "size":
+            return checkRows().size;
+        case "next":
+            return move(cursor + 1);
+        case "previous":
+            return move(cursor - 1);
+        case "first":
+            return move(1);
+        case "last":
+            return move(checkRows().size);
+        case "beforeFirst":
+            move(0);
+            return null;
+        case "afterLast":
+            move(checkRows().size + 1);
+            return null;
+        case "absolute":
+            int row = (Integer) args[0];
+            return move(row >= 0 ? row : checkRows().size + 1 + row);
+        case "relative":
+            return move(cursor + (Integer) args[0]);
+        case "getRow":
+            return isOnRow() ? cursor : 0;
+        case "isBeforeFirst":
+            return cursor == 0 && checkRows().size > 0;
+        case "isAfterLast":
+            return cursor > checkRows().size && rows.size > 0;
+        case "isFirst":
+            return cursor == 1 && isOnRow();
+        case "isLast":
+            return cursor == checkRows().size && isOnRow();
+        default:
+            if (name.startsWith("get") && (argCount == 1 || argCount == 2 && args[1] instanceof Calendar)
+                    && (args[0] instanceof Integer || args[0] instanceof String)) {
+                Column column = column(args[0]);
+                Object value = getValue(name, column, cursor - 1, argCount == 2 ? (Calendar) args[1] : null);
+                Class<?> type = method.getReturnType();
+                if (value != Column.UNSUPPORTED && (value == null || type.isPrimitive() || type.isInstance(value))) {
+                    return value;
+                }
+            }
+        }
+        return invokeOn(materialize(), method, args);
+    }
+
+    private Rows checkRows() throws SQLException {
+        if (rows == null) {
+            throw new SQLException("the row set is not populated");
+        }
+        return rows;
+    }
+
+    private boolean move(int row) throws SQLException {
+        cursor = Math.max(0, Math.min(row, checkRows().size + 1));
+        return isOnRow();
+    }
+
+    private boolean isOnRow() {
+        return rows != null && cursor >= 1 && cursor <= rows.size;
+    }
+
+    private Column column(Object index) throws SQLException {
+        int columnIndex = index instanceof String ? checkRows().findColumn((String) index) : (Integer) index;
+        if (columnIndex < 1 || columnIndex > checkRows().columns.length) {
+            throw new SQLException("invalid column index: " + columnIndex);
+        }
+        if (!isOnRow()) {
+            throw new SQLException("invalid cursor position");
+        }
+        return rows.columns[columnIndex - 1];
+    }
+
+    /**
+     * Returns the value of a column of a row as returned by the given getter, or {@link Column#UNSUPPORTED} if the
+     * getter is not served by the columns.
+     *
+     * @param calendar the calendar given to a date time getter, or {@code null} if none is given
+     */
+    private Object getValue(String getter, Column column, int row, Calendar calendar) throws SQLException {
+        if (calendar != null && !isDateTimeGetter(getter)) {
+            return Column.UNSUPPORTED;
+        }
+        wasNull = column.nulls.get(row);
+        switch (getter) {
+        case "getObject":
+            return wasNull ? null : column.getObject(row);
+        case "getString":
+        case "getNString":
+            return wasNull ? null : column.getString(row);
+        case "getLong":
+            return wasNull ? 0L : column.getLong(row);
+        case "getInt":
+            return wasNull ? 0 : (int) checkRange(column.getLong(row), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        case "getShort":
+            return wasNull ? (short) 0 : (short) checkRange(column.getLong(row), Short.MIN_VALUE, Short.MAX_VALUE);
+        case "getByte":
+            return wasNull ? (byte) 0 : (byte) checkRange(column.getLong(row), Byte.MIN_VALUE, Byte.MAX_VALUE);
+        case "getDouble":
+            return wasNull ? 0D : column.getDouble(row);
+        case "getFloat":
+            return wasNull ? 0F : (float) column.getDouble(row);
+        case "getBoolean":
+            return !wasNull && column.getBoolean(row);
+        case "getBigDecimal":
+            return wasNull ? null : toBigDecimal(column.getObject(row));
+        case "getDate":
+        case "getTime":
+        case "getTimestamp":
+            if (wasNull) {
+                return null;
+            }
+            java.util.Date dateTime = toDateTime(getter, column.getObject(row));
+            return calendar == null ? dateTime : inCalendar(getter, dateTime, calendar);
+        case "getBytes":
+        case "getBlob":
+        case "getClob":
+        case "getArray":
+            return wasNull ? null : column.getObject(row);
+        default:
+            return Column.UNSUPPORTED;
+        }
+    }
+
+    private static boolean isDateTimeGetter(String getter) {
+        return getter.equals("getDate") || getter.equals("getTime") || getter.equals("getTimestamp");
+    }
+
+    private static long checkRange(long value, long min, long max) throws SQLException {
+        if (value < min || value > max) {
+            throw new SQLException("value " + value + " is out of the range of the type");
+        }
+        return value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) throws SQLException {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("cannot convert " + value + " to a decimal", e);
+        }
+    }
+
+    private static java.util.Date toDateTime(String getter, Object value) throws SQLException {
+        long time;
+        if (value instanceof java.util.Date) {
+            if (value instanceof Timestamp && getter.equals("getTimestamp")) {
+                return (Timestamp) value;
+            }
+            time = ((java.util.Date) value).getTime();
+        } else {
+            try {
+                String text = value.toString().trim();
+                time = getter.equals("getDate") ? Date.valueOf(text).getTime()
+                        : getter.equals("getTime") ? Time.valueOf(text).getTime() : Timestamp.valueOf(text).getTime();
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("cannot convert " + value + " to a date time value", e);
+            }
+        }
+        return getter.equals("getDate") ? new Date(time)
+                : getter.equals("getTime") ? new Time(time) : new Timestamp(time);
+    }
+
+    /**
+     * Returns the date time value of which the fields read in the default time zone are those of the given calendar,
+     * as the regular {@link CachedRowSet} does. The calendar is not modified.
+     */
+    private static java.util.Date inCalendar(String getter, java.util.Date dateTime, Calendar calendar) {
+        Calendar defaultCalendar = Calendar.getInstance();
+        defaultCalendar.setTime(dateTime);
+        Calendar target = (Calendar) calendar.clone();
+        boolean date = !getter.equals("getTime");
+        boolean time = !getter.equals("getDate");
+        if (date) {
+            target.set(Calendar.YEAR, defaultCalendar.get(Calendar.YEAR));
+            target.set(Calendar.MONTH, defaultCalendar.get(Calendar.MONTH));
+            target.set(Calendar.DAY_OF_MONTH, defaultCalendar.get(Calendar.DAY_OF_MONTH));
+        }
+        target.set(Calendar.HOUR_OF_DAY, time ? defaultCalendar.get(Calendar.HOUR_OF_DAY) : 0);
+        target.set(Calendar.MINUTE, time ? defaultCalendar.get(Calendar.MINUTE) : 0);
+        target.set(Calendar.SECOND, time ? defaultCalendar.get(Calendar.SECOND) : 0);
+        target.set(Calendar.MILLISECOND, time ? defaultCalendar.get(Calendar.MILLISECOND) : 0);
+        long millis = target.getTimeInMillis();
+        return !time ? new Date(millis) : !date ? new Time(millis) : new Timestamp(millis);
+    }
+
+    /**
+     * Converts the row set to a regular {@link CachedRowSet} positioned at the current row, which serves the rest of
+     * the method calls.
+     */
+    private CachedRowSet materialize() throws SQLException {
+        CachedRowSet rowSet = factory.createCachedRowSet();
+        if (rows != null) {
+            CachedRowSet view = create(factory, rows);
+            rowSet.populate(view);
+            if (isOnRow()) {
+                rowSet.absolute(cursor);
+            } else if (cursor > 0) {
+                rowSet.afterLast();
+            }
+        }
+        if (closed) {
+            rowSet.close();
+        }
+        delegate = rowSet;
+        return rowSet;
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The columns of the rows, which are not modified once populated, hence shared by the row sets created by
+     * {@code createShared}.
+     */
+    private static class Rows {
+
+        private final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        private final Column[] columns;
+        private final Map<String, Integer> columnIndexes = new HashMap<>();
+        private int size;
+
+        Rows(ResultSet resultSet) throws SQLException {
+            ResultSetMetaData resultMetaData = resultSet.getMetaData();
+            int columnCount = resultMetaData.getColumnCount();
+            copyMetaData(resultMetaData, columnCount);
+            columns = new Column[columnCount];
+            for (int i = 1; i <= columnCount; i++) {
+                columns[i - 1] = Column.create(resultMetaData, i);
+                columnIndexes.putIfAbsent(metaData.getColumnLabel(i).toUpperCase(Locale.ENGLISH), i);
+            }
+            while (resultSet.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    columns[i].add(resultSet, i + 1, size);
+                }
+                size++;
+            }
+            for (Column column : columns) {
+                column.trim(size);
+            }
+        }
+
+        int findColumn(String label) throws SQLException {
+            Integer index = columnIndexes.get(label.toUpperCase(Locale.ENGLISH));
+            if (index == null) {
+                throw new SQLException("invalid column name: " + label);
+            }
+            return index;
+        }
+
+        private void copyMetaData(ResultSetMetaData resultMetaData, int columnCount) throws SQLException {
+            metaData.setColumnCount(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                metaData.setAutoIncrement(i, resultMetaData.isAutoIncrement(i));
+                metaData.setCaseSensitive(i, resultMetaData.isCaseSensitive(i));
+                metaData.setCurrency(i, resultMetaData.isCurrency(i));
+                metaData.setNullable(i, resultMetaData.isNullable(i));
+                metaData.setSigned(i, resultMetaData.isSigned(i));
+                metaData.setSearchable(i, resultMetaData.isSearchable(i));
+                metaData.setColumnDisplaySize(i, Math.max(0, resultMetaData.getColumnDisplaySize(i)));
+                metaData.setColumnLabel(i, resultMetaData.getColumnLabel(i));
+                metaData.setColumnName(i, resultMetaData.getColumnName(i));
+                metaData.setSchemaName(i, resultMetaData.getSchemaName(i));
+                metaData.setPrecision(i, Math.max(0, resultMetaData.getPrecision(i)));
+                metaData.setScale(i, Math.max(0, resultMetaData.getScale(i)));
+                metaData.setTableName(i, resultMetaData.getTableName(i));
+                metaData.setCatalogName(i, resultMetaData.getCatalogName(i));
+                metaData.setColumnType(i, resultMetaData.getColumnType(i));
+                metaData.setColumnTypeName(i, resultMetaData.getColumnTypeName(i));
+            }
+        }
+    }
+
+    /**
+     * The values of a column, along with the rows in which the column is null.
+     */
+    private abstract static class Column {
+
+        static final Object UNSUPPORTED = new Object();
+
+        final BitSet nulls = new BitSet();
+
+        /**
+         * Creates a column storing the values in the representation matching the Java class the driver maps the
+         * column to.
+         */
+        static Column create(ResultSetMetaData metaData, int index) throws SQLException {
+            String className = metaData.getColumnClassName(index);
+            if (className == null) {
+                return new ObjectColumn();
+            }
+            switch (className) {
+            case "java.lang.Long":
+            case "java.lang.Integer":
+            case "java.lang.Short":
+            case "java.lang.Byte":
+                return new LongColumn(className);
+            case "java.lang.Double":
+            case "java.lang.Float":
+                return new DoubleColumn(className);
+            case "java.lang.Boolean":
+                return new BooleanColumn();
+            case "java.lang.String":
+                return new StringColumn();
+            default:
+                return new ObjectColumn();
+            }
+        }
+
+        /**
+         * Reads the value of the column of the current row of the result set.
+         */
+        abstract void add(ResultSet resultSet, int index, int row) throws SQLException;
+
+        /**
+         * Releases the capacity beyond the given number of rows.
+         */
+        abstract void trim(int size);
+
+        abstract Object getObject(int row);
+
+        String getString(int row) {
+            return getObject(row).toString();
+        }
+
+        long getLong(int row) throws SQLException {
+            Object value = getObject(row);
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            } else if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            }
+            try {
+                return new BigDecimal(value.toString().trim()).longValue();
+            } catch (NumberFormatException e) {
+                throw new SQLException("cannot convert " + value + " to an integer", e);
+            }
+        }
+
+        double getDouble(int row) throws SQLException {
+            Object value = getObject(row);
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            } else if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            }
+            try {
+                return Double.parseDouble(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new SQLException("cannot convert " + value + " to a float", e);
+            }
+        }
+
+        boolean getBoolean(int row) throws SQLException {
+            Object value = getObject(row);
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            } else if (value instanceof Number) {
+                return ((Number) value).doubleValue() != 0;
+            }
+            String text = value.toString().trim();
+            return text.equals("1") || text.equalsIgnoreCase("true");
+        }
+    }
+
+    private static class LongColumn extends Column {
+
+        private final String className;
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        LongColumn(String className) {
+            this.className = className;
+        }
+
+        @Override
+        void add(ResultSet resultSet, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = resultSet.getLong(index);
+            if (resultSet.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object getObject(int row) {
+            long value = values[row];
+            switch (className) {
+            case "java.lang.Integer":
+                return (int) value;
+            case "java.lang.Short":
+                return (short) value;
+            case "java.lang.Byte":
+                return (byte) value;
+            default:
+                return value;
+            }
+        }
+
+        @Override
+        String getString(int row) {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            return values[row] != 0;
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+
+        private final boolean isFloat;
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(String className) {
+            this.isFloat = className.equals("java.lang.Float");
+        }
+
+        @Override
+        void add(ResultSet resultSet, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            values[row] = isFloat ? resultSet.getFloat(index) : resultSet.getDouble(index);
+            if (resultSet.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object getObject(int row) {
+            return isFloat ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        String getString(int row) {
+            return isFloat ? Float.toString((float) values[row]) : Double.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return (long) values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            return values[row] != 0;
+        }
+    }
+
+    private static class BooleanColumn extends Column {
+
+        private final BitSet values = new BitSet();
+
+        @Override
+        void add(ResultSet resultSet, int index, int row) throws SQLException {
+            values.set(row, resultSet.getBoolean(index));
+            if (resultSet.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        void trim(int size) {
+        }
+
+        @Override
+        Object getObject(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values.get(row) ? 1 : 0;
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values.get(row) ? 1 : 0;
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            return values.get(row);
+        }
+    }
+
+    /**
+     * Column of strings, which are dictionary encoded as long as at most half of the values are distinct. Columns
+     * of mostly distinct values fall back to an array of the strings.
+     */
+    private static class StringColumn extends Column {
+
+        private Map<String, Integer> codes = new HashMap<>();
+        private List<String> dictionary = new ArrayList<>();
+        private int[] encodedValues = new int[INITIAL_CAPACITY];
+        private String[] values;
+
+        @Override
+        void add(ResultSet resultSet, int index, int row) throws SQLException {
+            String value = resultSet.getString(index);
+            if (value == null) {
+                nulls.set(row);
+            }
+            if (values != null) {
+                if (row == values.length) {
+                    values = Arrays.copyOf(values, row * 2);
+                }
+                values[row] = value;
+                return;
+            }
+            if (row == encodedValues.length) {
+                encodedValues = Arrays.copyOf(encodedValues, row * 2);
+            }
+            if (value == null) {
+                encodedValues[row] = -1;
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (dictionary.size() >= DICTIONARY_MIN_SIZE && dictionary.size() > row / 2) {
+                    decode(row);
+                    values[row] = value;
+                    return;
+                }
+                code = dictionary.size();
+                codes.put(value, code);
+                dictionary.add(value);
+            }
+            encodedValues[row] = code;
+        }
+
+        private void decode(int row) {
+            values = new String[encodedValues.length];
+            for (int i = 0; i < row; i++) {
+                values[i] = encodedValues[i] < 0 ? null : dictionary.get(encodedValues[i]);
+            }
+            codes = null;
+            dictionary = null;
+            encodedValues = null;
+        }
+
+        @Override
+        void trim(int size) {
+            if (values != null) {
+                values = Arrays.copyOf(values, size);
+            } else {
+                encodedValues = Arrays.copyOf(encodedValues, size);
+                codes = null;
+            }
+        }
+
+        @Override
+        Object getObject(int row) {
+            return values != null ? values[row] : dictionary.get(encodedValues[row]);
+        }
+    }
+
+    /**
+     * Column of any other type, of which the values are kept as returned by the driver. Large objects and arrays are
+     * read into memory, as the regular {@link CachedRowSet} does.
+     */
+    private static class ObjectColumn extends Column {
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        @Override
+        void add(ResultSet resultSet, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            Object value = resultSet.getObject(index);
+            if (value == null) {
+                nulls.set(row);
+            } else if (value instanceof Blob) {
+                value = new SerialBlob((Blob) value);
+            } else if (value instanceof Clob) {
+                value = new SerialClob((Clob) value);
+            } else if (value instanceof Array) {
+                value = new SerialArray((Array) value);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object getObject(int row) {
+            return values[row];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.SQLException;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.FilteredRowSet;
+import javax.sql.rowset.JdbcRowSet;
+import javax.sql.rowset.JoinRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.WebRowSet;
+
+/**
+ * {@link RowSetFactory} creating a {@link ColumnarRowSet} for the actions of the clients with columnar tables enabled,
+ * and delegating to the default factory of the JDK otherwise.
+ *
+ * @since 0.982.1
+ */
+class ColumnarRowSetFactory implements RowSetFactory {
+
+    private static final String DEFAULT_FACTORY = "com.sun.rowset.RowSetFactoryImpl";
+
+    private volatile RowSetFactory defaultFactory;
+
+    @Override
+    public CachedRowSet createCachedRowSet() throws SQLException {
+        StatementOptions options = StatementOptions.get();
+        if (options != null && options.isColumnar()) {
+            return createColumnarRowSet();
+        }
+        return getDefaultFactory().createCachedRowSet();
+    }
+
+    /**
+     * Creates a {@link ColumnarRowSet}, regardless of the action executing on the current thread.
+     */
+    CachedRowSet createColumnarRowSet() throws SQLException {
+        return ColumnarRowSet.create(getDefaultFactory());
+    }
+
+    @Override
+    public FilteredRowSet createFilteredRowSet() throws SQLException {
+        return getDefaultFactory().createFilteredRowSet();
+    }
+
+    @Override
+    public JdbcRowSet createJdbcRowSet() throws SQLException {
+        return getDefaultFactory().createJdbcRowSet();
+    }
+
+    @Override
+    public JoinRowSet createJoinRowSet() throws SQLException {
+        return getDefaultFactory().createJoinRowSet();
+    }
+
+    @Override
+    public WebRowSet createWebRowSet() throws SQLException {
+        return getDefaultFactory().createWebRowSet();
+    }
+
+    /**
+     * Returns the default factory, which is created on first use so that a failure is reported by the action rather
+     * than when the class is loaded.
+     */
+    private RowSetFactory getDefaultFactory() throws SQLException {
+        if (defaultFactory == null) {
+            defaultFactory = RowSetProvider.newFactory(DEFAULT_FACTORY, null);
+        }
+        return defaultFactory;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Statement of a select action of a client with columnar tables, which loads the result of its query to a
+ * {@link ColumnarRowSet} as soon as the query is executed. The SQL connector reads the result of a columnar select
+ * action as a result which is not loaded to memory, hence it does not copy the rows to a row set of its own, and the
+ * statement is closed once the result is loaded, along with the connection outside transactions.
+ *
+ * @since 0.982.1
+ */
+class ColumnarStatementHandler implements InvocationHandler {
+
+    private static final ColumnarRowSetFactory ROW_SET_FACTORY = new ColumnarRowSetFactory();
+
+    private final PreparedStatement statement;
+    private final ConnectionHandler connectionHandler;
+    private final boolean releaseConnection;
+    private boolean closed;
+
+    private ColumnarStatementHandler(PreparedStatement statement, ConnectionHandler connectionHandler,
+                                     boolean releaseConnection) {
+        this.statement = statement;
+        this.connectionHandler = connectionHandler;
+        this.releaseConnection = releaseConnection;
+    }
+
+    /**
+     * Wraps a statement so that its query returns a {@link ColumnarRowSet}.
+     *
+     * @param releaseConnection whether the connection is returned to the pool once the result is loaded
+     */
+    static PreparedStatement wrap(PreparedStatement statement, ConnectionHandler connectionHandler,
+                                  boolean releaseConnection) {
+        return (PreparedStatement) Proxy.newProxyInstance(ColumnarStatementHandler.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new ColumnarStatementHandler(statement, connectionHandler, releaseConnection));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "executeQuery":
+            if (args == null || args.length == 0) {
+                return executeQuery();
+            }
+            break;
+        case "setFetchSize":
+            // The SQL connector asks MySQL to stream the rows, which does not apply to a result loaded at once
+            return null;
+        case "isClosed":
+            return closed;
+        case "close":
+            if (!closed) {
+                closed = true;
+                statement.close();
+            }
+            return null;
+        default:
+            break;
+        }
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResultSet executeQuery() throws SQLException {
+        CachedRowSet rows = ROW_SET_FACTORY.createColumnarRowSet();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            rows.populate(resultSet);
+        }
+        closed = true;
+        statement.close();
+        if (releaseConnection) {
+            connectionHandler.close();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Intercepts the connections handed over to the SQL connector so that the statements it prepares honour the
+ * {@link StatementOptions} of the action being executed and are served from the statement cache of the physical
+ * connection when caching is enabled.
+ *
+ * @since 0.982.1
+ */
+class ConnectionHandler implements InvocationHandler {
+
+    private static final String MYSQL = "mysql";
+    private static final String POSTGRESQL = "postgresql";
+    private static final String MYSQL_CURSOR_FETCH = "usecursorfetch=true";
+    private static final Method PREPARE;
+    private static final Method PREPARE_WITH_CURSOR;
+
+    static {
+        try {
+            PREPARE = Connection.class.getMethod("prepareStatement", String.class);
+            PREPARE_WITH_CURSOR = Connection.class.getMethod("prepareStatement", String.class, int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Connection connection;
+    private final JDBCDatasource datasource;
+    private final long borrowTime = System.nanoTime();
+    private final long acquireTime;
+    private boolean restoreAutoCommit;
+    private boolean writesTables;
+    private Set<String> writtenTables;
+    private List<PreparedStatement> cachedStatements;
+    private boolean cancelled;
+    private boolean closed;
+
+    private ConnectionHandler(Connection connection, JDBCDatasource datasource, long acquireTime) {
+        this.connection = connection;
+        this.datasource = datasource;
+        this.acquireTime = acquireTime;
+    }
+
+    /**
+     * Wraps a connection borrowed from the pool.
+     *
+     * @param acquireTime the time taken to acquire the connection, in nanoseconds
+     */
+    static Connection wrap(Connection connection, JDBCDatasource datasource, long acquireTime) {
+        return (Connection) Proxy.newProxyInstance(ConnectionHandler.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, datasource, acquireTime));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "prepareStatement":
+        case "prepareCall":
+            return prepare(method, args);
+        case "close":
+            close();
+            return null;
+        default:
+            return invoke(connection, method, args);
+        }
+    }
+
+    /**
+     * Prepares a statement according to the options of the action executing on the current thread, which may differ
+     * from the action which borrowed the connection within a transaction.
+     */
+    private PreparedStatement prepare(Method method, Object[] args) throws SQLException {
+        StatementOptions options = StatementOptions.get();
+        if (options != null && options.isColumnar() && "prepareStatement".equals(method.getName())) {
+            // The SQL connector reads the result as one which is not loaded to memory, preparing a forward only, read
+            // only statement for MySQL, which are the defaults
+            if (args.length == 3) {
+                method = PREPARE;
+                args = new Object[]{args[0]};
+            }
+            return ColumnarStatementHandler.wrap(prepare(method, args, options), this, !options.isInTransaction());
+        }
+        return prepare(method, args, options);
+    }
+
+    private PreparedStatement prepare(Method method, Object[] args, StatementOptions options) throws SQLException {
+        if (datasource.hasResultCache() && (options == null || !options.isQuery())) {
+            invalidateResultCache((String) args[0]);
+        }
+        boolean singleArgument = args.length == 1 && "prepareStatement".equals(method.getName());
+        if (singleArgument && options != null && options.getPartitioning() != null) {
+            String sql = (String) args[0];
+            return PartitionedStatementHandler.wrap(prepareStatement(PartitionedStatementHandler.probe(sql)),
+                    datasource, sql, options);
+        }
+        boolean streaming = singleArgument && options != null && options.isStreaming();
+        if (streaming) {
+            method = PREPARE_WITH_CURSOR;
+            args = new Object[]{args[0], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY};
+            prepareForStreaming();
+        }
+        PreparedStatement statement = instrument(datasource.getStatementCacheSize() > 0
+                ? prepareCached(method, args) : (PreparedStatement) invoke(connection, method, args), (String) args[0]);
+        if (streaming) {
+            statement.setFetchSize(isRowStreamingRequired() ? Integer.MIN_VALUE : options.getFetchSize());
+            datasource.getMetrics().queryStreamed();
+        }
+        if (singleArgument && options != null && options.isBatch()
+                && (datasource.getBatchChunkSize() > 0 || datasource.isRewriteBatchedInserts())) {
+            statement = BatchStatementHandler.wrap(statement, connection, this, (String) args[0],
+                    datasource.getBatchChunkSize(), datasource.isRewriteBatchedInserts(), options.isInTransaction());
+        }
+        return statement;
+    }
+
+    /**
+     * Prepares a statement issued by the JDBC client itself, on behalf of a statement prepared by the SQL connector.
+     */
+    PreparedStatement prepareStatement(String sql) throws SQLException {
+        Object[] args = {sql};
+        return instrument(datasource.getStatementCacheSize() > 0 ? prepareCached(PREPARE, args)
+                : (PreparedStatement) invoke(connection, PREPARE, args), sql);
+    }
+
+    /**
+     * Applies the query timeout and the slow query log of the client to a statement.
+     */
+    private PreparedStatement instrument(PreparedStatement statement, String sql) {
+        statement = applyQueryTimeout(statement);
+        SlowQueryLog slowQueryLog = datasource.getSlowQueryLog();
+        return slowQueryLog == null ? statement
+                : SlowQueryStatementHandler.wrap(statement, sql, slowQueryLog, acquireTime);
+    }
+
+    /**
+     * Bounds the executions of the statement by the deadline of the action executing on the current thread, which
+     * may differ from the action which borrowed the connection within a transaction.
+     */
+    private PreparedStatement applyQueryTimeout(PreparedStatement statement) {
+        long deadline = datasource.getQueryDeadline();
+        if (deadline == 0) {
+            return statement;
+        }
+        return TimeoutStatementHandler.wrap(statement, this, datasource.getMetrics(), deadline);
+    }
+
+    /**
+     * Records that a statement was cancelled, in which case the work of the connection is rolled back rather than
+     * committed when it is closed.
+     */
+    void statementCancelled() {
+        cancelled = true;
+    }
+
+    /**
+     * Prepares the statement on the physical connection, so that it outlives the borrowing of the connection from the
+     * pool, and caches it against the physical connection. Since the pool does not see the statements of the physical
+     * connection, the connection returns the statements left open to the cache and rolls back the work left
+     * uncommitted when it is closed, as the pool does for its own statements.
+     */
+    private PreparedStatement prepareCached(Method method, Object[] args) throws SQLException {
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        StatementCache cache = datasource.getStatementCache(physicalConnection);
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(method.getName());
+        for (Object arg : args) {
+            key.add(arg instanceof Object[] ? Arrays.asList((Object[]) arg) : arg);
+        }
+        StatementCache.Entry entry = cache.checkout(key);
+        if (entry == null) {
+            entry = cache.add(key, (PreparedStatement) invoke(physicalConnection, method, args));
+        }
+        PreparedStatement statement = StatementHandler.wrap(cache, entry);
+        if (cachedStatements == null) {
+            cachedStatements = new ArrayList<>();
+        }
+        cachedStatements.add(statement);
+        return statement;
+    }
+
+    /**
+     * Discards the cached results of the queries reading the tables written by the given statement. The results are
+     * discarded again once the connection is closed, so that results cached while the writes were not yet committed
+     * are not served afterwards.
+     */
+    private void invalidateResultCache(String sql) {
+        Set<String> tables = QueryTables.written(sql);
+        if (tables == null || !writesTables) {
+            writtenTables = tables;
+        } else if (writtenTables != null) {
+            writtenTables.addAll(tables);
+        }
+        writesTables = true;
+        datasource.invalidateResultCache(tables);
+    }
+
+    private void prepareForStreaming() throws SQLException {
+        if (isDatabase(POSTGRESQL) && connection.getAutoCommit()) {
+            // The PostgreSQL driver uses a server side cursor only when the connection is not in auto commit mode
+            connection.setAutoCommit(false);
+            restoreAutoCommit = true;
+        }
+    }
+
+    /**
+     * MySQL Connector/J streams the result only for a fetch size of {@link Integer#MIN_VALUE}, in which case the rows
+     * are read one by one, unless cursor based fetching is enabled in the URL.
+     */
+    private boolean isRowStreamingRequired() throws SQLException {
+        if (!isDatabase(MYSQL)) {
+            return false;
+        }
+        String url = connection.getMetaData().getURL();
+        return url == null || !url.toLowerCase(Locale.ENGLISH).contains(MYSQL_CURSOR_FETCH);
+    }
+
+    private boolean isDatabase(String name) {
+        String productName = datasource.getDatabaseProductName();
+        return productName != null && productName.toLowerCase(Locale.ENGLISH).contains(name);
+    }
+
+    /**
+     * Returns the connection to the pool, unless it is already closed.
+     */
+    void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        datasource.getMetrics().connectionReleased(System.nanoTime() - borrowTime);
+        try {
+            if (cachedStatements != null) {
+                for (PreparedStatement statement : cachedStatements) {
+                    statement.close();
+                }
+            }
+            if (restoreAutoCommit && !connection.isClosed()) {
+                if (cancelled) {
+                    connection.rollback();
+                } else {
+                    connection.commit();
+                }
+                connection.setAutoCommit(true);
+            } else if (cachedStatements != null && !connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        } finally {
+            connection.close();
+            if (writesTables) {
+                datasource.invalidateResultCache(writtenTables);
+            }
+        }
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Result which returns the rows read into memory, followed by the rest of the rows read from the database. It serves
+ * a result which was read into memory to be shared or cached, until it turned out to be too large.
+ *
+ * @since 0.982.1
+ */
+final class ContinuedResultSet implements InvocationHandler {
+
+    private final CachedRowSet rows;
+    private final ResultSet resultSet;
+    private ResultSet current;
+
+    private ContinuedResultSet(CachedRowSet rows, ResultSet resultSet) {
+        this.rows = rows;
+        this.resultSet = resultSet;
+        current = rows;
+    }
+
+    /**
+     * Returns the rows read into memory followed by the rows left in the result, which is closed along with them.
+     */
+    static ResultSet wrap(CachedRowSet rows, ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(ContinuedResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new ContinuedResultSet(rows, resultSet));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "next":
+            if (current == rows) {
+                if (rows.next()) {
+                    return true;
+                }
+                current = resultSet;
+            }
+            return resultSet.next();
+        case "getMetaData":
+        case "getStatement":
+        case "isClosed":
+            return invokeOn(resultSet, method, args);
+        case "close":
+            rows.close();
+            resultSet.close();
+            return null;
+        default:
+            return invokeOn(current, method, args);
+        }
+    }
+
+    private static Object invokeOn(ResultSet target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
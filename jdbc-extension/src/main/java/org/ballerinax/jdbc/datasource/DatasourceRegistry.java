@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.connector.api.Struct;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinax.jdbc.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process wide registry of the datasources created for JDBC client endpoints.
+ * <p>
+ * Endpoints with an identical {@code ClientEndpointConfiguration} share a single connection pool. Each endpoint holds
+ * a reference to the datasource and the pool is closed when the last reference is released.
+ *
+ * @since 0.982.1
+ */
+public class DatasourceRegistry {
+
+    private static final ConcurrentMap<String, JDBCDatasource> DATASOURCES = new ConcurrentHashMap<>();
+
+    private DatasourceRegistry() {
+    }
+
+    /**
+     * Returns the datasource for the given endpoint configuration, creating the connection pool if no other endpoint
+     * with the same configuration is active. The datasources of the replicas are acquired along with it.
+     *
+     * @param config               the {@code ClientEndpointConfiguration} value
+     * @param clientEndpointConfig the same configuration as a {@link Struct}
+     * @return the shared datasource
+     */
+    public static JDBCDatasource acquire(BMap<String, BValue> config, Struct clientEndpointConfig) {
+        String key = canonicalize(config);
+        JDBCDatasource primary = retain(key);
+        if (primary == null) {
+            // The pool is created outside of the map, since creating it may open connections to the database
+            JDBCDatasource created = new JDBCDatasource(key);
+            created.init(clientEndpointConfig);
+            created.retain();
+            while (primary == null) {
+                JDBCDatasource existing = DATASOURCES.putIfAbsent(key, created);
+                primary = existing == null ? created : retain(key);
+            }
+            if (primary != created) {
+                // Another endpoint with the same configuration registered its pool first
+                created.closePool();
+            }
+        }
+        BValue replicaUrls = config.get(Constants.EndpointConfig.REPLICA_URLS);
+        if (replicaUrls instanceof BStringArray && ((BStringArray) replicaUrls).size() > 0) {
+            // Acquired outside of compute() since the replicas are registered in the same map
+            primary.initReplicas(() -> acquireReplicas(config, (BStringArray) replicaUrls));
+        }
+        return primary;
+    }
+
+    /**
+     * Acquires a datasource for each replica, configured as the primary apart from the URL and the result cache.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<JDBCDatasource> acquireReplicas(BMap<String, BValue> config, BStringArray replicaUrls) {
+        List<JDBCDatasource> replicas = new ArrayList<>();
+        try {
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                BMap<String, BValue> replicaConfig = (BMap<String, BValue>) config.copy();
+                replicaConfig.put(Constants.EndpointConfig.URL, new BString(replicaUrls.get(i)));
+                replicaConfig.put(Constants.EndpointConfig.REPLICA_URLS, new BStringArray());
+                // Results are cached by the primary datasource, regardless of the replica executing the query
+                replicaConfig.put(Constants.EndpointConfig.RESULT_CACHE_TTL, new BInteger(0));
+                replicas.add(acquire(replicaConfig, BLangConnectorSPIUtil.toStruct(replicaConfig)));
+            }
+        } catch (RuntimeException e) {
+            replicas.forEach(DatasourceRegistry::release);
+            throw e;
+        }
+        return replicas;
+    }
+
+    /**
+     * Takes a reference to the registered datasource of the given key, returning {@code null} if there is none.
+     */
+    private static JDBCDatasource retain(String key) {
+        return DATASOURCES.computeIfPresent(key, (k, datasource) -> {
+            datasource.retain();
+            return datasource;
+        });
+    }
+
+    static void release(JDBCDatasource datasource) {
+        boolean[] closed = new boolean[1];
+        DATASOURCES.computeIfPresent(datasource.getKey(), (k, current) -> {
+            if (current != datasource) {
+                return current;
+            }
+            if (current.release() == 0) {
+                closed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (closed[0]) {
+            datasource.closePool();
+        }
+    }
+
+    /**
+     * Builds a representation of the configuration which does not depend on the order in which map entries were
+     * declared, so that equivalent configurations map to the same key.
+     */
+    private static String canonicalize(BValue value) {
+        if (value == null) {
+            return "()";
+        }
+        if (!(value instanceof BMap)) {
+            return value.stringValue();
+        }
+        @SuppressWarnings("unchecked")
+        BMap<String, BValue> map = (BMap<String, BValue>) value;
+        String[] keys = map.keys();
+        Arrays.sort(keys);
+        StringBuilder builder = new StringBuilder("{");
+        for (String key : keys) {
+            builder.append(key).append('=').append(canonicalize(map.get(key))).append(';');
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Inserts a batch of rows and collects the key generated for each row into a primitive array. For PostgreSQL a single
+ * row insert is rewritten into multi row inserts with a {@code RETURNING} clause, which return the keys along with
+ * the insertion. Otherwise the rows are executed as a JDBC batch and the keys are read from
+ * {@link Statement#getGeneratedKeys()}, which MySQL, H2 and HSQLDB report for all the rows of the batch. The rows are
+ * inserted atomically.
+ * <p>
+ * PostgreSQL returns every column of the inserted rows when the generated columns are not named, of which the first
+ * one need not be the key. The key columns are therefore required for PostgreSQL.
+ *
+ * @since 0.982.1
+ */
+public class GeneratedKeysBatch {
+
+    private static final String POSTGRESQL = "postgresql";
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_POSTGRESQL_PARAMETERS = 32767;
+
+    private final JDBCDatasource datasource;
+    private final String sql;
+    private final String[] keyColumns;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final List<int[]> rowTypes = new ArrayList<>();
+
+    /**
+     * Creates a batch of the given insert statement.
+     *
+     * @param keyColumns the names of the generated columns, of which the first one holds the key returned for each
+     *                   row, or {@code null} to let the driver choose the generated columns, which is not supported
+     *                   for PostgreSQL
+     */
+    public GeneratedKeysBatch(JDBCDatasource datasource, String sql, String[] keyColumns) {
+        this.datasource = datasource;
+        this.sql = sql.trim();
+        this.keyColumns = keyColumns != null && keyColumns.length > 0 ? keyColumns : null;
+    }
+
+    /**
+     * Adds a row to the batch.
+     *
+     * @param parameters the parameter values of the row
+     * @param types      the {@link java.sql.Types} of the parameters
+     */
+    public void add(Object[] parameters, int[] types) {
+        rows.add(parameters);
+        rowTypes.add(types);
+    }
+
+    /**
+     * Inserts the rows of the batch.
+     *
+     * @return the key generated for each row, in order
+     */
+    public long[] execute() throws SQLException {
+        long[] keys = new long[rows.size()];
+        if (keys.length == 0) {
+            return keys;
+        }
+        boolean postgreSQL = isDatabase(POSTGRESQL);
+        if (postgreSQL && keyColumns == null) {
+            throw new SQLException("the key columns must be given to return the generated keys of a PostgreSQL batch");
+        }
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                MultiRowInsert insert = postgreSQL ? MultiRowInsert.parse(sql) : null;
+                if (insert != null) {
+                    insertReturning(connection, insert, keys);
+                } else {
+                    insertBatch(connection, keys);
+                }
+                connection.commit();
+                return keys;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    private void insertReturning(Connection connection, MultiRowInsert insert, long[] keys) throws SQLException {
+        String returning = " RETURNING " + String.join(", ", keyColumns);
+        int chunkSize = Math.max(1, Math.min(BATCH_SIZE, MAX_POSTGRESQL_PARAMETERS / insert.getParameterCount()));
+        String chunkSql = null;
+        PreparedStatement statement = null;
+        try {
+            for (int start = 0; start < keys.length; start += chunkSize) {
+                int rowCount = Math.min(chunkSize, keys.length - start);
+                String sqlWithRows = insert.getSQL(rowCount) + returning;
+                if (!sqlWithRows.equals(chunkSql)) {
+                    if (statement != null) {
+                        statement.close();
+                    }
+                    statement = connection.prepareStatement(sqlWithRows);
+                    chunkSql = sqlWithRows;
+                }
+                int index = 1;
+                for (int row = start; row < start + rowCount; row++) {
+                    index = Pipeline.bind(statement, index, rows.get(row), rowTypes.get(row));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    readKeys(resultSet, keys, start, rowCount);
+                }
+            }
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+    }
+
+    private void insertBatch(Connection connection, long[] keys) throws SQLException {
+        try (PreparedStatement statement = keyColumns != null ? connection.prepareStatement(sql, keyColumns)
+                : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+                int rowCount = Math.min(BATCH_SIZE, keys.length - start);
+                for (int row = start; row < start + rowCount; row++) {
+                    Pipeline.bind(statement, 1, rows.get(row), rowTypes.get(row));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                    readKeys(resultSet, keys, start, rowCount);
+                }
+            }
+        }
+    }
+
+    private static void readKeys(ResultSet resultSet, long[] keys, int start, int rowCount) throws SQLException {
+        int row = start;
+        while (row < start + rowCount && resultSet.next()) {
+            keys[row++] = resultSet.getLong(1);
+        }
+        if (row < start + rowCount) {
+            throw new SQLException("the database returned generated keys for " + (row - start) + " of " + rowCount
+                    + " rows");
+        }
+    }
+
+    private boolean isDatabase(String name) {
+        String productName = datasource.getDatabaseProductName();
+        return productName != null && productName.toLowerCase(Locale.ENGLISH).contains(name);
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection handed over for a select action executed on the replicas of a client with hedged reads. The query is
+ * executed on a replica, and if it has not answered within the delay given by the {@link ReadHedger}, it is executed
+ * again on another replica, or on the primary database if the client has only one replica. The result of the first
+ * execution to answer is returned as soon as it arrives, and the other execution is cancelled and releases its
+ * connection once it completes. Both executions run on the hedging threads, so that the action does not wait for a
+ * replica which is slow to answer or to hand out a connection. A query which cannot be hedged, since too few execution
+ * times are known, the budget is spent or all the hedging threads are busy, is executed on the thread of the action.
+ * <p>
+ * The executions prepare the statement on connections of their own, hence the statements prepared on this connection
+ * record the parameters set on them. A connection is borrowed from a replica for anything other than preparing and
+ * executing a query.
+ *
+ * @since 0.982.1
+ */
+class HedgingConnectionHandler implements InvocationHandler {
+
+    private final JDBCDatasource datasource;
+    private final ReplicaRouter router;
+    private final ReadHedger hedger;
+    private final StatementOptions options;
+    private final List<Connection> connections = new ArrayList<>();
+    private Connection connection;
+    private boolean closed;
+
+    private HedgingConnectionHandler(JDBCDatasource datasource, ReplicaRouter router, ReadHedger hedger,
+                                     StatementOptions options) {
+        this.datasource = datasource;
+        this.router = router;
+        this.hedger = hedger;
+        this.options = options;
+    }
+
+    static Connection wrap(JDBCDatasource datasource, ReplicaRouter router, ReadHedger hedger,
+                           StatementOptions options) {
+        return (Connection) Proxy.newProxyInstance(HedgingConnectionHandler.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new HedgingConnectionHandler(datasource, router, hedger, options));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "prepareStatement":
+            return Proxy.newProxyInstance(HedgingConnectionHandler.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandler(method, args));
+        case "isClosed":
+            return closed;
+        case "close":
+            closed = true;
+            SQLException error = null;
+            for (Connection executionConnection : connections) {
+                try {
+                    executionConnection.close();
+                } catch (SQLException e) {
+                    error = e;
+                }
+            }
+            if (connection != null) {
+                connection.close();
+            }
+            if (error != null) {
+                throw error;
+            }
+            return null;
+        default:
+            return invokeOn(getConnection(), method, args);
+        }
+    }
+
+    private Connection getConnection() {
+        if (connection == null) {
+            connection = router.next().borrowConnection();
+        }
+        return connection;
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (Exception ignore) {
+                // The execution is abandoned, hence its resources are released on a best effort basis
+            }
+        }
+    }
+
+    /**
+     * Statement which records the parameters set on it and executes its query as hedged executions. Once the query
+     * is executed, the statement delegates to the statement of the execution which answered first.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Method prepareMethod;
+        private final Object[] prepareArgs;
+        private final List<Object[]> invocations = new ArrayList<>();
+        private PreparedStatement statement;
+        private boolean closed;
+
+        private StatementHandler(Method prepareMethod, Object[] prepareArgs) {
+            this.prepareMethod = prepareMethod;
+            this.prepareArgs = prepareArgs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "executeQuery":
+                if ((args == null || args.length == 0) && statement == null) {
+                    return executeQuery();
+                }
+                break;
+            case "isClosed":
+                return closed;
+            case "close":
+                closed = true;
+                if (statement != null) {
+                    statement.close();
+                }
+                return null;
+            default:
+                if (name.startsWith("set") && method.getReturnType() == void.class) {
+                    invocations.add(new Object[]{method, args});
+                    if (statement != null) {
+                        invokeOn(statement, method, args);
+                    }
+                    return null;
+                }
+            }
+            return invokeOn(getStatement(), method, args);
+        }
+
+        private ResultSet executeQuery() throws SQLException {
+            hedger.queryStarted();
+            BlockingQueue<Execution> answers = new ArrayBlockingQueue<>(2);
+            JDBCDatasource replica = router.next();
+            Execution first = new Execution(replica, answers);
+            long delay = hedger.getDelay();
+            if (delay < 0 || !hedger.canHedge() || !tryExecute(first)) {
+                // The query cannot be hedged, hence it is executed on the thread of the action
+                first.run();
+                return accept(answers.remove(), null);
+            }
+            Execution second = null;
+            try {
+                Execution answer = answers.poll(delay, TimeUnit.NANOSECONDS);
+                if (answer == null) {
+                    second = hedge(replica, answers);
+                    answer = answers.take();
+                }
+                if (answer.error != null && second != null) {
+                    Execution otherAnswer = answers.take();
+                    if (otherAnswer.error == null) {
+                        answer = otherAnswer;
+                    } else {
+                        answer.error.addSuppressed(otherAnswer.error);
+                    }
+                }
+                if (answer == second && answer.error == null) {
+                    datasource.getMetrics().hedgedReadWon();
+                }
+                // The execution which has not answered is left to release its connection once it completes
+                return accept(answer, answer == first ? second : first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                first.abandon();
+                if (second != null) {
+                    second.abandon();
+                }
+                throw new SQLException("interrupted while executing a hedged query", e);
+            }
+        }
+
+        /**
+         * Executes the query again on another replica, or on the primary database, unless the budget is spent or all
+         * the hedging threads are busy.
+         */
+        private Execution hedge(JDBCDatasource replica, BlockingQueue<Execution> answers) {
+            if (!hedger.tryHedge()) {
+                return null;
+            }
+            JDBCDatasource otherReplica = router.nextOtherThan(replica);
+            Execution execution = new Execution(otherReplica != null ? otherReplica : datasource, answers);
+            if (!tryExecute(execution)) {
+                return null;
+            }
+            datasource.getMetrics().readHedged();
+            return execution;
+        }
+
+        private boolean tryExecute(Execution execution) {
+            try {
+                ReadHedger.EXECUTORS.execute(execution);
+                return true;
+            } catch (RejectedExecutionException e) {
+                // All the hedging threads are busy
+                return false;
+            }
+        }
+
+        private ResultSet accept(Execution answer, Execution loser) throws SQLException {
+            if (loser != null) {
+                loser.abandon();
+            }
+            if (answer.error != null) {
+                throw answer.error;
+            }
+            connections.add(answer.connection);
+            statement = answer.statement;
+            return answer.resultSet;
+        }
+
+        private PreparedStatement getStatement() throws SQLException {
+            if (statement == null) {
+                statement = (PreparedStatement) invokeOn(getConnection(), prepareMethod, prepareArgs);
+                for (Object[] invocation : invocations) {
+                    invokeOn(statement, (Method) invocation[0], (Object[]) invocation[1]);
+                }
+            }
+            return statement;
+        }
+
+        /**
+         * Execution of the query on a connection of its own. An abandoned execution is cancelled if it is still
+         * running, and releases its connection once it completes, which may be long after the action has returned
+         * when it is waiting for a connection.
+         */
+        private class Execution implements Runnable {
+
+            private final JDBCDatasource target;
+            private final BlockingQueue<Execution> answers;
+            private Connection connection;
+            private PreparedStatement statement;
+            private ResultSet resultSet;
+            private SQLException error;
+            private boolean completed;
+            private boolean abandoned;
+            private boolean released;
+
+            private Execution(JDBCDatasource target, BlockingQueue<Execution> answers) {
+                this.target = target;
+                this.answers = answers;
+            }
+
+            @Override
+            public void run() {
+                // The execution is already routed, hence it is not read only for the datasource it borrows from
+                StatementOptions actionOptions = StatementOptions.get();
+                StatementOptions executionOptions = new StatementOptions();
+                executionOptions.setFetchSize(options.getFetchSize());
+                executionOptions.setQueryTimeout(options.getQueryTimeout());
+                executionOptions.setQuery(true);
+                executionOptions.setColumnar(options.isColumnar());
+                StatementOptions.set(executionOptions);
+                long startTime = System.nanoTime();
+                try {
+                    connection = target.borrowConnection();
+                    PreparedStatement preparedStatement = (PreparedStatement) invokeOn(connection, prepareMethod,
+                            prepareArgs);
+                    for (Object[] invocation : invocations) {
+                        invokeOn(preparedStatement, (Method) invocation[0], (Object[]) invocation[1]);
+                    }
+                    synchronized (this) {
+                        statement = preparedStatement;
+                        if (abandoned) {
+                            release();
+                            return;
+                        }
+                    }
+                    resultSet = statement.executeQuery();
+                    hedger.executed(System.nanoTime() - startTime);
+                } catch (SQLException e) {
+                    error = e;
+                } catch (RuntimeException e) {
+                    error = new SQLException(e.getMessage(), e);
+                } finally {
+                    if (actionOptions != null) {
+                        StatementOptions.set(actionOptions);
+                    } else {
+                        StatementOptions.clear();
+                    }
+                }
+                synchronized (this) {
+                    completed = true;
+                    if (abandoned || error != null) {
+                        release();
+                    }
+                    if (abandoned) {
+                        return;
+                    }
+                }
+                answers.add(this);
+            }
+
+            private void abandon() {
+                PreparedStatement runningStatement;
+                synchronized (this) {
+                    abandoned = true;
+                    if (completed) {
+                        release();
+                        return;
+                    }
+                    runningStatement = statement;
+                }
+                cancel(runningStatement);
+            }
+
+            private void cancel(PreparedStatement runningStatement) {
+                if (runningStatement != null) {
+                    try {
+                        runningStatement.cancel();
+                    } catch (SQLException ignore) {
+                        // The statement is closed once its execution completes
+                    }
+                }
+            }
+
+            private synchronized void release() {
+                if (released) {
+                    return;
+                }
+                released = true;
+                closeQuietly(resultSet);
+                closeQuietly(statement);
+                closeQuietly(connection);
+            }
+        }
+    }
+}
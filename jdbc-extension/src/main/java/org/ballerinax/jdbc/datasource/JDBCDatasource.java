@@ -0,0 +1,558 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinalang.connector.api.Struct;
+import org.ballerinalang.connector.api.Value;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.ballerinax.jdbc.Constants;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.XADataSource;
+
+/**
+ * {@link SQLDatasource} created for a JDBC client endpoint. Instances are shared through the
+ * {@link DatasourceRegistry}, hence closing the connection pool only releases the reference held by one endpoint.
+ *
+ * @since 0.982.1
+ */
+public class JDBCDatasource extends SQLDatasource {
+
+    static final String EAGER = "EAGER";
+    static final String LAZY = "LAZY";
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final int DEFAULT_VALIDATION_TIMEOUT = 5000;
+    private static final String HIKARI_CONFIG_BEAN = "com.zaxxer.hikari.HikariConfigMXBean";
+
+    private final String key;
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final StatementCache.Statistics statementCacheStatistics = new StatementCache.Statistics();
+    private int statementCacheSize;
+    private int batchChunkSize;
+    private boolean rewriteBatchedInserts;
+    private ActionExecutor actionExecutor;
+    private AdmissionController admissionController;
+    private ClientMetrics metrics;
+    private String loadBalancingPolicy;
+    private volatile ReplicaRouter replicaRouter;
+    private ResultCache resultCache;
+    private boolean columnarTables;
+    private int queryTimeout;
+    private int poolSize;
+    private boolean onePhaseCommit;
+    private boolean parallelXACompletion;
+    private WriteCoalescer writeCoalescer;
+    private SelectCollapser selectCollapser;
+    private ReadHedger readHedger;
+    private SlowQueryLog slowQueryLog;
+    private AdaptivePoolSizer poolSizer;
+    private Runnable poolInitializer;
+    private volatile boolean poolInitialized;
+    private boolean poolClosed;
+    private int referenceCount;
+
+    JDBCDatasource(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Initializes the underlying connection pool from the given endpoint configuration. With the lazy startup mode
+     * the pool is created when it is first used, and with the eager startup mode the minimum number of idle
+     * connections are opened and validated before returning.
+     *
+     * @param clientEndpointConfig the {@code ClientEndpointConfiguration} of the endpoint
+     */
+    void init(Struct clientEndpointConfig) {
+        String url = clientEndpointConfig.getStringField(Constants.EndpointConfig.URL);
+        String username = clientEndpointConfig.getStringField(Constants.EndpointConfig.USERNAME);
+        String password = clientEndpointConfig.getStringField(Constants.EndpointConfig.PASSWORD);
+        Struct options = clientEndpointConfig.getStructField(Constants.EndpointConfig.POOL_OPTIONS);
+        Map<String, Value> dbOptions = clientEndpointConfig.getMapField(Constants.EndpointConfig.DB_OPTIONS);
+        statementCacheSize = (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.STATEMENT_CACHE_SIZE);
+        batchChunkSize = (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.BATCH_CHUNK_SIZE);
+        rewriteBatchedInserts = clientEndpointConfig.getBooleanField(
+                Constants.EndpointConfig.REWRITE_BATCHED_INSERTS);
+        loadBalancingPolicy = clientEndpointConfig.getStringField(Constants.EndpointConfig.LOAD_BALANCING_POLICY);
+        long resultCacheTtl = clientEndpointConfig.getIntField(Constants.EndpointConfig.RESULT_CACHE_TTL);
+        if (resultCacheTtl > 0) {
+            resultCache = new ResultCache(resultCacheTtl,
+                    clientEndpointConfig.getIntField(Constants.EndpointConfig.RESULT_CACHE_MAX_BYTES));
+        }
+        columnarTables = clientEndpointConfig.getBooleanField(Constants.EndpointConfig.COLUMNAR_TABLES);
+        queryTimeout = (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.QUERY_TIMEOUT);
+        int maximumPoolSize = (int) options.getIntField(Constants.PoolOptions.MAXIMUM_POOL_SIZE);
+        poolSize = maximumPoolSize > 0 ? maximumPoolSize : DEFAULT_POOL_SIZE;
+        onePhaseCommit = clientEndpointConfig.getBooleanField(Constants.EndpointConfig.ONE_PHASE_COMMIT);
+        parallelXACompletion = clientEndpointConfig.getBooleanField(Constants.EndpointConfig.PARALLEL_XA_COMPLETION);
+        int writeCoalescingBatchSize = (int) clientEndpointConfig.getIntField(
+                Constants.EndpointConfig.WRITE_COALESCING_BATCH_SIZE);
+        if (writeCoalescingBatchSize > 1) {
+            writeCoalescer = new WriteCoalescer(this, writeCoalescingBatchSize,
+                    clientEndpointConfig.getIntField(Constants.EndpointConfig.WRITE_COALESCING_WINDOW), poolSize);
+        }
+        long slowQueryThreshold = clientEndpointConfig.getIntField(Constants.EndpointConfig.SLOW_QUERY_THRESHOLD);
+        if (slowQueryThreshold >= 0) {
+            slowQueryLog = new SlowQueryLog(slowQueryThreshold,
+                    clientEndpointConfig.getFloatField(Constants.EndpointConfig.SLOW_QUERY_SAMPLE_RATE),
+                    (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.SLOW_QUERY_LOG_SIZE));
+        }
+        metrics = new ClientMetrics(url);
+        if (clientEndpointConfig.getBooleanField(Constants.EndpointConfig.COLLAPSE_SELECTS)) {
+            int collapsedResultMaxRows = (int) clientEndpointConfig.getIntField(
+                    Constants.EndpointConfig.COLLAPSED_RESULT_MAX_ROWS);
+            selectCollapser = new SelectCollapser(collapsedResultMaxRows, metrics);
+        }
+        if (clientEndpointConfig.getBooleanField(Constants.EndpointConfig.HEDGE_READS)) {
+            readHedger = new ReadHedger(clientEndpointConfig.getFloatField(Constants.EndpointConfig.HEDGE_PERCENTILE),
+                    clientEndpointConfig.getFloatField(Constants.EndpointConfig.HEDGE_BUDGET));
+        }
+        boolean adaptivePoolSizing = clientEndpointConfig.getBooleanField(
+                Constants.EndpointConfig.ADAPTIVE_POOL_SIZING);
+        int minimumPoolSize = (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.MINIMUM_POOL_SIZE);
+        long targetAcquireTime = clientEndpointConfig.getIntField(Constants.EndpointConfig.TARGET_ACQUIRE_TIME);
+        poolInitializer = () -> {
+            init(options, url, "", "", 0, username, password, "", "", dbOptions);
+            metrics.bindPool(this);
+            if (adaptivePoolSizing) {
+                startPoolSizer(options, minimumPoolSize, targetAcquireTime);
+            }
+        };
+        String startupMode = clientEndpointConfig.getStringField(Constants.EndpointConfig.STARTUP_MODE);
+        if (!LAZY.equals(startupMode)) {
+            initPool();
+            if (EAGER.equals(startupMode)) {
+                warmUp(options);
+            }
+        }
+        int workerPoolSize = (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.WORKER_POOL_SIZE);
+        if (clientEndpointConfig.getBooleanField(Constants.EndpointConfig.USE_VIRTUAL_THREADS)) {
+            actionExecutor = ActionExecutor.createVirtualThreadExecutor();
+        }
+        if (actionExecutor == null && workerPoolSize > 0) {
+            actionExecutor = new ActionExecutor(workerPoolSize,
+                    (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.WORKER_QUEUE_SIZE));
+        }
+        int maxConcurrentActions = (int) clientEndpointConfig.getIntField(
+                Constants.EndpointConfig.MAX_CONCURRENT_ACTIONS);
+        if (maxConcurrentActions > 0) {
+            admissionController = new AdmissionController(maxConcurrentActions,
+                    (int) clientEndpointConfig.getIntField(Constants.EndpointConfig.MAX_QUEUED_ACTIONS),
+                    clientEndpointConfig.getIntField(Constants.EndpointConfig.ADMISSION_TIMEOUT), actionExecutor);
+        }
+    }
+
+    /**
+     * Creates the connection pool unless it is already created.
+     */
+    private void initPool() {
+        if (!poolInitialized) {
+            synchronized (this) {
+                if (poolClosed) {
+                    throw new BallerinaException("the JDBC client is stopped");
+                }
+                if (!poolInitialized) {
+                    poolInitializer.run();
+                    poolInitialized = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts adapting the maximum size of the pool to the load. HikariCP, which the SQL connector does not expose,
+     * allows the maximum size to be changed through its configuration bean while the pool is running. The minimum
+     * number of idle connections is kept within the maximum size so that idle connections beyond it are retired.
+     */
+    private void startPoolSizer(Struct poolOptions, int minimumPoolSize, long targetAcquireTime) {
+        int maximumPoolSize = (int) poolOptions.getIntField(Constants.PoolOptions.MAXIMUM_POOL_SIZE);
+        int minimumIdle = (int) poolOptions.getIntField(Constants.PoolOptions.MINIMUM_IDLE);
+        int poolSize = maximumPoolSize > 0 ? maximumPoolSize : DEFAULT_POOL_SIZE;
+        int idleConnections = minimumIdle > 0 ? Math.min(minimumIdle, poolSize) : poolSize;
+        Object configBean;
+        Method setMaximumPoolSize;
+        Method setMinimumIdle;
+        try {
+            Object hikariDatasource = ClientMetrics.findHikariDatasource(this);
+            if (hikariDatasource == null) {
+                throw new BallerinaException("adaptive pool sizing is not supported by the connection pool");
+            }
+            configBean = hikariDatasource.getClass().getMethod("getHikariConfigMXBean").invoke(hikariDatasource);
+            Class<?> beanType = Class.forName(HIKARI_CONFIG_BEAN, false, configBean.getClass().getClassLoader());
+            setMaximumPoolSize = beanType.getMethod("setMaximumPoolSize", int.class);
+            setMinimumIdle = beanType.getMethod("setMinimumIdle", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new BallerinaException("adaptive pool sizing is not supported by the connection pool", e);
+        }
+        poolSizer = new AdaptivePoolSizer(metrics, limit -> {
+            try {
+                setMinimumIdle.invoke(configBean, Math.min(idleConnections, limit));
+                setMaximumPoolSize.invoke(configBean, limit);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("error while resizing the connection pool", e);
+            }
+        }, minimumPoolSize, poolSize, targetAcquireTime);
+        poolSizer.start();
+    }
+
+    /**
+     * Opens and validates the minimum number of idle connections of the pool in parallel. The pool keeps the
+     * connections once they are returned.
+     */
+    private void warmUp(Struct poolOptions) {
+        int maximumPoolSize = (int) poolOptions.getIntField(Constants.PoolOptions.MAXIMUM_POOL_SIZE);
+        int minimumIdle = (int) poolOptions.getIntField(Constants.PoolOptions.MINIMUM_IDLE);
+        int poolSize = maximumPoolSize > 0 ? maximumPoolSize : DEFAULT_POOL_SIZE;
+        int connectionCount = minimumIdle > 0 ? Math.min(minimumIdle, poolSize) : poolSize;
+        long validationTimeout = poolOptions.getIntField(Constants.PoolOptions.VALIDATION_TIMEOUT);
+        int validationTimeoutSeconds = (int) Math.max(1, (validationTimeout > 0 ? validationTimeout
+                : DEFAULT_VALIDATION_TIMEOUT) / 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(connectionCount, runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Connection>> connections = new ArrayList<>(connectionCount);
+        BallerinaException failure = null;
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                connections.add(executor.submit(() -> openValidatedConnection(validationTimeoutSeconds)));
+            }
+            for (Future<Connection> connection : connections) {
+                connection.get();
+            }
+        } catch (ExecutionException e) {
+            failure = new BallerinaException("error while warming up the connection pool: "
+                    + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new BallerinaException("interrupted while warming up the connection pool", e);
+        } finally {
+            executor.shutdown();
+            connections.forEach(JDBCDatasource::closeQuietly);
+        }
+        if (failure != null) {
+            closePool();
+            throw failure;
+        }
+    }
+
+    private Connection openValidatedConnection(int validationTimeoutSeconds) throws SQLException {
+        Connection connection = super.getSQLConnection();
+        if (!connection.isValid(validationTimeoutSeconds)) {
+            connection.close();
+            throw new SQLException("connection validation failed");
+        }
+        return connection;
+    }
+
+    private static void closeQuietly(Future<Connection> connection) {
+        try {
+            connection.get().close();
+        } catch (ExecutionException | SQLException ignore) {
+            // The connection could not be opened or is discarded by the pool
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sets up the replicas serving the read only actions, unless another endpoint sharing the datasource already did.
+     */
+    synchronized void initReplicas(Supplier<List<JDBCDatasource>> replicas) {
+        if (replicaRouter == null) {
+            replicaRouter = new ReplicaRouter(replicas.get(), loadBalancingPolicy);
+        }
+    }
+
+    /**
+     * Returns a connection from the pool which applies the {@link StatementOptions} of the executing action to the
+     * statements prepared on it. Read only actions which may be served from the result cache, or collapsed with
+     * identical ones, get a connection which borrows from the pool only if the result is not served otherwise.
+     */
+    @Override
+    public Connection getSQLConnection() {
+        StatementOptions options = StatementOptions.get();
+        if ((resultCache != null || selectCollapser != null) && options != null && options.isReadOnly()
+                && !options.isStreaming() && options.getPartitioning() == null) {
+            return CachingConnectionHandler.wrap(this, resultCache, selectCollapser);
+        }
+        return borrowConnection();
+    }
+
+    /**
+     * Borrows a connection from the pool. Connections for read only actions are taken from a replica, if there are
+     * any, and the queries of select actions are hedged across the replicas when hedged reads are enabled.
+     */
+    Connection borrowConnection() {
+        StatementOptions options = StatementOptions.get();
+        ReplicaRouter router = replicaRouter;
+        if (router != null && options != null && options.isReadOnly()) {
+            if (readHedger != null && options.isQuery() && !options.isStreaming()
+                    && options.getPartitioning() == null) {
+                return HedgingConnectionHandler.wrap(this, router, readHedger, options);
+            }
+            return router.next().borrowConnection();
+        }
+        long startTime = System.nanoTime();
+        metrics.connectionRequested();
+        Connection connection;
+        try {
+            initPool();
+            connection = super.getSQLConnection();
+        } catch (RuntimeException e) {
+            metrics.connectionFailed();
+            throw e;
+        }
+        long acquireTime = System.nanoTime() - startTime;
+        metrics.connectionAcquired(acquireTime);
+        return ConnectionHandler.wrap(connection, this, acquireTime);
+    }
+
+    /**
+     * Returns the XA datasource of the pool, of which the XA resources take part in transactions as {@link XABranch}
+     * instances.
+     */
+    @Override
+    public XADataSource getXADataSource() {
+        initPool();
+        XADataSource xaDataSource = super.getXADataSource();
+        return xaDataSource == null ? null : XABranch.wrap(xaDataSource, metrics, onePhaseCommit,
+                parallelXACompletion);
+    }
+
+    @Override
+    public boolean isXAConnection() {
+        initPool();
+        return super.isXAConnection();
+    }
+
+    @Override
+    public String getDatabaseProductName() {
+        initPool();
+        return super.getDatabaseProductName();
+    }
+
+    @Override
+    public String getDatabaseName() {
+        initPool();
+        return super.getDatabaseName();
+    }
+
+    @Override
+    public String getPeerAddress() {
+        initPool();
+        return super.getPeerAddress();
+    }
+
+    /**
+     * Returns the deadline, in {@link System#nanoTime()} terms, of the statements of the action executing on the
+     * current thread, as set by its own query timeout or else by the query timeout of the client in milliseconds, or
+     * 0 if they are not timed out.
+     */
+    long getQueryDeadline() {
+        StatementOptions options = StatementOptions.get();
+        long actionQueryTimeout = options != null && options.getQueryTimeout() > 0
+                ? options.getQueryTimeout() : queryTimeout;
+        if (actionQueryTimeout <= 0) {
+            return 0;
+        }
+        long startTime = options != null ? options.getStartTime() : System.nanoTime();
+        return startTime + TimeUnit.MILLISECONDS.toNanos(actionQueryTimeout);
+    }
+
+    /**
+     * Returns the number of connections which the pool lends at most, as currently limited by the adaptive pool
+     * sizing if enabled.
+     */
+    int getMaximumPoolSize() {
+        int poolSizeLimit = metrics.getPoolSizeLimit();
+        return poolSizeLimit > 0 ? poolSizeLimit : poolSize;
+    }
+
+    int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Returns the prepared statement cache of the given physical connection. The cached statements refer to their
+     * connection, hence the caches of the connections closed by the pool are discarded explicitly whenever the cache
+     * of a new connection is created, as the pool opens connections to replace the ones it closes.
+     */
+    StatementCache getStatementCache(Connection physicalConnection) {
+        StatementCache cache = statementCaches.get(physicalConnection);
+        if (cache == null) {
+            discardClosedStatementCaches();
+            cache = statementCaches.computeIfAbsent(physicalConnection,
+                    connection -> new StatementCache(statementCacheSize, statementCacheStatistics));
+        }
+        return cache;
+    }
+
+    private void discardClosedStatementCaches() {
+        for (Map.Entry<Connection, StatementCache> entry : statementCaches.entrySet()) {
+            if (isClosed(entry.getKey()) && statementCaches.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().close();
+            }
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    int getBatchChunkSize() {
+        return batchChunkSize;
+    }
+
+    boolean isRewriteBatchedInserts() {
+        return rewriteBatchedInserts;
+    }
+
+    /**
+     * Returns the executor on which the actions of the client are executed, or {@code null} if the actions are
+     * executed on the calling Ballerina worker.
+     */
+    public ActionExecutor getActionExecutor() {
+        return actionExecutor;
+    }
+
+    /**
+     * Returns the controller limiting the actions of the client executed at once, or {@code null} if the actions are
+     * not limited.
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Returns the coalescer of the updates of the client, or {@code null} if the updates are not coalesced.
+     */
+    public WriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    public StatementCache.Statistics getStatementCacheStatistics() {
+        return statementCacheStatistics;
+    }
+
+    /**
+     * Discards the cached results of the queries reading any of the given tables.
+     *
+     * @param tables the tables written to, or {@code null} to discard all the cached results
+     */
+    void invalidateResultCache(Set<String> tables) {
+        if (resultCache != null) {
+            resultCache.invalidate(tables);
+        }
+    }
+
+    boolean hasResultCache() {
+        return resultCache != null;
+    }
+
+    /**
+     * Returns the log of the slow statements of the client, or {@code null} if slow statements are not logged.
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Returns the result cache of the client, or {@code null} if results are not cached.
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Returns whether the results loaded to memory are stored in columns of primitive values.
+     */
+    public boolean isColumnarTables() {
+        return columnarTables;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int retain() {
+        return ++referenceCount;
+    }
+
+    int release() {
+        return referenceCount > 0 ? --referenceCount : 0;
+    }
+
+    /**
+     * Releases the reference held by the calling endpoint. The pool is closed once no endpoint refers to it.
+     */
+    @Override
+    public void closeConnectionPool() {
+        DatasourceRegistry.release(this);
+    }
+
+    void closePool() {
+        MetricsRegistry.unregister(this);
+        if (replicaRouter != null) {
+            replicaRouter.getReplicas().forEach(DatasourceRegistry::release);
+        }
+        if (actionExecutor != null) {
+            actionExecutor.shutdown();
+        }
+        if (writeCoalescer != null) {
+            writeCoalescer.shutdown();
+        }
+        if (admissionController != null) {
+            admissionController.shutdown();
+        }
+        if (poolSizer != null) {
+            poolSizer.stop();
+        }
+        synchronized (this) {
+            poolClosed = true;
+            if (poolInitialized) {
+                super.closeConnectionPool();
+            }
+        }
+        statementCaches.values().forEach(StatementCache::close);
+        statementCaches.clear();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with exponentially growing buckets, where bucket {@code i} counts the latencies below
+ * {@code 2^i} microseconds. Recording a latency is lock free and allocation free, so that it can be kept enabled in
+ * production. Percentiles are estimated as the upper bound of the bucket they fall into.
+ *
+ * @since 0.982.1
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 40;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Long::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        buckets[Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+        count.increment();
+        totalTime.add(nanos);
+        maxTime.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded latencies in nanoseconds.
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * Returns the mean latency in milliseconds.
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : totalTime.sum() / (recorded * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Returns the maximum latency in milliseconds.
+     */
+    public double getMax() {
+        return maxTime.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the estimated latency in milliseconds below which the given percentage of the latencies fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     */
+    public double getPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        int bucket = 0;
+        for (long seen = counts[0]; seen < rank && bucket < BUCKET_COUNT - 1; seen += counts[bucket]) {
+            bucket++;
+        }
+        return Math.min((1L << bucket) / 1000.0, getMax());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+
+/**
+ * Presents a limited number of rows of a result as a result of its own, so that a row set can be populated from it
+ * without consuming the row after the limit. Closing the limited result leaves the result open.
+ *
+ * @since 0.982.1
+ */
+final class LimitedResultSet implements InvocationHandler {
+
+    private final ResultSet resultSet;
+    private final ResultSet proxy;
+    private int remaining;
+    private boolean exhausted;
+
+    LimitedResultSet(ResultSet resultSet) {
+        this.resultSet = resultSet;
+        proxy = (ResultSet) Proxy.newProxyInstance(LimitedResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, this);
+    }
+
+    /**
+     * Returns the result limited to the given number of rows following the rows read so far.
+     */
+    ResultSet limit(int rowCount) {
+        remaining = rowCount;
+        return proxy;
+    }
+
+    /**
+     * Returns whether all the rows of the result are read.
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "next":
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            exhausted = !resultSet.next();
+            return !exhausted;
+        case "close":
+            return null;
+        default:
+            try {
+                return method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
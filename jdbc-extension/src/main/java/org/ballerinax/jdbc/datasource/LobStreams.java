@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Opens streams over a large object selected by a query, so that its content is read from the database as the stream
+ * is consumed instead of being loaded into memory. The connection executing the query is held until the stream is
+ * closed.
+ *
+ * @since 0.982.1
+ */
+public final class LobStreams {
+
+    private LobStreams() {
+    }
+
+    /**
+     * Opens a stream over the binary value of the first column of the first row selected by a query. The value is
+     * read through {@link Blob#getBinaryStream()} for {@code BLOB} columns.
+     *
+     * @param datasource the datasource to execute the query on
+     * @param sql        the query
+     * @param parameters the parameter values of the query
+     * @param types      the {@link Types} of the parameters
+     * @return the stream, which is empty if the value is null
+     */
+    public static InputStream openBinaryStream(JDBCDatasource datasource, String sql, Object[] parameters,
+                                               int[] types) throws SQLException {
+        return open(datasource, sql, parameters, types, resultSet -> {
+            InputStream stream;
+            if (resultSet.getMetaData().getColumnType(1) == Types.BLOB) {
+                Blob blob = resultSet.getBlob(1);
+                stream = blob == null ? null : blob.getBinaryStream();
+            } else {
+                stream = resultSet.getBinaryStream(1);
+            }
+            return stream == null ? new ByteArrayInputStream(new byte[0]) : stream;
+        }, (stream, resources) -> new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    resources.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens a reader over the character value of the first column of the first row selected by a query. The value
+     * is read through {@link Clob#getCharacterStream()} for {@code CLOB} columns.
+     *
+     * @param datasource the datasource to execute the query on
+     * @param sql        the query
+     * @param parameters the parameter values of the query
+     * @param types      the {@link Types} of the parameters
+     * @return the reader, which is empty if the value is null
+     */
+    public static Reader openCharacterStream(JDBCDatasource datasource, String sql, Object[] parameters,
+                                             int[] types) throws SQLException {
+        return open(datasource, sql, parameters, types, resultSet -> {
+            Reader reader;
+            int type = resultSet.getMetaData().getColumnType(1);
+            if (type == Types.CLOB || type == Types.NCLOB) {
+                Clob clob = resultSet.getClob(1);
+                reader = clob == null ? null : clob.getCharacterStream();
+            } else {
+                reader = resultSet.getCharacterStream(1);
+            }
+            return reader == null ? new StringReader("") : reader;
+        }, (reader, resources) -> new FilterReader(reader) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    resources.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes the query and opens a stream over the value of its first row. The query is streamed from the
+     * database, hence not served by the result cache.
+     */
+    private static <T> T open(JDBCDatasource datasource, String sql, Object[] parameters, int[] types,
+                              ValueReader<T> valueReader, StreamWrapper<T> streamWrapper) throws SQLException {
+        StatementOptions options = new StatementOptions();
+        options.setFetchSize(1);
+        options.setReadOnly(true);
+        options.setQuery(true);
+        StatementOptions.set(options);
+        Resources resources = new Resources();
+        try {
+            resources.connection = datasource.getSQLConnection();
+            resources.statement = resources.connection.prepareStatement(sql);
+            Pipeline.bind(resources.statement, 1, parameters, types);
+            resources.resultSet = resources.statement.executeQuery();
+            if (!resources.resultSet.next()) {
+                throw new SQLException("no rows returned by the query");
+            }
+            return streamWrapper.wrap(valueReader.read(resources.resultSet), resources);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                resources.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        } finally {
+            StatementOptions.clear();
+        }
+    }
+
+    /**
+     * Reads the value of the current row of a result set as a stream.
+     */
+    private interface ValueReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Wraps a stream so that the resources of the query are released once it is closed.
+     */
+    private interface StreamWrapper<T> {
+        T wrap(T stream, Resources resources);
+    }
+
+    /**
+     * The connection, statement and result set held while a stream is open.
+     */
+    private static class Resources {
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+
+        void close() throws IOException {
+            IOException error = null;
+            for (AutoCloseable resource : new AutoCloseable[]{resultSet, statement, connection}) {
+                try {
+                    if (resource != null) {
+                        resource.close();
+                    }
+                } catch (Exception e) {
+                    if (error == null) {
+                        error = new IOException("failed to release the query of the stream", e);
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+            resultSet = null;
+            statement = null;
+            connection = null;
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
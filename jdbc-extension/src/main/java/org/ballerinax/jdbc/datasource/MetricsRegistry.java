@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide registry of the metrics of the active JDBC client datasources, for reporting them from Java.
+ *
+ * @since 0.982.1
+ */
+public class MetricsRegistry {
+
+    private static final Set<ClientMetrics> METRICS = ConcurrentHashMap.newKeySet();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Registers the metrics of the given datasource. Registering the datasource shared by several endpoints more than
+     * once has no effect.
+     */
+    public static void register(JDBCDatasource datasource) {
+        METRICS.add(datasource.getMetrics());
+    }
+
+    static void unregister(JDBCDatasource datasource) {
+        METRICS.remove(datasource.getMetrics());
+    }
+
+    /**
+     * Returns the metrics of the datasources currently in use.
+     */
+    public static Collection<ClientMetrics> getMetrics() {
+        return new ArrayList<>(METRICS);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single row {@code INSERT INTO ... VALUES (...)} statement which can be rewritten to insert several rows at once.
+ *
+ * @since 0.982.1
+ */
+final class MultiRowInsert {
+
+    private static final Pattern INSERT_PREFIX = Pattern.compile("^\\s*INSERT\\s+INTO\\s+[^?]+?\\s+VALUES\\s*\\(",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final String prefix;
+    private final String values;
+    private final int parameterCount;
+
+    private MultiRowInsert(String prefix, String values, int parameterCount) {
+        this.prefix = prefix;
+        this.values = values;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Returns the rewritable form of the given statement, or {@code null} if the statement is not a parameterized
+     * single row insert.
+     */
+    static MultiRowInsert parse(String sql) {
+        Matcher matcher = INSERT_PREFIX.matcher(sql);
+        if (!matcher.lookingAt()) {
+            return null;
+        }
+        int start = matcher.end() - 1;
+        int depth = 0;
+        int parameterCount = 0;
+        char quote = 0;
+        for (int i = start; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                parameterCount++;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                String remainder = sql.substring(i + 1).trim();
+                if (parameterCount == 0 || !(remainder.isEmpty() || remainder.equals(";"))) {
+                    return null;
+                }
+                return new MultiRowInsert(sql.substring(0, start), sql.substring(start, i + 1), parameterCount);
+            }
+        }
+        return null;
+    }
+
+    int getParameterCount() {
+        return parameterCount;
+    }
+
+    String getSQL(int rowCount) {
+        StringBuilder sql = new StringBuilder(prefix.length() + (values.length() + 1) * rowCount).append(prefix);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(values);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Reads the partitions of a query concurrently, each on its own connection borrowed from the pool, and merges their
+ * rows into one forward only result. The partitions are streamed from the database and handed over in batches
+ * through bounded queues, so that the memory held by the result does not depend on its size: the readers wait while
+ * the queues are full. In order the partitions are merged one after the other, each with its own queue; otherwise the
+ * batches are merged as they arrive through a queue shared by the partitions.
+ * <p>
+ * The partitions are started in their order and at most as many are read at a time as the connections which the
+ * pool can lend besides the coordinating one, so that a partition merged in order never waits for a connection held
+ * by the partitions after it.
+ *
+ * @since 0.982.1
+ */
+class PartitionedResultSet implements InvocationHandler {
+
+    static final int BATCH_SIZE = 1000;
+    private static final int ORDERED_QUEUE_CAPACITY = 2;
+    private static final long OFFER_INTERVAL = 100;
+    private static final Object END = new Object();
+    static final RowSetFactory ROW_SET_FACTORY;
+    private static final AtomicInteger READER_COUNT = new AtomicInteger();
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-partition-reader-" + READER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        try {
+            ROW_SET_FACTORY = RowSetProvider.newFactory();
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final JDBCDatasource datasource;
+    private final String[] queries;
+    private final Binder binder;
+    private final StatementOptions readerOptions;
+    private final CachedRowSet emptyResult;
+    private final Statement statement;
+    private final boolean ordered;
+    private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+    private final Semaphore readerSlots;
+    private final Set<Statement> runningStatements = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private CachedRowSet batch;
+    private int mergedPartitions;
+
+    /**
+     * Binds the parameters of the query of a partition.
+     */
+    interface Binder {
+        void bind(PreparedStatement statement, int partition) throws SQLException;
+    }
+
+    private PartitionedResultSet(JDBCDatasource datasource, String[] queries, Binder binder,
+                                 StatementOptions options, CachedRowSet emptyResult, Statement statement,
+                                 boolean ordered) {
+        this.datasource = datasource;
+        this.queries = queries;
+        this.binder = binder;
+        this.emptyResult = emptyResult;
+        this.statement = statement;
+        this.ordered = ordered;
+        readerOptions = new StatementOptions();
+        readerOptions.setFetchSize(BATCH_SIZE);
+        readerOptions.setQueryTimeout(options.getQueryTimeout());
+        readerOptions.setReadOnly(options.isReadOnly());
+        readerOptions.setQuery(true);
+        int readers = Math.min(queries.length, Math.max(1, datasource.getMaximumPoolSize() - 1));
+        readerSlots = new Semaphore(readers);
+        if (ordered) {
+            for (int i = 0; i < queries.length; i++) {
+                queues.add(new ArrayBlockingQueue<>(ORDERED_QUEUE_CAPACITY));
+            }
+        } else {
+            queues.add(new ArrayBlockingQueue<>(readers));
+        }
+    }
+
+    /**
+     * Starts reading the partitions of a query and returns their merged result.
+     *
+     * @param queries     the queries of the partitions
+     * @param binder      binds the parameters of the queries of the partitions
+     * @param options     the options of the action executing the query
+     * @param emptyResult an empty result of the query, which provides the metadata of the merged result
+     * @param statement   the statement which created the result
+     * @param ordered     whether the partitions are merged in their order
+     */
+    static ResultSet open(JDBCDatasource datasource, String[] queries, Binder binder, StatementOptions options,
+                          CachedRowSet emptyResult, Statement statement, boolean ordered) {
+        PartitionedResultSet handler = new PartitionedResultSet(datasource, queries, binder, options, emptyResult,
+                statement, ordered);
+        READERS.execute(handler::startReaders);
+        return (ResultSet) Proxy.newProxyInstance(PartitionedResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, handler);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "next":
+            return next();
+        case "getMetaData":
+            return emptyResult.getMetaData();
+        case "getStatement":
+            return statement;
+        case "getType":
+            return ResultSet.TYPE_FORWARD_ONLY;
+        case "getConcurrency":
+            return ResultSet.CONCUR_READ_ONLY;
+        case "isClosed":
+            return closed;
+        case "close":
+            close();
+            return null;
+        default:
+            try {
+                return method.invoke(batch != null ? batch : emptyResult, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private boolean next() throws SQLException {
+        if (closed) {
+            throw new SQLException("the result is closed");
+        }
+        while (batch == null || !batch.next()) {
+            batch = null;
+            Object item = take();
+            if (item == null) {
+                return false;
+            }
+            if (item instanceof Throwable) {
+                close();
+                throw item instanceof SQLException ? (SQLException) item
+                        : new SQLException("error while reading a partition", (Throwable) item);
+            }
+            batch = (CachedRowSet) item;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the next batch of rows, or the failure of a partition, from the queues. Returns {@code null} once all the
+     * partitions are merged.
+     */
+    private Object take() throws SQLException {
+        try {
+            while (mergedPartitions < queries.length) {
+                Object item = queues.get(ordered ? mergedPartitions : 0).take();
+                if (item != END) {
+                    return item;
+                }
+                mergedPartitions++;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while reading the partitions", e);
+        }
+    }
+
+    /**
+     * Stops the readers. The running queries are cancelled and the queued batches dropped, so that the readers
+     * waiting on the queues notice that the result is closed.
+     */
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        batch = null;
+        for (Statement runningStatement : runningStatements) {
+            try {
+                runningStatement.cancel();
+            } catch (SQLException ignored) {
+                // The query finishes on its own.
+            }
+        }
+        for (BlockingQueue<Object> queue : queues) {
+            queue.clear();
+        }
+    }
+
+    private void startReaders() {
+        for (int i = 0; i < queries.length; i++) {
+            try {
+                readerSlots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (closed) {
+                return;
+            }
+            int partition = i;
+            READERS.execute(() -> read(partition));
+        }
+    }
+
+    private void read(int partition) {
+        BlockingQueue<Object> queue = queues.get(ordered ? partition : 0);
+        Object end = END;
+        StatementOptions.set(readerOptions);
+        try (Connection connection = datasource.borrowConnection();
+             PreparedStatement partitionStatement = connection.prepareStatement(queries[partition])) {
+            runningStatements.add(partitionStatement);
+            binder.bind(partitionStatement, partition);
+            try (ResultSet resultSet = partitionStatement.executeQuery()) {
+                LimitedResultSet limitedResult = new LimitedResultSet(resultSet);
+                while (!limitedResult.isExhausted() && !closed) {
+                    CachedRowSet rows = ROW_SET_FACTORY.createCachedRowSet();
+                    rows.populate(limitedResult.limit(BATCH_SIZE));
+                    if (rows.size() > 0 && !offer(queue, rows)) {
+                        break;
+                    }
+                }
+            } finally {
+                runningStatements.remove(partitionStatement);
+            }
+        } catch (Throwable e) {
+            end = e;
+        } finally {
+            StatementOptions.clear();
+            offer(queue, end);
+            readerSlots.release();
+        }
+    }
+
+    /**
+     * Hands over an item to the merged result, waiting while the queue is full. Returns {@code false} if the result
+     * is closed in the meantime.
+     */
+    private boolean offer(BlockingQueue<Object> queue, Object item) {
+        try {
+            while (!queue.offer(item, OFFER_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return false;
+                }
+            }
+            return !closed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
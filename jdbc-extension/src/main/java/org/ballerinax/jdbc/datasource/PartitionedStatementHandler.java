@@ -0,0 +1,240 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Executes the query prepared by the SQL connector for a partitioned select as the queries of its partitions, read
+ * by a {@link PartitionedResultSet}. The query is prepared on the coordinating connection as a probe which returns no
+ * rows, providing the metadata of the result and the type of the partition column. The values bound to the
+ * parameters are bound to the probe and recorded, to be bound again to the query of each partition.
+ *
+ * @since 0.982.1
+ */
+class PartitionedStatementHandler implements InvocationHandler {
+
+    private static final String ALIAS = " partitioned_query";
+
+    private final PreparedStatement probe;
+    private final JDBCDatasource datasource;
+    private final String sql;
+    private final StatementOptions options;
+    private final Partitioning partitioning;
+    private final List<Method> setters = new ArrayList<>();
+    private final List<Object[]> setterArguments = new ArrayList<>();
+    private int highestIndex;
+    private ResultSet resultSet;
+
+    private PartitionedStatementHandler(PreparedStatement probe, JDBCDatasource datasource, String sql,
+                                        StatementOptions options) {
+        this.probe = probe;
+        this.datasource = datasource;
+        this.sql = sql;
+        this.options = options;
+        this.partitioning = options.getPartitioning();
+    }
+
+    /**
+     * Returns the query which probes the result of a partitioned query without reading any rows.
+     */
+    static String probe(String sql) {
+        return "SELECT * FROM (" + sql + ")" + ALIAS + " WHERE 1 = 0";
+    }
+
+    /**
+     * Wraps the probe of a query so that executing it reads the partitions of the query.
+     *
+     * @param probe   the probe of the query, prepared on the coordinating connection
+     * @param sql     the query
+     * @param options the options of the action, carrying the partitioning of the query
+     */
+    static PreparedStatement wrap(PreparedStatement probe, JDBCDatasource datasource, String sql,
+                                  StatementOptions options) throws SQLException {
+        String column = options.getPartitioning().getColumn();
+        if (!BulkLoader.IDENTIFIER.matcher(column).matches()) {
+            probe.close();
+            throw new SQLException("invalid partition column name: " + column);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PartitionedStatementHandler.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new PartitionedStatementHandler(probe, datasource, sql, options));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "executeQuery":
+            if (args != null) {
+                throw new SQLFeatureNotSupportedException("a partitioned statement only executes its query");
+            }
+            return executeQuery((Statement) proxy);
+        case "getResultSet":
+            return resultSet;
+        case "clearParameters":
+            setters.clear();
+            setterArguments.clear();
+            highestIndex = 0;
+            break;
+        case "close":
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            break;
+        default:
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                setters.add(method);
+                setterArguments.add(args);
+                highestIndex = Math.max(highestIndex, (Integer) args[0]);
+            } else if (name.startsWith("execute") || name.equals("addBatch")) {
+                throw new SQLFeatureNotSupportedException("a partitioned statement only executes its query");
+            }
+            break;
+        }
+        try {
+            return method.invoke(probe, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResultSet executeQuery(Statement proxy) throws SQLException {
+        if (partitioning.getPartitionCount() <= 0) {
+            throw new SQLException("the partition count must be positive");
+        }
+        if (partitioning.getUpperBound() < partitioning.getLowerBound()) {
+            throw new SQLException("the lower bound of the partition column exceeds its upper bound");
+        }
+        CachedRowSet emptyResult = PartitionedResultSet.ROW_SET_FACTORY.createCachedRowSet();
+        try (ResultSet probeResult = probe.executeQuery()) {
+            emptyResult.populate(probeResult);
+        }
+        int columnType = getColumnType(emptyResult.getMetaData());
+        boolean date = isDate(columnType);
+        boolean timestamp = date && columnType != Types.DATE;
+        long lowerBound = partitioning.getLowerBound();
+        long upperBound = partitioning.getUpperBound();
+        int partitionCount = (int) Math.max(1, Math.min(partitioning.getPartitionCount(), upperBound - lowerBound));
+        long stride = (upperBound - lowerBound) / partitionCount;
+        String column = partitioning.getColumn();
+        String[] queries = new String[partitionCount];
+        Object[][] bounds = new Object[partitionCount][];
+        for (int i = 0; i < partitionCount; i++) {
+            String condition;
+            Object start = toBound(lowerBound + stride * i, date, timestamp);
+            Object end = toBound(lowerBound + stride * (i + 1), date, timestamp);
+            if (partitionCount == 1) {
+                condition = "";
+                bounds[i] = new Object[0];
+            } else if (i == 0) {
+                condition = " WHERE " + column + " < ? OR " + column + " IS NULL";
+                bounds[i] = new Object[]{end};
+            } else if (i == partitionCount - 1) {
+                condition = " WHERE " + column + " >= ?";
+                bounds[i] = new Object[]{start};
+            } else {
+                condition = " WHERE " + column + " >= ? AND " + column + " < ?";
+                bounds[i] = new Object[]{start, end};
+            }
+            queries[i] = "SELECT * FROM (" + sql + ")" + ALIAS + condition
+                    + (partitioning.isOrdered() ? " ORDER BY " + column : "");
+        }
+        resultSet = PartitionedResultSet.open(datasource, queries, (statement, partition) -> {
+            bind(statement);
+            for (int i = 0; i < bounds[partition].length; i++) {
+                statement.setObject(highestIndex + i + 1, bounds[partition][i]);
+            }
+        }, options, emptyResult, proxy, partitioning.isOrdered());
+        return resultSet;
+    }
+
+    /**
+     * Binds the recorded parameter values to the query of a partition.
+     */
+    private void bind(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < setters.size(); i++) {
+            try {
+                setters.get(i).invoke(statement, setterArguments.get(i));
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+                        : new SQLException("error while binding a parameter", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new SQLException("error while binding a parameter", e);
+            }
+        }
+    }
+
+    private int getColumnType(ResultSetMetaData metaData) throws SQLException {
+        String column = partitioning.getColumn();
+        String label = column.substring(column.lastIndexOf('.') + 1).replaceAll("[\"`]", "");
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (label.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return metaData.getColumnType(i);
+            }
+        }
+        throw new SQLException("partition column " + column + " is not selected by the query");
+    }
+
+    private static boolean isDate(int columnType) throws SQLException {
+        switch (columnType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return false;
+        case Types.DATE:
+        case Types.TIMESTAMP:
+        case Types.TIMESTAMP_WITH_TIMEZONE:
+            return true;
+        default:
+            throw new SQLException("the partition column must be numeric or a date");
+        }
+    }
+
+    private static Object toBound(long value, boolean date, boolean timestamp) {
+        if (!date) {
+            return value;
+        }
+        return timestamp ? new Timestamp(value) : new Date(value);
+    }
+}
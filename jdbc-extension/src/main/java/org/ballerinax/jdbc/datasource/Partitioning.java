@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+/**
+ * The key ranges over which a query is read in parallel. The range between the lower and the upper bound of the
+ * partition column is split into partitions of equal width. The bounds only decide the width of the partitions: the
+ * first partition also reads the rows below the lower bound and those whose partition column is null, and the last
+ * partition reads the rows above the upper bound.
+ *
+ * @since 0.982.1
+ */
+public class Partitioning {
+
+    private final String column;
+    private final long lowerBound;
+    private final long upperBound;
+    private final int partitionCount;
+    private final boolean ordered;
+
+    /**
+     * Creates the partitioning of a query.
+     *
+     * @param column         the numeric or date column of the query by which the rows are partitioned
+     * @param lowerBound     the lower bound of the partition column, in milliseconds since the epoch for dates
+     * @param upperBound     the upper bound of the partition column, in milliseconds since the epoch for dates
+     * @param partitionCount the number of partitions
+     * @param ordered        whether the rows are returned in the order of the partition column
+     */
+    public Partitioning(String column, long lowerBound, long upperBound, int partitionCount, boolean ordered) {
+        this.column = column;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.partitionCount = partitionCount;
+        this.ordered = ordered;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Executes a list of statements on a single connection. Where the driver supports multiple statements in a single
+ * prepared statement, which is the case for PostgreSQL and for MySQL with {@code allowMultiQueries=true}, the
+ * statements are sent to the database at once and their results are read in order, taking a single round trip.
+ * Otherwise the statements are executed one after the other.
+ * <p>
+ * The statements are executed in one local transaction, which is committed once all of them succeed and rolled back
+ * if any of them fails, so that a failed pipeline leaves no statement applied.
+ *
+ * @since 0.982.1
+ */
+public class Pipeline {
+
+    private static final String MYSQL = "mysql";
+    private static final String POSTGRESQL = "postgresql";
+    private static final String MYSQL_MULTI_QUERIES = "allowmultiqueries=true";
+    private static final Pattern QUERY = Pattern.compile("^\\s*(?:SELECT|VALUES)\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRAILING_SEPARATOR = Pattern.compile("[\\s;]+$");
+
+    private final JDBCDatasource datasource;
+    private final List<Statement> statements = new ArrayList<>();
+
+    public Pipeline(JDBCDatasource datasource) {
+        this.datasource = datasource;
+    }
+
+    /**
+     * Adds a statement to the pipeline.
+     *
+     * @param sql        the SQL statement
+     * @param parameters the parameter values
+     * @param types      the {@link Types} of the parameters, of which {@link Types#OTHER} leaves the type to be
+     *                   inferred from the value
+     */
+    public void add(String sql, Object[] parameters, int[] types) {
+        statements.add(new Statement(TRAILING_SEPARATOR.matcher(sql).replaceFirst(""), parameters, types));
+    }
+
+    /**
+     * Executes the statements of the pipeline.
+     *
+     * @return the result of each statement, in order
+     */
+    public List<Result> execute() throws SQLException {
+        for (Statement statement : statements) {
+            if (!QUERY.matcher(statement.sql).find()) {
+                datasource.invalidateResultCache(QueryTables.written(statement.sql));
+            }
+        }
+        StatementOptions.set(createOptions());
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                List<Result> results = statements.size() > 1 && isMultipleStatementsSupported(connection)
+                        ? executeAtOnce(connection) : executeInTurn(connection);
+                connection.commit();
+                return results;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } finally {
+            StatementOptions.clear();
+            for (Statement statement : statements) {
+                if (!QUERY.matcher(statement.sql).find()) {
+                    datasource.invalidateResultCache(QueryTables.written(statement.sql));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the options of the statements, which only mark them as queries since the result cache is invalidated
+     * by the pipeline itself.
+     */
+    private static StatementOptions createOptions() {
+        StatementOptions options = new StatementOptions();
+        options.setQuery(true);
+        return options;
+    }
+
+    private List<Result> executeAtOnce(Connection connection) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (Statement statement : statements) {
+            sql.append(sql.length() == 0 ? "" : ";\n").append(statement.sql);
+        }
+        List<Result> results = new ArrayList<>(statements.size());
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Statement statement : statements) {
+                index = bind(preparedStatement, index, statement.parameters, statement.types);
+            }
+            boolean hasResultSet = preparedStatement.execute();
+            for (int i = 0; i < statements.size(); i++) {
+                results.add(readResult(preparedStatement, hasResultSet, i));
+                hasResultSet = preparedStatement.getMoreResults();
+            }
+        }
+        return results;
+    }
+
+    private List<Result> executeInTurn(Connection connection) throws SQLException {
+        List<Result> results = new ArrayList<>(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(statement.sql)) {
+                bind(preparedStatement, 1, statement.parameters, statement.types);
+                results.add(readResult(preparedStatement, preparedStatement.execute(), i));
+            }
+        }
+        return results;
+    }
+
+    private static Result readResult(PreparedStatement statement, boolean hasResultSet, int index)
+            throws SQLException {
+        if (!hasResultSet) {
+            int updateCount = statement.getUpdateCount();
+            if (updateCount < 0) {
+                throw new SQLException("no result returned for statement " + (index + 1) + " of the pipeline");
+            }
+            return new Result(updateCount, null, null);
+        }
+        try (ResultSet resultSet = statement.getResultSet()) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            String[] columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1);
+            }
+            List<Object[]> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                Object[] row = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = readValue(resultSet.getObject(i + 1));
+                }
+                rows.add(row);
+            }
+            return new Result(-1, columns, rows);
+        }
+    }
+
+    /**
+     * Reads large objects into memory, since they are not accessible once the connection is returned to the pool.
+     */
+    private static Object readValue(Object value) throws SQLException {
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return blob.getBytes(1, (int) blob.length());
+        } else if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        return value;
+    }
+
+    private boolean isMultipleStatementsSupported(Connection connection) throws SQLException {
+        if (isDatabase(POSTGRESQL)) {
+            return true;
+        } else if (isDatabase(MYSQL)) {
+            String url = connection.getMetaData().getURL();
+            return url != null && url.toLowerCase(Locale.ENGLISH).contains(MYSQL_MULTI_QUERIES);
+        }
+        return false;
+    }
+
+    private boolean isDatabase(String name) {
+        String productName = datasource.getDatabaseProductName();
+        return productName != null && productName.toLowerCase(Locale.ENGLISH).contains(name);
+    }
+
+    /**
+     * Binds parameters starting from the given parameter index and returns the index of the next parameter. Values
+     * given as an {@link InputStream} or a {@link Reader} are streamed to the database.
+     *
+     * @param statement  the statement to bind the parameters of
+     * @param index      the index of the first parameter
+     * @param parameters the parameter values
+     * @param types      the {@link Types} of the parameters, of which {@link Types#OTHER} leaves the type to be
+     *                   inferred from the value
+     * @return the index of the parameter following the bound parameters
+     */
+    static int bind(PreparedStatement statement, int index, Object[] parameters, int[] types) throws SQLException {
+        for (int i = 0; i < parameters.length; i++, index++) {
+            Object parameter = parameters[i];
+            if (parameter == null) {
+                statement.setNull(index, types[i] == Types.OTHER ? Types.NULL : types[i]);
+            } else if (parameter instanceof InputStream) {
+                if (types[i] == Types.BLOB) {
+                    statement.setBlob(index, (InputStream) parameter);
+                } else {
+                    statement.setBinaryStream(index, (InputStream) parameter);
+                }
+            } else if (parameter instanceof Reader) {
+                if (types[i] == Types.CLOB || types[i] == Types.NCLOB) {
+                    statement.setClob(index, (Reader) parameter);
+                } else {
+                    statement.setCharacterStream(index, (Reader) parameter);
+                }
+            } else if (types[i] == Types.OTHER) {
+                statement.setObject(index, parameter);
+            } else {
+                statement.setObject(index, parameter, types[i]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * A statement of the pipeline along with its parameters.
+     */
+    private static class Statement {
+        private final String sql;
+        private final Object[] parameters;
+        private final int[] types;
+
+        private Statement(String sql, Object[] parameters, int[] types) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.types = types;
+        }
+    }
+
+    /**
+     * The result of a statement of the pipeline: either an update count or the rows returned by a query.
+     */
+    public static class Result {
+        private final int updateCount;
+        private final String[] columns;
+        private final List<Object[]> rows;
+
+        private Result(int updateCount, String[] columns, List<Object[]> rows) {
+            this.updateCount = updateCount;
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        /**
+         * Returns the number of rows updated by the statement, or -1 if the statement is a query.
+         */
+        public int getUpdateCount() {
+            return updateCount;
+        }
+
+        /**
+         * Returns the column labels of the rows, or {@code null} if the statement is not a query.
+         */
+        public String[] getColumns() {
+            return columns;
+        }
+
+        /**
+         * Returns the rows returned by the query, or {@code null} if the statement is not a query.
+         */
+        public List<Object[]> getRows() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the tables read and written by SQL statements, for invalidating the {@link ResultCache}. The extraction is
+ * a conservative approximation: statements which cannot be analysed report their tables as unknown.
+ *
+ * @since 0.982.1
+ */
+final class QueryTables {
+
+    private static final String IDENTIFIER = "[\\w$#.\"`\\[\\]]+";
+    private static final Pattern WRITTEN_TABLE = Pattern.compile("^\\s*(?:INSERT\\s+(?:INTO\\s+)?|UPDATE\\s+"
+            + "|DELETE\\s+(?:FROM\\s+)?|MERGE\\s+INTO\\s+|REPLACE\\s+(?:INTO\\s+)?|TRUNCATE\\s+(?:TABLE\\s+)?)("
+            + IDENTIFIER + ")", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECT = Pattern.compile("^\\s*SELECT\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NESTED_QUERY = Pattern.compile("\\W(?:SELECT|UNION|INTERSECT|EXCEPT|MINUS)\\W",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern FROM_CLAUSE = Pattern.compile("\\sFROM\\s+(.*?)(?:\\s(?:WHERE|GROUP|HAVING|ORDER"
+            + "|LIMIT|OFFSET|FETCH|FOR|UNION|INTERSECT|EXCEPT|MINUS)\\s|;|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TABLE_SEPARATOR = Pattern.compile(",|\\s(?:(?:INNER|CROSS|NATURAL|LEFT|RIGHT|FULL)"
+            + "(?:\\s+OUTER)?\\s+)?JOIN\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern JOIN_CONDITION = Pattern.compile("\\s(?:ON|USING)\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_NAME = Pattern.compile("^\\s*(" + IDENTIFIER + ")");
+
+    private QueryTables() {
+    }
+
+    /**
+     * Returns the tables read by a simple {@code SELECT} query, or {@code null} if the query is not a {@code SELECT}
+     * query or is combined with other queries.
+     */
+    static Set<String> read(String sql) {
+        Matcher select = SELECT.matcher(sql);
+        if (!select.find() || NESTED_QUERY.matcher(sql).region(select.end() - 1, sql.length()).find()) {
+            return null;
+        }
+        Matcher fromClause = FROM_CLAUSE.matcher(sql);
+        if (!fromClause.find() || fromClause.group(1).indexOf('(') >= 0) {
+            return null;
+        }
+        Set<String> tables = new HashSet<>();
+        for (String tableReference : TABLE_SEPARATOR.split(fromClause.group(1))) {
+            Matcher tableName = TABLE_NAME.matcher(JOIN_CONDITION.split(tableReference, 2)[0]);
+            if (!tableName.find()) {
+                return null;
+            }
+            tables.add(normalize(tableName.group(1)));
+        }
+        return tables;
+    }
+
+    /**
+     * Returns the table written by an {@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE}, {@code REPLACE}
+     * or {@code TRUNCATE} statement, or {@code null} for any other statement, which may write to any table.
+     */
+    static Set<String> written(String sql) {
+        Matcher matcher = WRITTEN_TABLE.matcher(sql);
+        if (!matcher.find()) {
+            return null;
+        }
+        Set<String> tables = new HashSet<>();
+        tables.add(normalize(matcher.group(1)));
+        return tables;
+    }
+
+    /**
+     * Drops the schema and the quotes of a table name, so that the different references of a table are considered
+     * the same at the expense of treating the tables of the same name in different schemas as one.
+     */
+    private static String normalize(String tableName) {
+        String name = tableName.substring(tableName.lastIndexOf('.') + 1);
+        return name.replaceAll("[\"`\\[\\]]", "").toUpperCase(Locale.ENGLISH);
+    }
+}
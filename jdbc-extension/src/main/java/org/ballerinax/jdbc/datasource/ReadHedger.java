@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides when a read only query executed on a replica is hedged, by executing it again on another replica should
+ * the first execution not answer in time. A query is hedged once it has taken longer than the given percentile of the
+ * execution times of the queries on the replicas, so that only the slowest queries are hedged.
+ * <p>
+ * The hedged executions are limited by a budget, which is a fraction of the queries executed. Each query adds the
+ * budget to a balance of which each hedged execution takes one, and the balance is capped so that hedging cannot burst
+ * after a long period without slow queries.
+ * <p>
+ * Both executions of a query which may be hedged run on a bounded number of hedging threads, while the action waits
+ * for the first answer. A query is not hedged while all of them are busy, nor while the budget is spent, in which case
+ * it is executed on the thread of the action.
+ *
+ * @since 0.982.1
+ */
+class ReadHedger {
+
+    static final int MIN_SAMPLES = 20;
+    private static final double MAX_BALANCE = 10;
+    private static final int MAX_HEDGED_EXECUTIONS = 16;
+    private static final AtomicInteger EXECUTOR_COUNT = new AtomicInteger();
+    static final ThreadPoolExecutor EXECUTORS = createExecutors();
+
+    private final double percentile;
+    private final double budget;
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private double balance;
+
+    /**
+     * Creates the hedging policy of a client.
+     *
+     * @param percentile the percentile of the execution times after which a query is hedged, between 0 and 100
+     * @param budget     the maximum number of hedged executions per query executed
+     */
+    ReadHedger(double percentile, double budget) {
+        this.percentile = percentile;
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the time in nanoseconds after which a query is hedged, or -1 if too few queries have been executed to
+     * tell.
+     */
+    long getDelay() {
+        if (executionTime.getCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        return (long) (executionTime.getPercentile(percentile) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    void executed(long executionTime) {
+        this.executionTime.record(executionTime);
+    }
+
+    synchronized void queryStarted() {
+        balance = Math.min(MAX_BALANCE, balance + budget);
+    }
+
+    /**
+     * Returns whether the budget allows a hedged execution, without taking it.
+     */
+    synchronized boolean canHedge() {
+        return balance >= 1;
+    }
+
+    /**
+     * Takes a hedged execution from the budget, returning {@code false} if the budget is spent.
+     */
+    synchronized boolean tryHedge() {
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    private static ThreadPoolExecutor createExecutors() {
+        ThreadPoolExecutor executors = new ThreadPoolExecutor(MAX_HEDGED_EXECUTIONS, MAX_HEDGED_EXECUTIONS, 60,
+                TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-hedged-read-" + EXECUTOR_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executors.allowCoreThreadTimeOut(true);
+        return executors;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the replica which serves a read only action.
+ *
+ * @since 0.982.1
+ */
+class ReplicaRouter {
+
+    static final String ROUND_ROBIN = "ROUND_ROBIN";
+    static final String LEAST_PENDING = "LEAST_PENDING";
+
+    private final List<JDBCDatasource> replicas;
+    private final boolean leastPending;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    ReplicaRouter(List<JDBCDatasource> replicas, String policy) {
+        this.replicas = replicas;
+        this.leastPending = LEAST_PENDING.equals(policy);
+    }
+
+    List<JDBCDatasource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Returns the next replica in turn, or with the least pending policy the replica with the fewest callers waiting
+     * for a connection, followed by the fewest connections in use. Ties are broken in turn so that idle replicas share
+     * the load.
+     */
+    JDBCDatasource next() {
+        int start = Math.floorMod(counter.getAndIncrement(), replicas.size());
+        if (!leastPending) {
+            return replicas.get(start);
+        }
+        JDBCDatasource selected = null;
+        long selectedPending = Long.MAX_VALUE;
+        long selectedActive = Long.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            JDBCDatasource replica = replicas.get((start + i) % replicas.size());
+            long pending = replica.getMetrics().getPendingConnections();
+            long active = replica.getMetrics().getActiveConnections();
+            if (pending < selectedPending || (pending == selectedPending && active < selectedActive)) {
+                selected = replica;
+                selectedPending = pending;
+                selectedActive = active;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the next replica in turn other than the given one, or {@code null} if there is no other replica.
+     */
+    JDBCDatasource nextOtherThan(JDBCDatasource replica) {
+        if (replicas.size() < 2) {
+            return null;
+        }
+        int start = Math.floorMod(counter.getAndIncrement(), replicas.size());
+        JDBCDatasource selected = replicas.get(start);
+        return selected != replica ? selected : replicas.get((start + 1) % replicas.size());
+    }
+}
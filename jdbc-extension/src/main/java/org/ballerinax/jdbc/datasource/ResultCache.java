@@ -0,0 +1,283 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Least recently used cache of the results of the select actions of a client, keyed on the query and its parameters.
+ * Entries expire after a fixed time to live and are invalidated when a statement executed through the same client
+ * writes to one of the tables read by the query. A result is cached only if none of the tables it reads was written
+ * while the query was being executed, so that a result read before a write is not cached after the invalidation.
+ * <p>
+ * The generations of at most {@value #MAX_TABLE_GENERATIONS} tables are kept besides those of the tables read by the
+ * cached results. Beyond it, the generations of the tables which no cached result reads are dropped, and the
+ * generation of every table is raised to the latest generation dropped, so that the results of the queries being
+ * executed meanwhile are not cached.
+ *
+ * @since 0.982.1
+ */
+public class ResultCache {
+
+    private static final int ROW_OVERHEAD = 48;
+    private static final int VALUE_OVERHEAD = 16;
+    static final int MAX_TABLE_GENERATIONS = 1024;
+
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Statistics statistics = new Statistics();
+    private final Map<String, Long> tableGenerations = new HashMap<>();
+    private long generation;
+    private long invalidateAllGeneration;
+    private long droppedTableGeneration;
+    private long size;
+
+    ResultCache(long ttlMillis, long maxBytes) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns a result set over the cached rows of the given key, with a cursor of its own, or {@code null} if there
+     * is no live entry for the key.
+     */
+    synchronized ResultSet get(List<Object> key) throws SQLException {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.createdTime > ttlNanos) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            statistics.misses.increment();
+            return null;
+        }
+        statistics.hits.increment();
+        return entry.rows.createShared();
+    }
+
+    /**
+     * Returns the generation of the given tables, which changes whenever the cached results of a query reading them
+     * are invalidated. The generation is taken before the query is executed and handed to {@link #put} along with
+     * its result.
+     *
+     * @param tables the tables read by the query, or {@code null} if they are not known
+     */
+    synchronized long generation(Set<String> tables) {
+        if (tables == null) {
+            return generation;
+        }
+        long tablesGeneration = Math.max(invalidateAllGeneration, droppedTableGeneration);
+        for (String table : tables) {
+            tablesGeneration = Math.max(tablesGeneration, tableGenerations.getOrDefault(table, 0L));
+        }
+        return tablesGeneration;
+    }
+
+    /**
+     * Caches the given rows, evicting the least recently used entries to stay within the size limit. Results larger
+     * than the whole cache are not cached, nor are results of which the tables were written since the query was
+     * executed.
+     *
+     * @param tables     the tables read by the query, or {@code null} if they are not known
+     * @param generation the generation of the tables before the query was executed
+     * @return a result set over the rows, with a cursor of its own
+     */
+    synchronized ResultSet put(List<Object> key, CachedRowSet rows, Set<String> tables, long generation)
+            throws SQLException {
+        if (generation(tables) != generation) {
+            return rows.createShared();
+        }
+        long rowsSize = estimateSize(rows);
+        if (rowsSize <= maxBytes) {
+            remove(key);
+            entries.put(key, new Entry(rows, tables, rowsSize));
+            size += rowsSize;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (size > maxBytes && iterator.hasNext()) {
+                size -= iterator.next().size;
+                iterator.remove();
+                statistics.evictions.increment();
+            }
+        }
+        return rows.createShared();
+    }
+
+    /**
+     * Discards the entries of the queries reading any of the given tables, along with those of which the tables are
+     * not known.
+     *
+     * @param tables the tables written to, or {@code null} to discard all the entries
+     */
+    synchronized void invalidate(Set<String> tables) {
+        generation++;
+        if (tables == null) {
+            invalidateAllGeneration = generation;
+        } else {
+            for (String table : tables) {
+                tableGenerations.put(table, generation);
+            }
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (tables == null || entry.tables == null || !Collections.disjoint(tables, entry.tables)) {
+                size -= entry.size;
+                iterator.remove();
+                statistics.invalidations.increment();
+            }
+        }
+        if (tableGenerations.size() > MAX_TABLE_GENERATIONS) {
+            dropTableGenerations();
+        }
+    }
+
+    /**
+     * Returns the number of rows of the given number of columns beyond which a result cannot fit in the cache.
+     */
+    int getMaxRows(int columnCount) {
+        return (int) Math.min(Integer.MAX_VALUE - 1, maxBytes / (ROW_OVERHEAD + (long) VALUE_OVERHEAD * columnCount));
+    }
+
+    /**
+     * Returns the number of tables of which the generation is kept.
+     */
+    synchronized int getTableGenerationCount() {
+        return tableGenerations.size();
+    }
+
+    /**
+     * Drops the generations of the tables which no cached result reads.
+     */
+    private void dropTableGenerations() {
+        Set<String> readTables = new HashSet<>();
+        for (Entry entry : entries.values()) {
+            if (entry.tables != null) {
+                readTables.addAll(entry.tables);
+            }
+        }
+        Iterator<Map.Entry<String, Long>> iterator = tableGenerations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> tableGeneration = iterator.next();
+            if (!readTables.contains(tableGeneration.getKey())) {
+                droppedTableGeneration = Math.max(droppedTableGeneration, tableGeneration.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated size of the cached rows in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    private void remove(List<Object> key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    private static long estimateSize(CachedRowSet rows) throws SQLException {
+        int columnCount = rows.getMetaData().getColumnCount();
+        long estimate = 0;
+        rows.beforeFirst();
+        while (rows.next()) {
+            estimate += ROW_OVERHEAD;
+            for (int i = 1; i <= columnCount; i++) {
+                estimate += VALUE_OVERHEAD + estimateSize(rows.getObject(i));
+            }
+        }
+        rows.beforeFirst();
+        return estimate;
+    }
+
+    private static long estimateSize(Object value) throws SQLException {
+        if (value instanceof String) {
+            return 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Blob) {
+            return ((Blob) value).length();
+        } else if (value instanceof Clob) {
+            return 2L * ((Clob) value).length();
+        }
+        return VALUE_OVERHEAD;
+    }
+
+    /**
+     * The rows of a query result.
+     */
+    private static class Entry {
+        private final CachedRowSet rows;
+        private final Set<String> tables;
+        private final long size;
+        private final long createdTime = System.nanoTime();
+
+        private Entry(CachedRowSet rows, Set<String> tables, long size) {
+            this.rows = rows;
+            this.tables = tables;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Hit, miss, eviction and invalidation counts of the result cache of a client.
+     */
+    public static class Statistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        public long getInvalidations() {
+            return invalidations.sum();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Collapses identical select queries executed concurrently into one execution. The first of the identical queries
+ * executes it and the others wait for its result, which is read into memory once and shared by all of them. The
+ * queries are identical if they have the same SQL query and the same parameters.
+ * <p>
+ * Only results of at most the maximum number of rows are shared, so that collapsing does not hold large results in
+ * memory. Once the result grows beyond it, the waiting queries are executed on their own and the first one continues
+ * reading its result from the database.
+ * <p>
+ * A waiting query does not wait past the deadline of its own action, upon which it fails as if its statement had
+ * timed out.
+ *
+ * @since 0.982.1
+ */
+class SelectCollapser {
+
+    private final int maxRows;
+    private final ClientMetrics metrics;
+    private final ConcurrentMap<List<Object>, CompletableFuture<CachedRowSet>> executions =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Executes a select query.
+     */
+    interface Query {
+        ResultSet execute() throws SQLException;
+    }
+
+    /**
+     * Shares the rows of a result, with the query which read it.
+     */
+    interface Sharing {
+        ResultSet share(CachedRowSet rows) throws SQLException;
+    }
+
+    SelectCollapser(int maxRows, ClientMetrics metrics) {
+        this.maxRows = maxRows;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Executes a query, or waits for the result of the identical query being executed.
+     *
+     * @param key      the SQL query and the parameters of the query
+     * @param deadline the deadline of the action executing the query, in {@link System#nanoTime()} terms, or 0 if
+     *                 its statements are not timed out
+     * @param query    executes the query
+     * @param sharing  shares the rows of the result with the query once they are read
+     * @return the result of the query, or {@code null} if the result of the identical query was too large to be
+     * shared, in which case the query is to be executed on its own
+     * @throws SQLException if the query, or the identical query, failed
+     * @throws SQLTimeoutException if the deadline passed while waiting for the identical query
+     */
+    ResultSet execute(List<Object> key, long deadline, Query query, Sharing sharing) throws SQLException {
+        CompletableFuture<CachedRowSet> execution = new CompletableFuture<>();
+        CompletableFuture<CachedRowSet> identicalExecution = executions.putIfAbsent(key, execution);
+        if (identicalExecution != null) {
+            return await(identicalExecution, deadline);
+        }
+        ResultSet resultSet = null;
+        try {
+            resultSet = query.execute();
+            LimitedResultSet limitedResult = new LimitedResultSet(resultSet);
+            CachedRowSet rows = PartitionedResultSet.ROW_SET_FACTORY.createCachedRowSet();
+            // One row beyond the maximum is read, since a result of exactly the maximum number of rows is known to
+            // be complete only once the following row is found missing
+            rows.populate(limitedResult.limit(maxRows == Integer.MAX_VALUE ? maxRows : maxRows + 1));
+            executions.remove(key, execution);
+            if (!limitedResult.isExhausted()) {
+                execution.complete(null);
+                return ContinuedResultSet.wrap(rows, resultSet);
+            }
+            resultSet.close();
+            ResultSet sharedResult = sharing.share(rows);
+            execution.complete(rows);
+            return sharedResult;
+        } catch (SQLException | RuntimeException e) {
+            executions.remove(key, execution);
+            execution.completeExceptionally(e);
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private ResultSet await(CompletableFuture<CachedRowSet> execution, long deadline) throws SQLException {
+        CachedRowSet rows;
+        try {
+            if (deadline == 0) {
+                rows = execution.get();
+            } else {
+                rows = execution.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            metrics.statementTimedOut();
+            throw new SQLTimeoutException("the query timeout of the action expired while waiting for the result of "
+                    + "an identical query", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for the result of an identical query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                SQLException error = (SQLException) cause;
+                throw new SQLException(error.getMessage(), error.getSQLState(), error.getErrorCode(), error);
+            }
+            throw new SQLException(cause.getMessage(), cause);
+        }
+        if (rows == null) {
+            metrics.selectCollapseFellBack();
+            return null;
+        }
+        metrics.selectCollapsed();
+        return rows.createShared();
+    }
+}
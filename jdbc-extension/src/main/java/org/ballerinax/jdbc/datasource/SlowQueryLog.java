@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Log of the statements of a client which took longer than a threshold to execute. The log is a ring buffer written
+ * without locks, so that recording a statement never contends with other actions, and keeps the latest entries once
+ * it is full. A fraction of the slow statements may be sampled to bound the overhead under heavy load.
+ *
+ * @since 0.982.1
+ */
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong nextIndex = new AtomicLong();
+
+    /**
+     * Creates a slow query log.
+     *
+     * @param threshold  execution time in milliseconds above which a statement is logged
+     * @param sampleRate fraction of the slow statements which are logged
+     * @param size       number of entries kept by the log
+     */
+    SlowQueryLog(long threshold, double sampleRate, int size) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.sampleRate = sampleRate;
+        this.entries = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    /**
+     * Returns whether a statement which took the given time to execute, in nanoseconds, is to be logged.
+     */
+    boolean isLogged(long executionTime) {
+        return executionTime >= thresholdNanos
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void add(Entry entry) {
+        long index = nextIndex.getAndIncrement();
+        entry.index = index;
+        entries.set((int) (index % entries.length()), entry);
+    }
+
+    /**
+     * Returns the logged statements, oldest first. Entries written while the log is being read may be skipped.
+     */
+    public List<Entry> getEntries() {
+        long end = nextIndex.get();
+        long start = Math.max(0, end - entries.length());
+        List<Entry> result = new ArrayList<>((int) (end - start));
+        for (long index = start; index < end; index++) {
+            Entry entry = entries.get((int) (index % entries.length()));
+            // A slot may already hold a newer entry, or still hold an older one while it is being written
+            if (entry != null && entry.index == index) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A statement of the slow query log.
+     */
+    public static class Entry {
+
+        private final long timestamp = System.currentTimeMillis();
+        private final String sql;
+        private final String parameters;
+        private final long acquireTime;
+        private final long executionTime;
+        private volatile long rowCount = -1;
+        private long index;
+
+        Entry(String sql, String parameters, long acquireTime, long executionTime) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.acquireTime = acquireTime;
+            this.executionTime = executionTime;
+        }
+
+        /**
+         * Returns the time at which the statement completed, in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Returns a summary of the values bound to the parameters of the statement.
+         */
+        public String getParameters() {
+            return parameters;
+        }
+
+        /**
+         * Returns the time taken to acquire the connection executing the statement, in milliseconds.
+         */
+        public double getAcquireTime() {
+            return acquireTime / 1_000_000.0;
+        }
+
+        /**
+         * Returns the time taken to execute the statement, in milliseconds.
+         */
+        public double getExecutionTime() {
+            return executionTime / 1_000_000.0;
+        }
+
+        /**
+         * Returns the number of rows updated by the statement or returned by the query, or -1 if it is not known,
+         * such as for a result which is not read to the end yet.
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        void setRowCount(long rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Times the executions of a statement and adds those exceeding the threshold of the {@link SlowQueryLog} to it. The
+ * values bound to the parameters are only kept as references while the statement is used, and are summarized once
+ * the statement turns out to be slow. The rows of a slow query are counted as its result is read.
+ *
+ * @since 0.982.1
+ */
+class SlowQueryStatementHandler implements InvocationHandler {
+
+    private static final int MAX_PARAMETERS = 20;
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final SlowQueryLog log;
+    private final long acquireTime;
+    private Object[] parameters = new Object[8];
+    private int parameterCount;
+    private int highestIndex;
+    private Object[] firstBatchParameters;
+    private int firstBatchParameterCount;
+    private int firstBatchHighestIndex;
+    private int batchSize;
+
+    private SlowQueryStatementHandler(PreparedStatement statement, String sql, SlowQueryLog log, long acquireTime) {
+        this.statement = statement;
+        this.sql = sql;
+        this.log = log;
+        this.acquireTime = acquireTime;
+    }
+
+    /**
+     * Wraps a statement so that its slow executions are logged.
+     *
+     * @param acquireTime the time taken to acquire the connection of the statement, in nanoseconds
+     */
+    static PreparedStatement wrap(PreparedStatement statement, String sql, SlowQueryLog log, long acquireTime) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class : PreparedStatement.class;
+        return (PreparedStatement) Proxy.newProxyInstance(SlowQueryStatementHandler.class.getClassLoader(),
+                new Class<?>[]{type}, new SlowQueryStatementHandler(statement, sql, log, acquireTime));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "clearParameters":
+            Arrays.fill(parameters, 0, parameterCount, null);
+            parameterCount = 0;
+            highestIndex = 0;
+            break;
+        case "addBatch":
+            if (batchSize++ == 0) {
+                firstBatchParameters = Arrays.copyOf(parameters, parameterCount);
+                firstBatchParameterCount = parameterCount;
+                firstBatchHighestIndex = highestIndex;
+            }
+            break;
+        case "clearBatch":
+            batchSize = 0;
+            break;
+        case "executeQuery":
+        case "executeUpdate":
+        case "executeLargeUpdate":
+        case "executeBatch":
+        case "executeLargeBatch":
+        case "execute":
+            return execute(method, args);
+        default:
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            }
+            break;
+        }
+        return invokeTarget(statement, method, args);
+    }
+
+    private void bind(int index, Object value) {
+        highestIndex = Math.max(highestIndex, index);
+        if (index < 1 || index > MAX_PARAMETERS) {
+            return;
+        }
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, MAX_PARAMETERS);
+        }
+        parameters[index - 1] = value;
+        parameterCount = Math.max(parameterCount, index);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        int batch = method.getName().endsWith("Batch") ? batchSize : 0;
+        long startTime = System.nanoTime();
+        Object result;
+        try {
+            result = invokeTarget(statement, method, args);
+        } catch (Throwable e) {
+            long executionTime = System.nanoTime() - startTime;
+            if (log.isLogged(executionTime)) {
+                logExecution(null, batch, executionTime);
+            }
+            throw e;
+        } finally {
+            if (batch > 0) {
+                batchSize = 0;
+            }
+        }
+        long executionTime = System.nanoTime() - startTime;
+        return log.isLogged(executionTime) ? logExecution(result, batch, executionTime) : result;
+    }
+
+    /**
+     * Adds the execution to the log, returning the result to hand over to the caller.
+     */
+    private Object logExecution(Object result, int batch, long executionTime) throws Throwable {
+        String summary = batch > 0
+                ? summarize(firstBatchParameters, firstBatchParameterCount, firstBatchHighestIndex) + " (batch of "
+                        + batch + " rows)"
+                : summarize(parameters, parameterCount, highestIndex);
+        SlowQueryLog.Entry entry = new SlowQueryLog.Entry(sql, summary, acquireTime, executionTime);
+        if (result instanceof ResultSet) {
+            result = RowCounter.wrap((ResultSet) result, entry);
+        } else if (result instanceof Number) {
+            entry.setRowCount(((Number) result).longValue());
+        } else if (result instanceof int[]) {
+            entry.setRowCount(Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum());
+        } else if (result instanceof long[]) {
+            entry.setRowCount(Arrays.stream((long[]) result).filter(count -> count > 0).sum());
+        } else if (Boolean.FALSE.equals(result)) {
+            entry.setRowCount(statement.getUpdateCount());
+        }
+        log.add(entry);
+        return result;
+    }
+
+    private static String summarize(Object[] values, int count, int highestIndex) {
+        StringBuilder summary = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(summarize(values[i]));
+        }
+        if (highestIndex > count) {
+            summary.append(", ...");
+        }
+        return summary.append(']').toString();
+    }
+
+    private static String summarize(Object value) {
+        if (value == null) {
+            return "NULL";
+        } else if (value instanceof String) {
+            String text = (String) value;
+            return "'" + (text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text) + "'";
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Date) {
+            return value.toString();
+        } else if (value instanceof byte[]) {
+            return "byte[" + ((byte[]) value).length + "]";
+        } else if (value instanceof InputStream || value instanceof Reader) {
+            return "<stream>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts the rows read from the result of a slow query, setting the count on its log entry once the result is
+     * read to the end.
+     */
+    private static class RowCounter implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final SlowQueryLog.Entry entry;
+        private long rowCount;
+
+        private RowCounter(ResultSet resultSet, SlowQueryLog.Entry entry) {
+            this.resultSet = resultSet;
+            this.entry = entry;
+        }
+
+        static ResultSet wrap(ResultSet resultSet, SlowQueryLog.Entry entry) {
+            return (ResultSet) Proxy.newProxyInstance(RowCounter.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new RowCounter(resultSet, entry));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "next":
+                boolean hasRow = (Boolean) invokeTarget(resultSet, method, args);
+                if (hasRow) {
+                    rowCount++;
+                } else {
+                    entry.setRowCount(rowCount);
+                }
+                return hasRow;
+            default:
+                return invokeTarget(resultSet, method, args);
+            }
+        }
+    }
+}
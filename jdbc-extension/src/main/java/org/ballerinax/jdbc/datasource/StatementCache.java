@@ -0,0 +1,165 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Least recently used cache of the prepared statements of a single physical connection. A cached statement is handed
+ * out to one user at a time and is returned to the cache when that user closes it.
+ *
+ * @since 0.982.1
+ */
+public class StatementCache {
+
+    private final int maxSize;
+    private final Statistics statistics;
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int maxSize, Statistics statistics) {
+        this.maxSize = maxSize;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the cached statement for the given key if there is one which is not in use.
+     */
+    synchronized Entry checkout(List<Object> key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            entry.inUse = true;
+            statistics.hits.increment();
+            return entry;
+        }
+        statistics.misses.increment();
+        return null;
+    }
+
+    /**
+     * Adds a newly prepared statement to the cache, evicting the least recently used statements if the cache is full.
+     * A statement prepared while another one with the same key is in use is not cached.
+     */
+    synchronized Entry add(List<Object> key, PreparedStatement statement) {
+        Entry entry = new Entry(statement);
+        entry.inUse = true;
+        if (entries.containsKey(key)) {
+            entry.evicted = true;
+            return entry;
+        }
+        entries.put(key, entry);
+        Iterator<Map.Entry<List<Object>, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.evicted = true;
+            statistics.evictions.increment();
+            if (!eldest.inUse) {
+                closeQuietly(eldest.statement);
+            }
+        }
+        return entry;
+    }
+
+    void checkin(Entry entry) {
+        synchronized (this) {
+            entry.inUse = false;
+            if (!entry.evicted) {
+                try {
+                    entry.statement.clearParameters();
+                    entry.statement.clearBatch();
+                    entry.statement.setFetchSize(0);
+                    entry.statement.setQueryTimeout(0);
+                    entry.statement.setMaxRows(0);
+                    return;
+                } catch (SQLException e) {
+                    entries.values().remove(entry);
+                }
+            }
+        }
+        closeQuietly(entry.statement);
+    }
+
+    /**
+     * Discards the statements of the cache, once its connection is closed. The statements in use are closed when they
+     * are returned to the cache.
+     */
+    void close() {
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                entry.evicted = true;
+                if (!entry.inUse) {
+                    closeQuietly(entry.statement);
+                }
+            }
+            entries.clear();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+            // The statement is discarded, there is nothing more to be done with it
+        }
+    }
+
+    /**
+     * A statement held by the cache.
+     */
+    static class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement getStatement() {
+            return statement;
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts of the statement caches of a datasource.
+     */
+    public static class Statistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Hands a statement of the {@link StatementCache} over to its user. Closing the statement returns it to the cache.
+ *
+ * @since 0.982.1
+ */
+class StatementHandler implements InvocationHandler {
+
+    private final StatementCache cache;
+    private final StatementCache.Entry entry;
+    private boolean closed;
+
+    private StatementHandler(StatementCache cache, StatementCache.Entry entry) {
+        this.cache = cache;
+        this.entry = entry;
+    }
+
+    static PreparedStatement wrap(StatementCache cache, StatementCache.Entry entry) {
+        Class<?> type = entry.getStatement() instanceof CallableStatement ? CallableStatement.class
+                : PreparedStatement.class;
+        return (PreparedStatement) Proxy.newProxyInstance(StatementHandler.class.getClassLoader(),
+                new Class<?>[]{type}, new StatementHandler(cache, entry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "isClosed":
+            return closed;
+        case "close":
+            if (!closed) {
+                closed = true;
+                cache.checkin(entry);
+            }
+            return null;
+        default:
+            if (closed) {
+                throw new SQLException("statement is already closed");
+            }
+            try {
+                return method.invoke(entry.getStatement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.datasource;
+
+/**
+ * Per action options which are applied to the statements prepared while the action is executing. Actions set the
+ * options for the current thread before delegating to the SQL connector implementation and clear them afterwards.
+ *
+ * @since 0.982.1
+ */
+public class StatementOptions {
+
+    private static final ThreadLocal<StatementOptions> CURRENT = new ThreadLocal<>();
+
+    private final long startTime = System.nanoTime();
+    private int fetchSize;
+    private int queryTimeout;
+    private boolean batch;
+    private boolean inTransaction;
+    private boolean readOnly;
+    private boolean query;
+    private boolean columnar;
+    private Partitioning partitioning;
+
+    public static void set(StatementOptions options) {
+        CURRENT.set(options);
+    }
+
+    public static StatementOptions get() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
+    public boolean isInTransaction() {
+        return inTransaction;
+    }
+
+    public void setInTransaction(boolean inTransaction) {
+        this.inTransaction = inTransaction;
+    }
+
+    /**
+     * Returns whether the action only reads data outside of a transaction, hence can be served by a replica.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns whether the action executes a query, hence does not invalidate the result cache.
+     */
+    public boolean isQuery() {
+        return query;
+    }
+
+    public void setQuery(boolean query) {
+        this.query = query;
+    }
+
+    /**
+     * Returns whether the result loaded to memory by the action is stored in columns of primitive values.
+     */
+    public boolean isColumnar() {
+        return columnar;
+    }
+
+    public void setColumnar(boolean columnar) {
+        this.columnar = columnar;
+    }
+
+    /**
+     * Returns the time in milliseconds after which the statements of the action are cancelled, counted from the
+     * creation of the options. The query timeout of the client applies if 0.
+     */
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(int queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    /**
+     * Returns the partitioning by which the query of the action is read in parallel, or {@code null} if the query is
+     * read as a whole.
+     */
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    boolean isStreaming() {
+        return fetchSize > 0;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the execution of a statement by the deadline of the action preparing it. The remaining time is set as the
+ * query timeout of the statement, which the driver enforces, and a watchdog cancels the statement once the deadline
+ * passes, for drivers which do not enforce the query timeout or are blocked on the network. The query timeout is reset
+ * after each execution since the statement may be cached and reused by other actions.
+ *
+ * @since 0.982.1
+ */
+class TimeoutStatementHandler implements InvocationHandler {
+
+    private static final Set<String> EXECUTE_METHODS = new HashSet<>(Arrays.asList("execute", "executeQuery",
+            "executeUpdate", "executeBatch", "executeLargeUpdate", "executeLargeBatch"));
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-statement-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PreparedStatement statement;
+    private final ConnectionHandler connectionHandler;
+    private final ClientMetrics metrics;
+    private final long deadline;
+    private boolean executing;
+    private boolean cancelled;
+
+    private TimeoutStatementHandler(PreparedStatement statement, ConnectionHandler connectionHandler,
+                                    ClientMetrics metrics, long deadline) {
+        this.statement = statement;
+        this.connectionHandler = connectionHandler;
+        this.metrics = metrics;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Wraps a statement so that its executions fail once the given deadline, in {@link System#nanoTime()} terms,
+     * passes.
+     */
+    static PreparedStatement wrap(PreparedStatement statement, ConnectionHandler connectionHandler,
+                                  ClientMetrics metrics, long deadline) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class : PreparedStatement.class;
+        return (PreparedStatement) Proxy.newProxyInstance(TimeoutStatementHandler.class.getClassLoader(),
+                new Class<?>[]{type}, new TimeoutStatementHandler(statement, connectionHandler, metrics, deadline));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        default:
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                return execute(method, args);
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        long remainingTime = deadline - System.nanoTime();
+        if (remainingTime <= 0) {
+            metrics.statementTimedOut();
+            throw new SQLTimeoutException("the query timeout of the action expired before the statement was executed");
+        }
+        // The driver counts the query timeout in whole seconds, hence it is rounded up and the watchdog is exact
+        long queryTimeout = TimeUnit.NANOSECONDS.toSeconds(remainingTime + TimeUnit.SECONDS.toNanos(1) - 1);
+        statement.setQueryTimeout((int) queryTimeout);
+        synchronized (this) {
+            executing = true;
+            cancelled = false;
+        }
+        ScheduledFuture<?> watchdog = WATCHDOG.schedule(this::cancel, remainingTime, TimeUnit.NANOSECONDS);
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (isCancelled()) {
+                metrics.statementCancelled();
+                connectionHandler.statementCancelled();
+                throw new SQLTimeoutException("the statement was cancelled since the query timeout of the action "
+                        + "expired", cause);
+            } else if (cause instanceof SQLTimeoutException) {
+                metrics.statementTimedOut();
+            }
+            throw cause;
+        } finally {
+            watchdog.cancel(false);
+            // Waits for a cancellation in progress, so that it does not affect the next statement of the connection
+            synchronized (this) {
+                executing = false;
+            }
+            try {
+                statement.setQueryTimeout(0);
+            } catch (SQLException e) {
+                // The statement is closed, hence is not reused
+            }
+        }
+    }
+
+    private synchronized void cancel() {
+        if (!executing) {
+            return;
+        }
+        cancelled = true;
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            // The statement fails on the query timeout set on it
+        }
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
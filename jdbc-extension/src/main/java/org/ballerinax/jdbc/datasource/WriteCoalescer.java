@@ -0,0 +1,306 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent single row inserts of the same statement into batches, so that they share a round trip to the
+ * database and a commit. The first insert of a batch opens it, and the batch is executed once it holds the maximum
+ * number of inserts or once the coalescing window has elapsed since it was opened, whichever comes first. The inserts
+ * are batched by their SQL statement and the types of their parameters. Only parameterized
+ * {@code INSERT INTO ... VALUES (...)} statements are coalesced, since each of them inserts exactly one row when it
+ * succeeds, hence its update count is known even when the driver does not report the counts of a batch.
+ * <p>
+ * A batch is executed as one JDBC batch in one transaction, on one of a bounded number of writers once it is admitted
+ * by the {@link AdmissionController} of the client, if it has one. If the batch fails, it is rolled back and its
+ * inserts are executed one by one, so that each insert completes with its own update count or error as if it had not
+ * been coalesced.
+ *
+ * @since 0.982.1
+ */
+public class WriteCoalescer {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-write-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicInteger WRITER_COUNT = new AtomicInteger();
+
+    private final JDBCDatasource datasource;
+    private final int maxBatchSize;
+    private final long windowMicros;
+    private final ThreadPoolExecutor writers;
+    private final Map<String, Batch> openBatches = new HashMap<>();
+
+    /**
+     * Receives the outcome of a coalesced update.
+     */
+    public interface Completion {
+        /**
+         * Completes an update.
+         *
+         * @param updateCount the number of rows updated, if the update succeeded
+         * @param error       the error of the update, or {@code null} if it succeeded
+         */
+        void complete(int updateCount, Throwable error);
+    }
+
+    /**
+     * Creates a coalescer of the inserts of a client.
+     *
+     * @param maxBatchSize the maximum number of inserts of a batch
+     * @param windowMicros the time in microseconds for which a batch collects inserts
+     * @param writerCount  the number of batches executed at once, beyond which batches wait for a writer
+     */
+    WriteCoalescer(JDBCDatasource datasource, int maxBatchSize, long windowMicros, int writerCount) {
+        this.datasource = datasource;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMicros = windowMicros;
+        writers = new ThreadPoolExecutor(writerCount, writerCount, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-coalesced-writer-" + WRITER_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        writers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns whether the updates of the given statement are coalesced, which is the case of parameterized single row
+     * inserts.
+     */
+    public static boolean isCoalesced(String sql) {
+        return MultiRowInsert.parse(sql) != null;
+    }
+
+    /**
+     * Adds an insert to the open batch of its statement, opening a batch if there is none.
+     *
+     * @param sql        the SQL statement
+     * @param parameters the parameter values
+     * @param types      the {@link java.sql.Types} of the parameters
+     * @param completion receives the outcome of the update once its batch is executed
+     */
+    public void add(String sql, Object[] parameters, int[] types, Completion completion) {
+        String key = sql + '\0' + Arrays.toString(types);
+        Batch fullBatch = null;
+        synchronized (this) {
+            Batch batch = openBatches.get(key);
+            if (batch == null) {
+                Batch openedBatch = new Batch(sql, types);
+                openedBatch.timer = TIMER.schedule(() -> flush(key, openedBatch), windowMicros,
+                        TimeUnit.MICROSECONDS);
+                openBatches.put(key, openedBatch);
+                batch = openedBatch;
+            }
+            batch.rows.add(parameters);
+            batch.completions.add(completion);
+            if (batch.rows.size() >= maxBatchSize) {
+                openBatches.remove(key);
+                batch.timer.cancel(false);
+                fullBatch = batch;
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+    }
+
+    private void flush(String key, Batch batch) {
+        synchronized (this) {
+            if (openBatches.get(key) != batch) {
+                return;
+            }
+            openBatches.remove(key);
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * Executes a batch once it is admitted. A batch which is not admitted fails as a whole.
+     */
+    private void dispatch(Batch batch) {
+        AdmissionController admissionController = datasource.getAdmissionController();
+        if (admissionController == null) {
+            submit(batch, null);
+        } else if (admissionController.acquire(() -> submit(batch, admissionController), e -> fail(batch, e))) {
+            submit(batch, admissionController);
+        }
+    }
+
+    private void submit(Batch batch, AdmissionController admissionController) {
+        try {
+            writers.execute(() -> {
+                try {
+                    execute(batch);
+                } finally {
+                    if (admissionController != null) {
+                        admissionController.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (admissionController != null) {
+                admissionController.release();
+            }
+            fail(batch, e);
+        }
+    }
+
+    private void execute(Batch batch) {
+        datasource.invalidateResultCache(QueryTables.written(batch.sql));
+        try {
+            if (batch.rows.size() == 1 || !executeBatch(batch)) {
+                executeEach(batch);
+            }
+        } finally {
+            datasource.invalidateResultCache(QueryTables.written(batch.sql));
+        }
+    }
+
+    private static void fail(Batch batch, Throwable error) {
+        for (Completion completion : batch.completions) {
+            completion.complete(0, error);
+        }
+    }
+
+    /**
+     * Stops the writers once the batches already submitted are executed.
+     */
+    void shutdown() {
+        writers.shutdown();
+    }
+
+    /**
+     * Executes the inserts of a batch in one transaction. Returns {@code false} if the batch failed and was rolled
+     * back.
+     */
+    private boolean executeBatch(Batch batch) {
+        int[] updateCounts;
+        StatementOptions.set(createOptions(true));
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(batch.sql)) {
+                for (Object[] row : batch.rows) {
+                    Pipeline.bind(statement, 1, row, batch.types);
+                    statement.addBatch();
+                }
+                updateCounts = statement.executeBatch();
+                for (int updateCount : updateCounts) {
+                    if (updateCount == Statement.EXECUTE_FAILED) {
+                        throw new SQLException("an insert of the batch failed");
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                return false;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            return false;
+        } finally {
+            StatementOptions.clear();
+        }
+        datasource.getMetrics().batchCoalesced();
+        for (int i = 0; i < batch.completions.size(); i++) {
+            // Each insert of the committed batch inserted its row, including those of which the driver reports
+            // no count or SUCCESS_NO_INFO, as when the batch is rewritten to multi row inserts
+            batch.completions.get(i).complete(i < updateCounts.length && updateCounts[i] >= 0 ? updateCounts[i] : 1,
+                    null);
+        }
+        return true;
+    }
+
+    /**
+     * Executes the inserts of a batch one by one, each committed on its own.
+     */
+    private void executeEach(Batch batch) {
+        int completed = 0;
+        StatementOptions.set(createOptions(false));
+        try (Connection connection = datasource.getSQLConnection()) {
+            for (; completed < batch.rows.size(); completed++) {
+                int updateCount;
+                try (PreparedStatement statement = connection.prepareStatement(batch.sql)) {
+                    Pipeline.bind(statement, 1, batch.rows.get(completed), batch.types);
+                    updateCount = statement.executeUpdate();
+                } catch (SQLException e) {
+                    batch.completions.get(completed).complete(0, e);
+                    continue;
+                }
+                batch.completions.get(completed).complete(updateCount, null);
+            }
+        } catch (Throwable e) {
+            for (; completed < batch.rows.size(); completed++) {
+                batch.completions.get(completed).complete(0, e);
+            }
+        } finally {
+            StatementOptions.clear();
+        }
+    }
+
+    /**
+     * Creates the options of the statements. As for the statements of a {@link Pipeline}, they are marked as queries
+     * only so that the connection does not invalidate the result cache, which the coalescer invalidates itself before
+     * and after the batch; they are not read only, hence are neither served by a replica nor hedged. A batch is marked
+     * as executed in a transaction, the one of the coalescer, so that its chunks are not committed one by one.
+     */
+    private static StatementOptions createOptions(boolean batch) {
+        StatementOptions options = new StatementOptions();
+        options.setQuery(true);
+        options.setBatch(batch);
+        options.setInTransaction(batch);
+        return options;
+    }
+
+    /**
+     * The inserts of a statement coalesced into a batch.
+     */
+    private static class Batch {
+        private final String sql;
+        private final int[] types;
+        private final List<Object[]> rows = new ArrayList<>();
+        private final List<Completion> completions = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+
+        private Batch(String sql, int[] types) {
+            this.sql = sql;
+            this.types = types;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+/**
+ * The {@link XAResource} of a JDBC client taking part in a global transaction. The transaction manager prepares and
+ * commits every XA resource in two phases, even when a transaction has a single participant. When the client enables
+ * its {@code onePhaseCommit} option, a branch which is the only one of the JDBC clients enlisted in its transaction
+ * skips the prepare phase instead, and is committed in one phase: the database then commits the branch as a local
+ * transaction, without writing the prepared state.
+ * <p>
+ * Only the branches of the JDBC clients are known, hence a transaction which also has participants of other kinds,
+ * such as a remote participant, would be committed in one phase when it has a single JDBC branch, and the database
+ * could then fail to commit the branch after the other participants are committed. The option is therefore disabled
+ * unless the client states that its transactions have no other participants.
+ * <p>
+ * When the client enables its {@code parallelXACompletion} option, the branches of a transaction with several JDBC
+ * branches which enable it are prepared and committed concurrently by the {@link XATransaction}. Such a branch may be
+ * ended and prepared before the transaction manager reaches it, once the transaction manager prepares the
+ * transaction. Otherwise the branch is prepared and committed when the transaction manager reaches it.
+ * <p>
+ * A branch leaves its transaction once it is committed, rolled back or forgotten, or once it is prepared read only,
+ * since the transaction manager does not complete it any further.
+ *
+ * @since 0.982.1
+ */
+class XABranch implements XAResource {
+
+    private final XAResource resource;
+    private final ClientMetrics metrics;
+    private final boolean onePhaseCommit;
+    private final boolean parallelCompletion;
+    private XATransaction transaction;
+    private boolean prepareSkipped;
+    private boolean ended;
+    private boolean readOnly;
+
+    private XABranch(XAResource resource, ClientMetrics metrics, boolean onePhaseCommit, boolean parallelCompletion) {
+        this.resource = resource;
+        this.metrics = metrics;
+        this.onePhaseCommit = onePhaseCommit;
+        this.parallelCompletion = parallelCompletion;
+    }
+
+    /**
+     * Wraps an XA datasource so that the XA resources of its connections take part in transactions as branches of
+     * the JDBC client.
+     *
+     * @param onePhaseCommit whether a single branch of a transaction is committed in one phase
+     * @param parallelCompletion whether the branch is prepared and committed concurrently with the other branches of
+     *                           its transaction which enable it
+     */
+    static XADataSource wrap(XADataSource dataSource, ClientMetrics metrics, boolean onePhaseCommit,
+                             boolean parallelCompletion) {
+        return (XADataSource) Proxy.newProxyInstance(XABranch.class.getClassLoader(),
+                new Class<?>[]{XADataSource.class}, (proxy, method, args) -> {
+                    Object result = invokeOn(dataSource, method, args);
+                    return result instanceof XAConnection
+                            ? wrap((XAConnection) result, metrics, onePhaseCommit, parallelCompletion) : result;
+                });
+    }
+
+    private static XAConnection wrap(XAConnection connection, ClientMetrics metrics, boolean onePhaseCommit,
+                                     boolean parallelCompletion) {
+        InvocationHandler handler = new InvocationHandler() {
+            private XABranch branch;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (!"getXAResource".equals(method.getName())) {
+                    return invokeOn(connection, method, args);
+                }
+                if (branch == null) {
+                    branch = new XABranch(connection.getXAResource(), metrics, onePhaseCommit, parallelCompletion);
+                }
+                return branch;
+            }
+        };
+        return (XAConnection) Proxy.newProxyInstance(XABranch.class.getClassLoader(),
+                new Class<?>[]{XAConnection.class}, handler);
+    }
+
+    @Override
+    public void start(Xid xid, int flags) throws XAException {
+        resource.start(xid, flags);
+        ended = false;
+        if ((flags & (TMJOIN | TMRESUME)) == 0) {
+            transaction = XATransaction.enlist(xid, this);
+            prepareSkipped = false;
+            readOnly = false;
+        }
+    }
+
+    @Override
+    public void end(Xid xid, int flags) throws XAException {
+        if (!ended) {
+            resource.end(xid, flags);
+            ended = true;
+        }
+    }
+
+    @Override
+    public int prepare(Xid xid) throws XAException {
+        if (transaction != null && onePhaseCommit && transaction.isOnlyBranch(this)) {
+            prepareSkipped = true;
+            return XA_OK;
+        }
+        int outcome = transaction != null && parallelCompletion ? transaction.prepare(this, xid) : prepareBranch(xid);
+        if (outcome == XA_RDONLY && transaction != null) {
+            // The transaction manager neither commits nor rolls back a read only branch
+            transaction.delist(this);
+            transaction = null;
+        }
+        return outcome;
+    }
+
+    @Override
+    public void commit(Xid xid, boolean onePhase) throws XAException {
+        try {
+            if (prepareSkipped || onePhase) {
+                resource.commit(xid, true);
+                metrics.committedInOnePhase();
+            } else if (transaction != null && parallelCompletion) {
+                transaction.commit(this, xid);
+            } else {
+                commitBranch(xid);
+            }
+        } finally {
+            delist();
+        }
+    }
+
+    @Override
+    public void rollback(Xid xid) throws XAException {
+        try {
+            resource.rollback(xid);
+        } finally {
+            delist();
+        }
+    }
+
+    @Override
+    public void forget(Xid xid) throws XAException {
+        try {
+            resource.forget(xid);
+        } finally {
+            delist();
+        }
+    }
+
+    @Override
+    public Xid[] recover(int flag) throws XAException {
+        return resource.recover(flag);
+    }
+
+    @Override
+    public boolean isSameRM(XAResource other) throws XAException {
+        return resource.isSameRM(other instanceof XABranch ? ((XABranch) other).resource : other);
+    }
+
+    @Override
+    public int getTransactionTimeout() throws XAException {
+        return resource.getTransactionTimeout();
+    }
+
+    @Override
+    public boolean setTransactionTimeout(int seconds) throws XAException {
+        return resource.setTransactionTimeout(seconds);
+    }
+
+    /**
+     * Returns whether the branch is prepared and committed concurrently with the other branches of its transaction.
+     */
+    boolean isParallelCompletion() {
+        return parallelCompletion;
+    }
+
+    /**
+     * Ends the branch unless the transaction manager has ended it, and prepares it.
+     */
+    int prepareBranch(Xid xid) throws XAException {
+        end(xid, TMSUCCESS);
+        int outcome = resource.prepare(xid);
+        readOnly = outcome == XA_RDONLY;
+        return outcome;
+    }
+
+    /**
+     * Commits the prepared branch, unless it was read only and hence completed once prepared.
+     */
+    void commitBranch(Xid xid) throws XAException {
+        if (!readOnly) {
+            resource.commit(xid, false);
+            metrics.committedInTwoPhases();
+        }
+    }
+
+    private void delist() {
+        if (transaction != null) {
+            transaction.delist(this);
+            transaction = null;
+        }
+        prepareSkipped = false;
+        readOnly = false;
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+/**
+ * The branches of the JDBC clients enlisted in a global transaction, keyed by the global transaction id of their
+ * {@link Xid}. A branch joins the transaction with its own {@link Xid} when it is started, and leaves it once it is
+ * committed, rolled back or forgotten, or once it is prepared read only. A transaction of which the transaction
+ * manager never completes some branch, such as one abandoned by a failed transaction manager, is forgotten
+ * {@link #TIME_TO_LIVE_MILLIS} milliseconds after its last branch was enlisted, and is no longer considered to have a
+ * single branch.
+ * <p>
+ * The transaction manager prepares the branches one after the other, and then commits them one after the other. The
+ * first branch asked to prepare which enables parallel completion prepares all the branches of the transaction which
+ * enable it concurrently instead, as does the first such branch asked to commit, so that each phase takes as long as
+ * its slowest branch rather than the sum of the branches. The outcome of each branch is kept and reported to the
+ * transaction manager when it reaches the branch. A failure to prepare any of these branches is reported by the first
+ * branch, upon which the transaction manager rolls back the transaction. At most {@value #PARALLELISM} branches of a
+ * transaction are processed at once. The calling thread takes part, and processes the branches which no thread of the
+ * bounded coordinator pool has taken up yet.
+ *
+ * @since 0.982.1
+ */
+final class XATransaction {
+
+    static final long TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int PARALLELISM = 8;
+    private static final Map<Key, XATransaction> TRANSACTIONS = new ConcurrentHashMap<>();
+    private static final AtomicInteger COORDINATOR_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor COORDINATORS = createCoordinators();
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final Key key;
+    private final Map<XABranch, Xid> branches = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> expiry;
+    private volatile boolean expired;
+    private Map<XABranch, Object> prepareOutcomes;
+    private boolean prepareFailed;
+    private Map<XABranch, Object> commitOutcomes;
+
+    private XATransaction(Key key) {
+        this.key = key;
+    }
+
+    /**
+     * Enlists a branch in the global transaction of its {@link Xid}, returning the transaction.
+     */
+    static XATransaction enlist(Xid xid, XABranch branch) {
+        return enlist(xid, branch, TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * Enlists a branch in the global transaction of its {@link Xid}, returning the transaction, which is forgotten
+     * the given number of milliseconds later unless it has no more branches by then.
+     */
+    static XATransaction enlist(Xid xid, XABranch branch, long timeToLiveMillis) {
+        return TRANSACTIONS.compute(new Key(xid), (transactionKey, transaction) -> {
+            XATransaction enlistedTransaction = transaction == null ? new XATransaction(transactionKey) : transaction;
+            enlistedTransaction.branches.put(branch, xid);
+            if (enlistedTransaction.expiry != null) {
+                enlistedTransaction.expiry.cancel(false);
+            }
+            enlistedTransaction.expiry = TIMER.schedule(enlistedTransaction::expire, timeToLiveMillis,
+                    TimeUnit.MILLISECONDS);
+            return enlistedTransaction;
+        });
+    }
+
+    /**
+     * Returns whether a transaction of the global transaction id of the {@link Xid} has enlisted branches.
+     */
+    static boolean isEnlisted(Xid xid) {
+        return TRANSACTIONS.containsKey(new Key(xid));
+    }
+
+    /**
+     * Removes a branch which is completed, and forgets the transaction once it has no more branches.
+     */
+    void delist(XABranch branch) {
+        branches.remove(branch);
+        TRANSACTIONS.computeIfPresent(key, (transactionKey, transaction) -> {
+            if (transaction != this || !branches.isEmpty()) {
+                return transaction;
+            }
+            expiry.cancel(false);
+            return null;
+        });
+    }
+
+    /**
+     * Returns whether the branch is the only one enlisted in the transaction, so that it can be committed in one
+     * phase. A forgotten transaction may have branches enlisted in a new transaction of the same global transaction
+     * id, hence none of its branches is considered to be the only one.
+     */
+    boolean isOnlyBranch(XABranch branch) {
+        return !expired && branches.size() == 1 && branches.containsKey(branch);
+    }
+
+    /**
+     * Forgets the transaction, of which some branches were never completed.
+     */
+    private void expire() {
+        expired = true;
+        TRANSACTIONS.remove(key, this);
+    }
+
+    /**
+     * Prepares a branch of the transaction, preparing all its branches which enable parallel completion concurrently,
+     * each with its own {@link Xid}, on the first call.
+     *
+     * @return the outcome of preparing the branch
+     * @throws XAException if the branch failed to prepare, or if it is the first branch and any branch failed
+     */
+    synchronized int prepare(XABranch branch, Xid xid) throws XAException {
+        boolean first = prepareOutcomes == null;
+        if (first) {
+            prepareOutcomes = runConcurrently(getParallelBranches(), XABranch::prepareBranch);
+            for (Object outcome : prepareOutcomes.values()) {
+                prepareFailed |= outcome instanceof XAException;
+            }
+        }
+        if (!prepareOutcomes.containsKey(branch)) {
+            return branch.prepareBranch(xid);
+        }
+        Object outcome = prepareOutcomes.get(branch);
+        if (outcome instanceof XAException) {
+            throw (XAException) outcome;
+        }
+        if (first && prepareFailed) {
+            XAException failure = new XAException("another branch of the transaction failed to prepare");
+            failure.errorCode = XAException.XA_RBROLLBACK;
+            throw failure;
+        }
+        return (Integer) outcome;
+    }
+
+    /**
+     * Commits a prepared branch of the transaction, committing all its prepared branches which enable parallel
+     * completion concurrently, each with its own {@link Xid}, on the first call.
+     *
+     * @throws XAException if the branch failed to commit
+     */
+    synchronized void commit(XABranch branch, Xid xid) throws XAException {
+        if (commitOutcomes == null) {
+            commitOutcomes = runConcurrently(getParallelBranches(), (enlistedBranch, branchXid) -> {
+                enlistedBranch.commitBranch(branchXid);
+                return XAResource.XA_OK;
+            });
+        }
+        if (!commitOutcomes.containsKey(branch)) {
+            branch.commitBranch(xid);
+            return;
+        }
+        Object outcome = commitOutcomes.get(branch);
+        if (outcome instanceof XAException) {
+            throw (XAException) outcome;
+        }
+    }
+
+    private Map<XABranch, Xid> getParallelBranches() {
+        Map<XABranch, Xid> parallelBranches = new IdentityHashMap<>();
+        for (Map.Entry<XABranch, Xid> branch : branches.entrySet()) {
+            if (branch.getKey().isParallelCompletion()) {
+                parallelBranches.put(branch.getKey(), branch.getValue());
+            }
+        }
+        return parallelBranches;
+    }
+
+    /**
+     * Applies a phase to the branches, spreading them over up to {@link #PARALLELISM} tasks of which the first one
+     * runs on the calling thread. The calling thread then runs the tasks which no coordinator has started. Returns
+     * the result or the {@link XAException} of each branch.
+     */
+    private static Map<XABranch, Object> runConcurrently(Map<XABranch, Xid> branches, Phase phase) {
+        List<Map.Entry<XABranch, Xid>> branchList = new ArrayList<>(branches.entrySet());
+        int taskCount = Math.min(branchList.size(), PARALLELISM);
+        List<FutureTask<Map<XABranch, Object>>> tasks = new ArrayList<>();
+        for (int i = 1; i < taskCount; i++) {
+            int task = i;
+            FutureTask<Map<XABranch, Object>> futureTask = new FutureTask<>(
+                    () -> apply(phase, branchList, task, taskCount));
+            tasks.add(futureTask);
+            try {
+                COORDINATORS.execute(futureTask);
+            } catch (RejectedExecutionException e) {
+                // The task is run on the calling thread
+            }
+        }
+        Map<XABranch, Object> outcomes = apply(phase, branchList, 0, Math.max(taskCount, 1));
+        boolean interrupted = false;
+        for (FutureTask<Map<XABranch, Object>> task : tasks) {
+            // Does nothing if a coordinator has started the task
+            task.run();
+            while (true) {
+                try {
+                    outcomes.putAll(task.get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("error while completing a transaction", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return outcomes;
+    }
+
+    private static Map<XABranch, Object> apply(Phase phase, List<Map.Entry<XABranch, Xid>> branches, int task,
+                                               int taskCount) {
+        Map<XABranch, Object> outcomes = new IdentityHashMap<>();
+        for (int i = task; i < branches.size(); i += taskCount) {
+            XABranch branch = branches.get(i).getKey();
+            try {
+                outcomes.put(branch, phase.apply(branch, branches.get(i).getValue()));
+            } catch (XAException e) {
+                outcomes.put(branch, e);
+            } catch (RuntimeException e) {
+                XAException failure = new XAException(XAException.XAER_RMERR);
+                failure.initCause(e);
+                outcomes.put(branch, failure);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Creates the pool of coordinators shared by the transactions. Its threads and its queue are bounded, and the
+     * tasks it rejects are run by their calling thread.
+     */
+    private static ThreadPoolExecutor createCoordinators() {
+        ThreadPoolExecutor coordinators = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(PARALLELISM * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-xa-coordinator-" + COORDINATOR_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        coordinators.allowCoreThreadTimeOut(true);
+        return coordinators;
+    }
+
+    /**
+     * Creates the timer forgetting the abandoned transactions, which drops the expiries of completed transactions as
+     * soon as they are cancelled.
+     */
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-xa-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * A phase of the two phase commit protocol applied to a branch.
+     */
+    private interface Phase {
+        int apply(XABranch branch, Xid xid) throws XAException;
+    }
+
+    /**
+     * The format and the global transaction id of an {@link Xid}, which do not rely on the {@link Xid} implementation
+     * of the transaction manager for their equality.
+     */
+    private static class Key {
+
+        private final int formatId;
+        private final byte[] globalTransactionId;
+
+        Key(Xid xid) {
+            formatId = xid.getFormatId();
+            globalTransactionId = xid.getGlobalTransactionId();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && formatId == ((Key) other).formatId
+                    && Arrays.equals(globalTransactionId, ((Key) other).globalTransactionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * formatId + Arrays.hashCode(globalTransactionId);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the adjustments of the pool size limit by {@link AdaptivePoolSizer} from the observed load and latency.
+ */
+public class AdaptivePoolSizerTest {
+
+    private static final long HOLD_TIME = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testLimitShrinksWhenIdle() {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        List<Integer> sizes = new ArrayList<>();
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(metrics, sizes::add, 2, 4, 5);
+        for (int i = 0; i < 4; i++) {
+            sizer.adjust();
+        }
+        Assert.assertEquals(sizes, Arrays.asList(3, 2));
+        Assert.assertEquals(metrics.getPoolSizeLimit(), 2);
+    }
+
+    @Test
+    public void testLimitGrowsWhenCallersWait() {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        List<Integer> sizes = new ArrayList<>();
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(metrics, sizes::add, 1, 3, 5);
+        sizer.adjust();
+        sizer.adjust();
+        Assert.assertEquals(metrics.getPoolSizeLimit(), 1);
+
+        // A caller keeps waiting while the connections are in use for much longer than the intervals between the
+        // adjustments
+        metrics.connectionRequested();
+        for (int i = 0; i < 4; i++) {
+            useConnections(metrics, HOLD_TIME);
+            sizer.adjust();
+        }
+        Assert.assertEquals(sizes, Arrays.asList(2, 1, 2, 3));
+        Assert.assertEquals(metrics.getPoolSizeLimit(), 3);
+    }
+
+    @Test
+    public void testLimitShrinksWhenHoldTimeRises() {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        List<Integer> sizes = new ArrayList<>();
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(metrics, sizes::add, 2, 8, 5);
+        useConnections(metrics, HOLD_TIME);
+        metrics.connectionRequested();
+        sizer.adjust();
+        Assert.assertTrue(sizes.isEmpty());
+
+        // The hold time rises tenfold over its baseline, so the limit is halved on each adjustment
+        useConnections(metrics, HOLD_TIME * 10);
+        sizer.adjust();
+        Assert.assertEquals(metrics.getPoolSizeLimit(), 4);
+        useConnections(metrics, HOLD_TIME * 10);
+        sizer.adjust();
+        Assert.assertEquals(sizes, Arrays.asList(4, 2));
+        Assert.assertEquals(metrics.getPoolSizeLimit(), 2);
+    }
+
+    private static void useConnections(ClientMetrics metrics, long holdTime) {
+        for (int i = 0; i < 100; i++) {
+            metrics.connectionRequested();
+            metrics.connectionAcquired(TimeUnit.MILLISECONDS.toNanos(10));
+            metrics.connectionReleased(holdTime);
+        }
+    }
+}
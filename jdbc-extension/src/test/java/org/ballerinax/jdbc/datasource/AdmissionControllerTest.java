@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the admission of actions by {@link AdmissionController} once its limit is reached.
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    public void testQueuedActionIsAdmittedOnRelease() {
+        List<String> events = new ArrayList<>();
+        AdmissionController controller = new AdmissionController(1, 1, 60000, task -> {
+            events.add("dispatched");
+            task.run();
+        });
+        Assert.assertTrue(controller.acquire(() -> events.add("first queued"), e -> events.add("first rejected")));
+        events.add("first");
+        // The second action is queued without blocking the calling thread
+        Assert.assertFalse(controller.acquire(() -> events.add("second"), e -> events.add("second rejected")));
+        Assert.assertFalse(controller.acquire(() -> events.add("third"), e -> events.add("third rejected")));
+        Assert.assertEquals(events, Arrays.asList("first", "third rejected"));
+        Assert.assertEquals(controller.getConcurrentActions(), 1);
+        Assert.assertEquals(controller.getQueuedActions(), 1);
+
+        controller.release();
+        Assert.assertEquals(events, Arrays.asList("first", "third rejected", "dispatched", "second"));
+        Assert.assertEquals(controller.getConcurrentActions(), 1);
+        Assert.assertEquals(controller.getQueuedActions(), 0);
+        controller.release();
+        Assert.assertEquals(controller.getConcurrentActions(), 0);
+        Assert.assertEquals(controller.getRejectedActions(), 1);
+    }
+
+    @Test
+    public void testQueuedActionIsRejectedAfterTimeout() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 1, 50, null);
+        Assert.assertTrue(controller.acquire(() -> { }, e -> Assert.fail("the first action is rejected")));
+        CompletableFuture<RejectedExecutionException> rejection = new CompletableFuture<>();
+        long startTime = System.nanoTime();
+        Assert.assertFalse(controller.acquire(() -> Assert.fail("the second action is admitted"), rejection::complete));
+        Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(50));
+
+        Assert.assertTrue(rejection.get(10, TimeUnit.SECONDS).getMessage().contains("not admitted within 50 ms"));
+        Assert.assertEquals(controller.getQueuedActions(), 0);
+        Assert.assertEquals(controller.getRejectedActions(), 1);
+        // The expired action does not take the admission released afterwards
+        controller.release();
+        Assert.assertEquals(controller.getConcurrentActions(), 0);
+        controller.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinax.jdbc.datasource.DatasourceFixtures.TestDatasource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.fake;
+
+/**
+ * Test the chunked execution of batches by {@link BatchStatementHandler}, against a connection which only records
+ * the statements prepared on it.
+ */
+public class BatchStatementHandlerTest {
+
+    private static final String INSERT = "INSERT INTO Customers (firstName, registrationID) VALUES (?, ?)";
+    private static final int ROW_COUNT = 1000;
+
+    @Test
+    public void testRewrittenBatchReplaysEachParameterOnce() throws SQLException {
+        List<String> preparedSQL = new ArrayList<>();
+        List<Object> boundParameters = new ArrayList<>();
+        Connection connection = fake(Connection.class, (methodName, args) -> {
+            if ("prepareStatement".equals(methodName)) {
+                preparedSQL.add((String) args[0]);
+                return createStatement(boundParameters);
+            }
+            return null;
+        });
+        Connection wrappedConnection = ConnectionHandler.wrap(connection, new TestDatasource(() -> connection), 0);
+        ConnectionHandler connectionHandler = (ConnectionHandler) Proxy.getInvocationHandler(wrappedConnection);
+        PreparedStatement statement = BatchStatementHandler.wrap(createStatement(new ArrayList<>()), connection,
+                connectionHandler, INSERT, 0, true, true);
+
+        for (int i = 0; i < ROW_COUNT; i++) {
+            statement.setString(1, "Customer" + i);
+            statement.setInt(2, i);
+            statement.addBatch();
+        }
+        int[] updateCounts = statement.executeBatch();
+
+        // The rows fit in one rewritten insert, which binds each parameter of each row exactly once
+        Assert.assertEquals(updateCounts.length, ROW_COUNT);
+        Assert.assertEquals(preparedSQL.size(), 1);
+        Assert.assertEquals(boundParameters.size(), ROW_COUNT * 2);
+        Assert.assertEquals(boundParameters.get(ROW_COUNT * 2 - 2), "Customer" + (ROW_COUNT - 1));
+        Assert.assertEquals(boundParameters.get(ROW_COUNT * 2 - 1), ROW_COUNT - 1);
+    }
+
+    private static PreparedStatement createStatement(List<Object> boundParameters) {
+        return fake(PreparedStatement.class, (methodName, args) -> {
+            if (methodName.startsWith("set") && args != null && args.length == 2) {
+                boundParameters.add(args[1]);
+            } else if ("executeUpdate".equals(methodName)) {
+                return ROW_COUNT;
+            } else if ("executeBatch".equals(methodName)) {
+                return new int[0];
+            }
+            return null;
+        });
+    }
+}
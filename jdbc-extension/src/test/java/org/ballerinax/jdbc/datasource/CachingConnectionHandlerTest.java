@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinax.jdbc.datasource.DatasourceFixtures.TestDatasource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import javax.sql.rowset.CachedRowSet;
+
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.createResultSet;
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.createRows;
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.fake;
+
+/**
+ * Test that {@link CachingConnectionHandler} reads a result into memory only up to the rows which can fit in the
+ * result cache.
+ */
+public class CachingConnectionHandlerTest {
+
+    private static final String QUERY = "SELECT FirstName FROM Customers";
+    private static final String[] NAMES = {"Peter", "John", "Anne", "Jack", "Mary"};
+
+    @Test
+    public void testResultLargerThanCacheIsStreamed() throws SQLException {
+        // The cache fits two rows of one column
+        ResultCache cache = new ResultCache(60000, 128);
+        CachedRowSet rows = createRows(Types.VARCHAR, (Object[]) NAMES);
+
+        ResultSet resultSet = executeQuery(cache, rows);
+
+        // One row beyond those fitting in the cache is read before the result is handed over
+        Assert.assertEquals(cache.getMaxRows(1), 2);
+        Assert.assertEquals(rows.getRow(), 3);
+        Assert.assertEquals(readNames(resultSet), NAMES.length);
+        Assert.assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testResultFittingCacheIsCached() throws SQLException {
+        ResultCache cache = new ResultCache(60000, 1024 * 1024);
+
+        Assert.assertEquals(readNames(executeQuery(cache, createRows(Types.VARCHAR, (Object[]) NAMES))),
+                NAMES.length);
+        Assert.assertTrue(cache.getSize() > 0);
+
+        // The second execution is served from the cache
+        Assert.assertEquals(readNames(executeQuery(cache, createRows(Types.VARCHAR))), NAMES.length);
+        Assert.assertEquals(cache.getStatistics().getHits(), 1);
+    }
+
+    private static ResultSet executeQuery(ResultCache cache, CachedRowSet rows) throws SQLException {
+        Connection connection = fake(Connection.class, (methodName, args) ->
+                "prepareStatement".equals(methodName) ? fake(PreparedStatement.class,
+                        (statementMethodName, statementArgs) ->
+                                "executeQuery".equals(statementMethodName) ? createResultSet(rows) : null) : null);
+        TestDatasource datasource = new TestDatasource(() -> connection);
+        return CachingConnectionHandler.wrap(datasource, cache, null).prepareStatement(QUERY).executeQuery();
+    }
+
+    private static int readNames(ResultSet resultSet) throws SQLException {
+        int rows = 0;
+        while (resultSet.next()) {
+            Assert.assertEquals(resultSet.getString(1), NAMES[rows]);
+            rows++;
+        }
+        resultSet.close();
+        return rows;
+    }
+}
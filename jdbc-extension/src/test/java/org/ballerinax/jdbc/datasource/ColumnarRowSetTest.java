@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Test the getters served by the columns of {@link ColumnarRowSet}, without converting it to a regular
+ * {@link CachedRowSet}.
+ */
+public class ColumnarRowSetTest {
+
+    private static final long LARGE_VALUE = Integer.MAX_VALUE + 1L;
+    private static final Timestamp TIMESTAMP = Timestamp.valueOf("2018-08-21 10:15:30.123");
+
+    @Test
+    public void testDateTimeGettersWithCalendar() throws SQLException {
+        AtomicInteger conversions = new AtomicInteger();
+        CachedRowSet rowSet = createColumnarRowSet(conversions);
+        Assert.assertTrue(rowSet.next());
+
+        // The fields of the value in the default time zone are read as those of the given calendar
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.clear();
+        utc.set(2018, Calendar.AUGUST, 21, 10, 15, 30);
+        utc.set(Calendar.MILLISECOND, 123);
+        Assert.assertEquals(rowSet.getTimestamp(2, utc).getTime(), utc.getTimeInMillis());
+        utc.set(2018, Calendar.AUGUST, 21, 0, 0, 0);
+        utc.set(Calendar.MILLISECOND, 0);
+        Assert.assertEquals(rowSet.getDate(2, utc).getTime(), utc.getTimeInMillis());
+        Assert.assertEquals(rowSet.getTimestamp("CREATED"), TIMESTAMP);
+        // The values are read from the columns rather than from a regular row set converted from them
+        Assert.assertEquals(conversions.get(), 0);
+    }
+
+    @Test
+    public void testIntegerGettersCheckRange() throws SQLException {
+        AtomicInteger conversions = new AtomicInteger();
+        CachedRowSet rowSet = createColumnarRowSet(conversions);
+        int rows = 0;
+        while (rowSet.next()) {
+            rows++;
+            if (rowSet.getLong(1) != LARGE_VALUE) {
+                Assert.assertEquals(rowSet.getInt(1), 7);
+                continue;
+            }
+            try {
+                rowSet.getInt(1);
+                Assert.fail("the value of the column does not fit an int");
+            } catch (SQLException e) {
+                Assert.assertTrue(e.getMessage().contains("out of the range"));
+            }
+        }
+        Assert.assertEquals(rows, 2);
+        Assert.assertEquals(conversions.get(), 0);
+    }
+
+    @Test
+    public void testZeroArgumentGetters() throws SQLException {
+        AtomicInteger conversions = new AtomicInteger();
+        CachedRowSet rowSet = createColumnarRowSet(conversions);
+        Assert.assertTrue(rowSet.next());
+        long id = rowSet.getLong(1);
+
+        // Getters without a column are served by the regular row set the columns are converted to
+        Assert.assertEquals(rowSet.getType(), ResultSet.TYPE_SCROLL_INSENSITIVE);
+        Assert.assertEquals(rowSet.getConcurrency(), ResultSet.CONCUR_UPDATABLE);
+        Assert.assertEquals(rowSet.getFetchSize(), 0);
+        Assert.assertNull(rowSet.getCommand());
+        Assert.assertEquals(conversions.get(), 1);
+        // The regular row set is positioned at the current row
+        Assert.assertEquals(rowSet.getRow(), 1);
+        Assert.assertEquals(rowSet.getLong(1), id);
+    }
+
+    private static CachedRowSet createColumnarRowSet(AtomicInteger conversions) throws SQLException {
+        RowSetFactory defaultFactory = RowSetProvider.newFactory();
+        RowSetFactory factory = (RowSetFactory) Proxy.newProxyInstance(ColumnarRowSetTest.class.getClassLoader(),
+                new Class<?>[]{RowSetFactory.class}, (proxy, method, args) -> {
+                    conversions.incrementAndGet();
+                    return method.invoke(defaultFactory, args);
+                });
+        CachedRowSet rowSet = ColumnarRowSet.create(factory);
+        rowSet.populate(createRows());
+        return rowSet;
+    }
+
+    private static CachedRowSet createRows() throws SQLException {
+        return DatasourceFixtures.createRows(new String[]{"ID", "CREATED"}, new int[]{Types.BIGINT, Types.TIMESTAMP},
+                new Object[]{LARGE_VALUE, TIMESTAMP}, new Object[]{7L, TIMESTAMP});
+    }
+}
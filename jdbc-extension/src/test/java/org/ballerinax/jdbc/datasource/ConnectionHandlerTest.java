@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinax.jdbc.datasource.DatasourceFixtures.TestDatasource;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.createRows;
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.fake;
+
+/**
+ * Test that a select streamed with a fetch size by {@link ConnectionHandler} is prepared with a forward only cursor
+ * fetching the given number of rows at a time. Fetching the rows on demand is left to the driver.
+ */
+public class ConnectionHandlerTest {
+
+    private static final String QUERY = "SELECT FirstName FROM Customers";
+    private static final int FETCH_SIZE = 3;
+
+    @AfterMethod
+    public void clearOptions() {
+        StatementOptions.clear();
+    }
+
+    @Test
+    public void testStreamedSelectIsPreparedWithFetchSize() throws SQLException {
+        List<Object> prepareArgs = new ArrayList<>();
+        AtomicInteger fetchSize = new AtomicInteger();
+        Connection connection = fake(Connection.class, (methodName, args) -> {
+            if (!"prepareStatement".equals(methodName)) {
+                return null;
+            }
+            prepareArgs.addAll(Arrays.asList(args));
+            return fake(PreparedStatement.class, (statementMethodName, statementArgs) -> {
+                switch (statementMethodName) {
+                case "setFetchSize":
+                    fetchSize.set((Integer) statementArgs[0]);
+                    return null;
+                case "executeQuery":
+                    return createRows(Types.VARCHAR, "Peter", "John", "Anne", "Jack", "Mary");
+                default:
+                    return null;
+                }
+            });
+        });
+        TestDatasource datasource = new TestDatasource(() -> connection);
+        StatementOptions options = new StatementOptions();
+        options.setQuery(true);
+        options.setFetchSize(FETCH_SIZE);
+        StatementOptions.set(options);
+
+        PreparedStatement statement = ConnectionHandler.wrap(connection, datasource, 0).prepareStatement(QUERY);
+
+        // The statement is prepared with a forward only, read only cursor fetching the given number of rows at a time
+        Assert.assertEquals(prepareArgs,
+                Arrays.asList(QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+        Assert.assertEquals(fetchSize.get(), FETCH_SIZE);
+        Assert.assertEquals(datasource.getMetrics().getStreamedQueries(), 1);
+
+        // The result of more rows than the fetch size is read through
+        ResultSet resultSet = statement.executeQuery();
+        int rows = 0;
+        while (resultSet.next()) {
+            rows++;
+        }
+        Assert.assertEquals(rows, 5);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Fakes of the JDBC objects and of the datasource shared by the tests of the datasource package.
+ */
+final class DatasourceFixtures {
+
+    static final String DATASOURCE_KEY = "jdbc:test";
+
+    private DatasourceFixtures() {
+    }
+
+    /**
+     * Answers the calls made on a fake.
+     */
+    interface Answer {
+        /**
+         * Returns the result of the call, where {@code null} stands for the default value of a primitive result.
+         */
+        Object answer(String methodName, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Returns a fake of the given JDBC interface of which the calls are answered by the given answer.
+     */
+    static <T> T fake(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(DatasourceFixtures.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        Object result = answer.answer(method.getName(), args);
+                        return result == null ? defaultValue(method.getReturnType()) : result;
+                    }
+                }));
+    }
+
+    /**
+     * Returns rows of a single column of the given {@link java.sql.Types type}, holding the given values.
+     */
+    static CachedRowSet createRows(int type, Object... values) throws SQLException {
+        Object[][] rows = new Object[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            rows[i] = new Object[]{values[i]};
+        }
+        return createRows(new String[]{"VALUE"}, new int[]{type}, rows);
+    }
+
+    /**
+     * Returns rows of the given columns, positioned before the first row.
+     */
+    static CachedRowSet createRows(String[] labels, int[] types, Object[]... rows) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(types.length);
+        for (int i = 0; i < types.length; i++) {
+            metaData.setColumnType(i + 1, types[i]);
+            metaData.setColumnLabel(i + 1, labels[i]);
+        }
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        for (Object[] row : rows) {
+            rowSet.moveToInsertRow();
+            for (int i = 0; i < row.length; i++) {
+                rowSet.updateObject(i + 1, row[i]);
+            }
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+
+    /**
+     * Returns a result set reading the given rows, which unlike the rows is not a row set.
+     */
+    static ResultSet createResultSet(CachedRowSet rows) {
+        return (ResultSet) Proxy.newProxyInstance(DatasourceFixtures.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(rows, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type.isPrimitive() && type != void.class) {
+            throw new UnsupportedOperationException("no default value of " + type);
+        }
+        return null;
+    }
+
+    /**
+     * Datasource which hands out the connections of the given supplier instead of those of a pool, and which reports
+     * the given database product without initializing a pool.
+     */
+    static class TestDatasource extends JDBCDatasource {
+
+        private final Supplier<Connection> connections;
+        private final String databaseProductName;
+        private final ClientMetrics metrics = new ClientMetrics(DATASOURCE_KEY);
+
+        TestDatasource(Supplier<Connection> connections) {
+            this("H2", connections);
+        }
+
+        TestDatasource(String databaseProductName, Supplier<Connection> connections) {
+            super(DATASOURCE_KEY);
+            this.databaseProductName = databaseProductName;
+            this.connections = connections;
+        }
+
+        @Override
+        Connection borrowConnection() {
+            return connections.get();
+        }
+
+        @Override
+        public ClientMetrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String getDatabaseProductName() {
+            return databaseProductName;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinax.jdbc.datasource.DatasourceFixtures.TestDatasource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.createRows;
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.fake;
+
+/**
+ * Test the keys returned by {@link GeneratedKeysBatch} for PostgreSQL, into a table of which the first column is not
+ * the key: {@code CREATE TABLE Customers (name VARCHAR(255), id SERIAL PRIMARY KEY)}.
+ */
+public class GeneratedKeysBatchTest {
+
+    private static final String SQL = "INSERT INTO Customers (name) VALUES (?)";
+
+    @Test
+    public void testKeysAreReadFromTheKeyColumn() throws SQLException {
+        List<String> statements = new ArrayList<>();
+        GeneratedKeysBatch batch = new GeneratedKeysBatch(createDatasource(statements), SQL, new String[]{"id"});
+        batch.add(new Object[]{"Anne"}, new int[]{Types.VARCHAR});
+        batch.add(new Object[]{"Jack"}, new int[]{Types.VARCHAR});
+
+        long[] keys = batch.execute();
+
+        // Only the key column is returned, rather than the name column which comes first in the table
+        Assert.assertEquals(statements,
+                Collections.singletonList("INSERT INTO Customers (name) VALUES (?),(?) RETURNING id"));
+        Assert.assertEquals(keys, new long[]{7, 8});
+    }
+
+    @Test
+    public void testKeyColumnsAreRequired() {
+        List<String> statements = new ArrayList<>();
+        GeneratedKeysBatch batch = new GeneratedKeysBatch(createDatasource(statements), SQL, null);
+        batch.add(new Object[]{"Anne"}, new int[]{Types.VARCHAR});
+
+        try {
+            batch.execute();
+            Assert.fail("the keys of a PostgreSQL batch are returned without key columns");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage().contains("key columns"));
+        }
+        Assert.assertTrue(statements.isEmpty());
+    }
+
+    private static JDBCDatasource createDatasource(List<String> statements) {
+        return new TestDatasource("PostgreSQL", () -> fake(Connection.class, (methodName, args) -> {
+            switch (methodName) {
+            case "getAutoCommit":
+                return true;
+            case "prepareStatement":
+                statements.add((String) args[0]);
+                return fake(PreparedStatement.class, (statementMethodName, statementArgs) ->
+                        "executeQuery".equals(statementMethodName) ? createRows(Types.BIGINT, 7L, 8L) : null);
+            default:
+                return null;
+            }
+        }));
+    }
+}
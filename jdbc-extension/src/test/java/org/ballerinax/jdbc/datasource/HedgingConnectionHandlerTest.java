@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.ballerinax.jdbc.datasource.DatasourceFixtures.TestDatasource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.createRows;
+import static org.ballerinax.jdbc.datasource.DatasourceFixtures.fake;
+
+/**
+ * Test that a select action hedged by {@link HedgingConnectionHandler} returns the first answer, without waiting for
+ * a replica which does not hand out a connection.
+ */
+public class HedgingConnectionHandlerTest {
+
+    @Test
+    public void testHedgeAnswersWhileReplicaWaitsForConnection() throws Exception {
+        CountDownLatch replicaConnectionAvailable = new CountDownLatch(1);
+        CompletableFuture<Boolean> replicaConnectionClosed = new CompletableFuture<>();
+        TestDatasource replica = new TestDatasource(() -> {
+            try {
+                replicaConnectionAvailable.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return createConnection(replicaConnectionClosed);
+        });
+        TestDatasource primary = new TestDatasource(() -> createConnection(new CompletableFuture<>()));
+        ReadHedger hedger = new ReadHedger(50, 1);
+        for (int i = 0; i < ReadHedger.MIN_SAMPLES; i++) {
+            hedger.executed(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        ReplicaRouter router = new ReplicaRouter(Collections.singletonList(replica), ReplicaRouter.ROUND_ROBIN);
+        Connection connection = HedgingConnectionHandler.wrap(primary, router, hedger, new StatementOptions());
+
+        PreparedStatement statement = connection.prepareStatement(
+                "SELECT FirstName FROM Customers WHERE registrationID = ?");
+        statement.setInt(1, 1);
+        long startTime = System.nanoTime();
+        ResultSet resultSet = statement.executeQuery();
+
+        // The primary database answers while the replica is still waiting for a connection
+        Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(10));
+        Assert.assertTrue(resultSet.next());
+        Assert.assertEquals(resultSet.getString(1), "Peter");
+        Assert.assertEquals(primary.getMetrics().getHedgedReads(), 1);
+        Assert.assertEquals(primary.getMetrics().getHedgedReadWins(), 1);
+        connection.close();
+
+        // The abandoned execution releases the connection once the replica hands it out
+        replicaConnectionAvailable.countDown();
+        Assert.assertTrue(replicaConnectionClosed.get(10, TimeUnit.SECONDS));
+    }
+
+    private static Connection createConnection(CompletableFuture<Boolean> closed) {
+        return fake(Connection.class, (methodName, args) -> {
+            switch (methodName) {
+            case "prepareStatement":
+                return fake(PreparedStatement.class, (statementMethodName, statementArgs) ->
+                        "executeQuery".equals(statementMethodName) ? createRows(Types.VARCHAR, "Peter") : null);
+            case "close":
+                closed.complete(true);
+                return null;
+            default:
+                return null;
+            }
+        });
+    }
+}
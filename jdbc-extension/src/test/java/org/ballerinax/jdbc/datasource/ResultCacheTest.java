@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Test the invalidation of the results cached by {@link ResultCache} while the queries are being executed, and the
+ * generations kept for the tables written.
+ */
+public class ResultCacheTest {
+
+    private static final List<Object> KEY = Arrays.asList("SELECT FirstName from Customers", 1);
+    private static final Set<String> TABLES = Collections.singleton("CUSTOMERS");
+
+    @Test
+    public void testResultReadBeforeInvalidationIsNotCached() throws SQLException {
+        ResultCache cache = new ResultCache(60000, 1024 * 1024);
+        long generation = cache.generation(TABLES);
+        cache.invalidate(Collections.singleton("CUSTOMERS"));
+        cache.put(KEY, createRows(), TABLES, generation).close();
+        Assert.assertNull(cache.get(KEY));
+
+        cache.put(KEY, createRows(), TABLES, cache.generation(TABLES)).close();
+        Assert.assertNotNull(cache.get(KEY));
+    }
+
+    @Test
+    public void testResultIsCachedAfterInvalidationOfOtherTables() throws SQLException {
+        ResultCache cache = new ResultCache(60000, 1024 * 1024);
+        long generation = cache.generation(TABLES);
+        cache.invalidate(Collections.singleton("ORDERS"));
+        cache.put(KEY, createRows(), TABLES, generation).close();
+        Assert.assertNotNull(cache.get(KEY));
+    }
+
+    @Test
+    public void testResultOfUnknownTablesIsNotCachedAfterAnyInvalidation() throws SQLException {
+        ResultCache cache = new ResultCache(60000, 1024 * 1024);
+        long generation = cache.generation(null);
+        cache.invalidate(Collections.singleton("ORDERS"));
+        cache.put(KEY, createRows(), null, generation).close();
+        Assert.assertNull(cache.get(KEY));
+    }
+
+    @Test
+    public void testGenerationsOfUnreadTablesAreDropped() throws SQLException {
+        ResultCache cache = new ResultCache(60000, 1024 * 1024);
+        cache.invalidate(TABLES);
+        cache.put(KEY, createRows(), TABLES, cache.generation(TABLES)).close();
+        long generation = cache.generation(TABLES);
+
+        for (int i = 0; i <= ResultCache.MAX_TABLE_GENERATIONS; i++) {
+            cache.invalidate(Collections.singleton("TABLE" + i));
+        }
+
+        // The generation of the table read by the cached result is kept, and those of the other tables are dropped
+        Assert.assertTrue(cache.getTableGenerationCount() <= ResultCache.MAX_TABLE_GENERATIONS);
+        Assert.assertNotNull(cache.get(KEY));
+        // A result read before the generations were dropped is not cached, as if its tables were written
+        Assert.assertNotEquals(cache.generation(TABLES), generation);
+        cache.invalidate(TABLES);
+        cache.put(KEY, createRows(), TABLES, generation).close();
+        Assert.assertNull(cache.get(KEY));
+    }
+
+    private static CachedRowSet createRows() throws SQLException {
+        return DatasourceFixtures.createRows(Types.VARCHAR, "Peter");
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * Test the sharing of results by {@link SelectCollapser} around its maximum number of rows, and the deadline of the
+ * queries waiting for an identical one.
+ */
+public class SelectCollapserTest {
+
+    private static final List<Object> KEY = Arrays.asList("SELECT FirstName from Customers where registrationID = ?",
+            1);
+
+    @Test
+    public void testResultOfMaximumRowsIsShared() throws Exception {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        SelectCollapser collapser = new SelectCollapser(1, metrics);
+        AtomicInteger shares = new AtomicInteger();
+        CompletableFuture<Integer> follower = new CompletableFuture<>();
+        ResultSet result = collapser.execute(KEY, 0, () -> {
+            // The identical query arrives while the first one is being executed
+            Thread thread = new Thread(() -> {
+                try {
+                    follower.complete(countRows(collapser.execute(KEY, 0, () -> createRows(1), rows -> rows)));
+                } catch (SQLException | RuntimeException e) {
+                    follower.completeExceptionally(e);
+                }
+            });
+            thread.start();
+            awaitWaiting(thread);
+            return createRows(1);
+        }, rows -> {
+            shares.incrementAndGet();
+            return rows.createShared();
+        });
+
+        Assert.assertEquals(countRows(result), 1);
+        Assert.assertEquals(shares.get(), 1);
+        Assert.assertEquals(follower.get(10, TimeUnit.SECONDS).intValue(), 1);
+        Assert.assertEquals(metrics.getCollapsedSelects(), 1);
+        Assert.assertEquals(metrics.getCollapsedSelectFallbacks(), 0);
+    }
+
+    @Test
+    public void testResultBeyondMaximumRowsIsNotShared() throws Exception {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        SelectCollapser collapser = new SelectCollapser(1, metrics);
+        AtomicInteger shares = new AtomicInteger();
+        ResultSet result = collapser.execute(KEY, 0, () -> createRows(3), rows -> {
+            shares.incrementAndGet();
+            return rows.createShared();
+        });
+
+        // The rows read beyond the maximum are returned before the rest of the result
+        Assert.assertEquals(countRows(result), 3);
+        Assert.assertEquals(shares.get(), 0);
+    }
+
+    @Test
+    public void testWaitingQueryTimesOutAtItsDeadline() throws Exception {
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        SelectCollapser collapser = new SelectCollapser(1, metrics);
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Integer> leader = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                leader.complete(countRows(collapser.execute(KEY, 0, () -> {
+                    executing.countDown();
+                    awaitQuietly(finish);
+                    return createRows(1);
+                }, CachedRowSet::createShared)));
+            } catch (SQLException | RuntimeException e) {
+                leader.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        Assert.assertTrue(executing.await(10, TimeUnit.SECONDS));
+
+        // The identical query gives up waiting for the slow query once its own deadline passes
+        long startTime = System.nanoTime();
+        try {
+            collapser.execute(KEY, startTime + TimeUnit.MILLISECONDS.toNanos(50), () -> createRows(1),
+                    CachedRowSet::createShared);
+            Assert.fail("the identical query waits past its deadline");
+        } catch (SQLTimeoutException e) {
+            Assert.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        }
+        Assert.assertEquals(metrics.getTimedOutStatements(), 1);
+
+        finish.countDown();
+        Assert.assertEquals(leader.get(10, TimeUnit.SECONDS).intValue(), 1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() > deadline) {
+                Assert.fail("the identical query does not wait for the first one");
+            }
+            Thread.yield();
+        }
+    }
+
+    private static int countRows(ResultSet result) throws SQLException {
+        Assert.assertNotNull(result, "the result is not shared");
+        int rows = 0;
+        while (result.next()) {
+            Assert.assertEquals(result.getString(1), "Peter");
+            rows++;
+        }
+        result.close();
+        return rows;
+    }
+
+    private static CachedRowSet createRows(int rowCount) throws SQLException {
+        Object[] values = new Object[rowCount];
+        Arrays.fill(values, "Peter");
+        return DatasourceFixtures.createRows(Types.VARCHAR, values);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.jdbc.datasource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+/**
+ * Test the concurrent prepare and commit of the branches of a transaction by {@link XATransaction}, and the removal
+ * of completed and abandoned transactions.
+ */
+public class XATransactionTest {
+
+    @Test
+    public void testBranchesArePreparedAndCommittedWithTheirOwnXid() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        XAResource branch1 = createBranch("db1", calls, metrics, true);
+        XAResource branch2 = createBranch("db2", calls, metrics, true);
+        Xid xid1 = new TestXid(1);
+        Xid xid2 = new TestXid(2);
+        branch1.start(xid1, XAResource.TMNOFLAGS);
+        branch2.start(xid2, XAResource.TMNOFLAGS);
+
+        // The first branch asked to prepare or to commit does so for both branches
+        Assert.assertEquals(branch1.prepare(xid1), XAResource.XA_OK);
+        Assert.assertEquals(branch2.prepare(xid2), XAResource.XA_OK);
+        branch1.commit(xid1, false);
+        branch2.commit(xid2, false);
+
+        List<String> sortedCalls = new ArrayList<>(calls);
+        Collections.sort(sortedCalls);
+        Assert.assertEquals(sortedCalls, Arrays.asList("db1 commit 1", "db1 end 1", "db1 prepare 1", "db1 start 1",
+                "db2 commit 2", "db2 end 2", "db2 prepare 2", "db2 start 2"));
+        Assert.assertEquals(metrics.getTwoPhaseCommits(), 2);
+        Assert.assertEquals(metrics.getOnePhaseCommits(), 0);
+        Assert.assertFalse(XATransaction.isEnlisted(xid1));
+    }
+
+    @Test
+    public void testBranchesAreCompletedInTurnUnlessParallel() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        XAResource branch1 = createBranch("db1", calls, metrics, false);
+        XAResource branch2 = createBranch("db2", calls, metrics, false);
+        Xid xid1 = new TestXid(1);
+        Xid xid2 = new TestXid(2);
+        branch1.start(xid1, XAResource.TMNOFLAGS);
+        branch2.start(xid2, XAResource.TMNOFLAGS);
+        branch1.end(xid1, XAResource.TMSUCCESS);
+        branch2.end(xid2, XAResource.TMSUCCESS);
+
+        // Each branch is prepared and committed only when the transaction manager reaches it
+        Assert.assertEquals(branch1.prepare(xid1), XAResource.XA_OK);
+        Assert.assertFalse(calls.contains("db2 prepare 2"));
+        Assert.assertEquals(branch2.prepare(xid2), XAResource.XA_OK);
+        branch1.commit(xid1, false);
+        Assert.assertFalse(calls.contains("db2 commit 2"));
+        branch2.commit(xid2, false);
+
+        Assert.assertEquals(calls, Arrays.asList("db1 start 1", "db2 start 2", "db1 end 1", "db2 end 2",
+                "db1 prepare 1", "db2 prepare 2", "db1 commit 1", "db2 commit 2"));
+        Assert.assertEquals(metrics.getTwoPhaseCommits(), 2);
+        Assert.assertFalse(XATransaction.isEnlisted(xid1));
+    }
+
+    @Test
+    public void testRolledBackTransactionIsRemoved() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        ClientMetrics metrics = new ClientMetrics("jdbc:test");
+        XAResource branch1 = createBranch("db1", calls, metrics, true);
+        XAResource branch2 = createBranch("db2", calls, metrics, true);
+        Xid xid1 = new TestXid(1);
+        Xid xid2 = new TestXid(2);
+        branch1.start(xid1, XAResource.TMNOFLAGS);
+        branch2.start(xid2, XAResource.TMNOFLAGS);
+        Assert.assertTrue(XATransaction.isEnlisted(xid1));
+
+        branch1.rollback(xid1);
+        Assert.assertTrue(XATransaction.isEnlisted(xid1));
+        branch2.rollback(xid2);
+        Assert.assertFalse(XATransaction.isEnlisted(xid1));
+    }
+
+    @Test
+    public void testForgottenBranchIsRemoved() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        XAResource branch = createBranch("db1", calls, new ClientMetrics("jdbc:test"), true);
+        Xid xid = new TestXid(1);
+        branch.start(xid, XAResource.TMNOFLAGS);
+        Assert.assertTrue(XATransaction.isEnlisted(xid));
+
+        branch.forget(xid);
+        Assert.assertFalse(XATransaction.isEnlisted(xid));
+    }
+
+    @Test
+    public void testAbandonedTransactionExpires() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        XABranch branch = (XABranch) createBranch("db1", calls, new ClientMetrics("jdbc:test"), true);
+        Xid xid = new TestXid(1);
+        XATransaction transaction = XATransaction.enlist(xid, branch, 50);
+        Assert.assertTrue(transaction.isOnlyBranch(branch));
+
+        // The branch is never completed, and the transaction is forgotten once its time to live elapses
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (XATransaction.isEnlisted(xid)) {
+            if (System.nanoTime() > deadline) {
+                Assert.fail("the abandoned transaction is not removed");
+            }
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(transaction.isOnlyBranch(branch));
+    }
+
+    private static XAResource createBranch(String name, List<String> calls, ClientMetrics metrics,
+                                           boolean parallelCompletion) throws Exception {
+        XAResource resource = (XAResource) Proxy.newProxyInstance(XATransactionTest.class.getClassLoader(),
+                new Class<?>[]{XAResource.class}, (proxy, method, args) -> {
+                    calls.add(name + " " + method.getName() + " " + ((TestXid) args[0]).branch);
+                    return "prepare".equals(method.getName()) ? XAResource.XA_OK : null;
+                });
+        XAConnection connection = (XAConnection) Proxy.newProxyInstance(XATransactionTest.class.getClassLoader(),
+                new Class<?>[]{XAConnection.class}, (proxy, method, args) -> resource);
+        XADataSource dataSource = (XADataSource) Proxy.newProxyInstance(XATransactionTest.class.getClassLoader(),
+                new Class<?>[]{XADataSource.class}, (proxy, method, args) -> connection);
+        return XABranch.wrap(dataSource, metrics, false, parallelCompletion).getXAConnection().getXAResource();
+    }
+
+    /**
+     * An {@link Xid} of a branch of the same global transaction as the other instances.
+     */
+    private static class TestXid implements Xid {
+
+        private final int branch;
+
+        TestXid(int branch) {
+            this.branch = branch;
+        }
+
+        @Override
+        public int getFormatId() {
+            return 1;
+        }
+
+        @Override
+        public byte[] getGlobalTransactionId() {
+            return new byte[]{1, 2, 3};
+        }
+
+        @Override
+        public byte[] getBranchQualifier() {
+            return new byte[]{(byte) branch};
+        }
+    }
+}